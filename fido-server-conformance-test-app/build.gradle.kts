@@ -16,6 +16,7 @@
 
 plugins {
     id("org.springframework.boot")
+    alias(libs.plugins.jmh)
 }
 
 group = "com.webauthn4j"
@@ -27,6 +28,8 @@ tasks.withType<org.springframework.boot.gradle.tasks.bundling.BootJar> {
 
 dependencies {
     implementation(libs.webauthn4j.spring.security.core)
+    implementation(project(":lib:stateless-challenge"))
+    implementation(project(":lib:object-converter"))
     implementation(libs.webauthn4j.spring.security.metadata)
     implementation(libs.webauthn4j.core)
 
@@ -59,6 +62,9 @@ dependencies {
     testImplementation("org.assertj:assertj-core")
     testImplementation(libs.dbunit)
     testImplementation(libs.spring.test.dbunit)
+
+    //Benchmark
+    jmhImplementation("org.springframework:spring-test")
 }
 
 sonar {
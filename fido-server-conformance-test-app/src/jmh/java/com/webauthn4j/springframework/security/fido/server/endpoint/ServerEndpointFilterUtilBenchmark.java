@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.fido.server.endpoint;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the response write path of the FIDO server endpoints, comparing the cached constant bodies
+ * with the previous serialize-to-String-and-print approach.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerEndpointFilterUtilBenchmark {
+
+    private ObjectConverter objectConverter;
+    private ServerEndpointFilterUtil serverEndpointFilterUtil;
+    private AttestationResultSuccessResponse successResponse;
+    private ServerPublicKeyCredentialGetOptionsResponse optionsResponse;
+    private RuntimeException authenticationException;
+
+    @Setup
+    public void setup() {
+        objectConverter = new ObjectConverter();
+        serverEndpointFilterUtil = new ServerEndpointFilterUtil(objectConverter);
+        successResponse = new AttestationResultSuccessResponse();
+        optionsResponse = new ServerPublicKeyCredentialGetOptionsResponse(
+                "Y2hhbGxlbmdl", 60000L, "example.com", null, null, null);
+        authenticationException = new BadCredentialsException("bad credentials");
+    }
+
+    @Benchmark
+    public HttpServletResponse writeResponse_constant() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        serverEndpointFilterUtil.writeResponse(response, successResponse);
+        return response;
+    }
+
+    @Benchmark
+    public HttpServletResponse writeResponse_dynamic() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        serverEndpointFilterUtil.writeResponse(response, optionsResponse);
+        return response;
+    }
+
+    @Benchmark
+    public HttpServletResponse writeErrorResponse() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        serverEndpointFilterUtil.writeErrorResponse(response, authenticationException);
+        return response;
+    }
+
+    @Benchmark
+    public HttpServletResponse writeResponse_viaWriter() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String responseText = objectConverter.getJsonConverter().writeValueAsString(successResponse);
+        response.setContentType("application/json");
+        response.getWriter().print(responseText);
+        return response;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.fido.server.endpoint;
+
+import com.webauthn4j.data.UserVerificationRequirement;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-layout binary codec for the username and user verification envelopes embedded in challenges.
+ * <pre>
+ * version(1) | type(1) | nonceLength(1) | nonce | payload
+ *
+ * username payload          : length(2, big endian, 0xFFFF for null) | UTF-8 bytes
+ * user verification payload : 0 = null, 1 = required, 2 = preferred, 3 = discouraged, 4 = other, followed by its UTF-8 value
+ * </pre>
+ * Envelopes are not authenticated here, as the challenge they are embedded in is matched against the one saved by the
+ * {@code ChallengeRepository}. Encoding allocates nothing but the returned array, and decoding returns {@code null}
+ * for malformed input instead of throwing.
+ */
+class ChallengeEnvelopeCodec {
+
+    static final byte VERSION = 1;
+    static final byte TYPE_USERNAME = 1;
+    static final byte TYPE_USER_VERIFICATION = 2;
+    static final int MAX_USERNAME_LENGTH = 0xFFFE;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int MAX_NONCE_LENGTH = 0xFF;
+    private static final int NULL_USERNAME = 0xFFFF;
+
+    private static final byte USER_VERIFICATION_NULL = 0;
+    private static final byte USER_VERIFICATION_REQUIRED = 1;
+    private static final byte USER_VERIFICATION_PREFERRED = 2;
+    private static final byte USER_VERIFICATION_DISCOURAGED = 3;
+    private static final byte USER_VERIFICATION_OTHER = 4;
+
+    byte[] encodeUsername(byte[] nonce, String username) {
+        int usernameLength = username == null ? 0 : utf8Length(username);
+        if (usernameLength > MAX_USERNAME_LENGTH) {
+            throw new IllegalArgumentException("username must not exceed " + MAX_USERNAME_LENGTH + " bytes");
+        }
+        byte[] envelope = allocate(nonce, 2 + usernameLength);
+        int position = writeHeader(envelope, TYPE_USERNAME, nonce);
+        int lengthField = username == null ? NULL_USERNAME : usernameLength;
+        envelope[position++] = (byte) (lengthField >>> 8);
+        envelope[position++] = (byte) lengthField;
+        if (username != null) {
+            writeUtf8(username, envelope, position);
+        }
+        return envelope;
+    }
+
+    byte[] encodeUserVerification(byte[] nonce, UserVerificationRequirement userVerification) {
+        byte code = toCode(userVerification);
+        if (code != USER_VERIFICATION_OTHER) {
+            byte[] envelope = allocate(nonce, 1);
+            int position = writeHeader(envelope, TYPE_USER_VERIFICATION, nonce);
+            envelope[position] = code;
+            return envelope;
+        }
+        String value = userVerification.getValue();
+        byte[] envelope = allocate(nonce, 1 + utf8Length(value));
+        int position = writeHeader(envelope, TYPE_USER_VERIFICATION, nonce);
+        envelope[position++] = code;
+        writeUtf8(value, envelope, position);
+        return envelope;
+    }
+
+    /**
+     * @return the username, or {@code null} if the envelope carries none or is malformed
+     */
+    String decodeUsername(byte[] envelope) {
+        int position = payloadOffset(envelope, TYPE_USERNAME);
+        if (position < 0 || envelope.length - position < 2) {
+            return null;
+        }
+        int length = ((envelope[position] & 0xFF) << 8) | (envelope[position + 1] & 0xFF);
+        position += 2;
+        if (length == NULL_USERNAME || position + length != envelope.length) {
+            return null;
+        }
+        return new String(envelope, position, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the user verification requirement, or {@code null} if the envelope carries none or is malformed
+     */
+    UserVerificationRequirement decodeUserVerification(byte[] envelope) {
+        int position = payloadOffset(envelope, TYPE_USER_VERIFICATION);
+        if (position < 0 || position == envelope.length) {
+            return null;
+        }
+        byte code = envelope[position++];
+        if (code == USER_VERIFICATION_OTHER) {
+            return UserVerificationRequirement.create(new String(envelope, position, envelope.length - position, StandardCharsets.UTF_8));
+        }
+        if (position != envelope.length) {
+            return null;
+        }
+        switch (code) {
+            case USER_VERIFICATION_REQUIRED:
+                return UserVerificationRequirement.REQUIRED;
+            case USER_VERIFICATION_PREFERRED:
+                return UserVerificationRequirement.PREFERRED;
+            case USER_VERIFICATION_DISCOURAGED:
+                return UserVerificationRequirement.DISCOURAGED;
+            default:
+                return null;
+        }
+    }
+
+    private byte[] allocate(byte[] nonce, int payloadLength) {
+        if (nonce.length > MAX_NONCE_LENGTH) {
+            throw new IllegalArgumentException("nonce must not exceed " + MAX_NONCE_LENGTH + " bytes");
+        }
+        return new byte[HEADER_LENGTH + nonce.length + payloadLength];
+    }
+
+    private int writeHeader(byte[] envelope, byte type, byte[] nonce) {
+        envelope[0] = VERSION;
+        envelope[1] = type;
+        envelope[2] = (byte) nonce.length;
+        System.arraycopy(nonce, 0, envelope, HEADER_LENGTH, nonce.length);
+        return HEADER_LENGTH + nonce.length;
+    }
+
+    /**
+     * @return offset of the payload, or {@code -1} if the header is malformed
+     */
+    private int payloadOffset(byte[] envelope, byte type) {
+        if (envelope == null || envelope.length < HEADER_LENGTH) {
+            return -1;
+        }
+        if (envelope[0] != VERSION || envelope[1] != type) {
+            return -1;
+        }
+        int position = HEADER_LENGTH + (envelope[2] & 0xFF);
+        if (position > envelope.length) {
+            return -1;
+        }
+        return position;
+    }
+
+    private static byte toCode(UserVerificationRequirement userVerification) {
+        if (userVerification == null) {
+            return USER_VERIFICATION_NULL;
+        }
+        if (UserVerificationRequirement.REQUIRED.equals(userVerification)) {
+            return USER_VERIFICATION_REQUIRED;
+        }
+        if (UserVerificationRequirement.PREFERRED.equals(userVerification)) {
+            return USER_VERIFICATION_PREFERRED;
+        }
+        if (UserVerificationRequirement.DISCOURAGED.equals(userVerification)) {
+            return USER_VERIFICATION_DISCOURAGED;
+        }
+        return USER_VERIFICATION_OTHER;
+    }
+
+    /**
+     * Computes the length {@link String#getBytes} would produce for UTF-8, replacing unpaired surrogates with '?'.
+     */
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 1;
+                }
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int writeUtf8(String value, byte[] out, int position) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    out[position++] = (byte) '?';
+                }
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+}
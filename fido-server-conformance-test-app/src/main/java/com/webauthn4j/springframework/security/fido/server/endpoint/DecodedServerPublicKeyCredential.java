@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.fido.server.endpoint;
+
+/**
+ * {@link ServerPublicKeyCredential} whose base64url members are already decoded and whose structure has been
+ * checked by {@link ServerPublicKeyCredentialReader}.
+ */
+class DecodedServerPublicKeyCredential {
+
+    private final byte[] credentialId;
+    private final byte[] clientDataJSON;
+    private final byte[] attestationObject;
+    private final byte[] authenticatorData;
+    private final byte[] signature;
+    private final byte[] userHandle;
+    private final String clientExtensionResults;
+
+    DecodedServerPublicKeyCredential(byte[] credentialId, byte[] clientDataJSON, byte[] attestationObject,
+                                     byte[] authenticatorData, byte[] signature, byte[] userHandle,
+                                     String clientExtensionResults) {
+        this.credentialId = credentialId;
+        this.clientDataJSON = clientDataJSON;
+        this.attestationObject = attestationObject;
+        this.authenticatorData = authenticatorData;
+        this.signature = signature;
+        this.userHandle = userHandle;
+        this.clientExtensionResults = clientExtensionResults;
+    }
+
+    byte[] getCredentialId() {
+        return credentialId;
+    }
+
+    byte[] getClientDataJSON() {
+        return clientDataJSON;
+    }
+
+    byte[] getAttestationObject() {
+        return attestationObject;
+    }
+
+    byte[] getAuthenticatorData() {
+        return authenticatorData;
+    }
+
+    byte[] getSignature() {
+        return signature;
+    }
+
+    byte[] getUserHandle() {
+        return userHandle;
+    }
+
+    String getClientExtensionResults() {
+        return clientExtensionResults;
+    }
+}
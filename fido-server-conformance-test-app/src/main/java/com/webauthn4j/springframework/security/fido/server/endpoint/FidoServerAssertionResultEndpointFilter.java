@@ -16,10 +16,8 @@
 
 package com.webauthn4j.springframework.security.fido.server.endpoint;
 
-import tools.jackson.core.type.TypeReference;
 import com.webauthn4j.converter.CollectedClientDataConverter;
 import com.webauthn4j.converter.exception.DataConversionException;
-import com.webauthn4j.converter.util.JsonConverter;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.UserVerificationRequirement;
 import com.webauthn4j.data.client.CollectedClientData;
@@ -27,9 +25,7 @@ import com.webauthn4j.server.ServerProperty;
 import com.webauthn4j.springframework.security.WebAuthnAssertionAuthenticationToken;
 import com.webauthn4j.springframework.security.WebAuthnAuthenticationParameters;
 import com.webauthn4j.springframework.security.WebAuthnAuthenticationRequest;
-import com.webauthn4j.springframework.security.fido.server.validator.ServerPublicKeyCredentialValidator;
 import com.webauthn4j.springframework.security.server.ServerPropertyProvider;
-import com.webauthn4j.util.Base64UrlUtil;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
@@ -38,9 +34,6 @@ import org.springframework.util.Assert;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.UncheckedIOException;
 import java.util.Collections;
 
 public class FidoServerAssertionResultEndpointFilter extends AbstractAuthenticationProcessingFilter {
@@ -50,12 +43,8 @@ public class FidoServerAssertionResultEndpointFilter extends AbstractAuthenticat
      */
     public static final String FILTER_URL = "/webauthn/assertion/result";
 
-    private final JsonConverter jsonConverter;
     private final ServerPropertyProvider serverPropertyProvider;
-    private final ServerPublicKeyCredentialValidator<ServerAuthenticatorAssertionResponse> serverPublicKeyCredentialValidator;
-    private final TypeReference<ServerPublicKeyCredential<ServerAuthenticatorAssertionResponse>> credentialTypeRef
-            = new TypeReference<ServerPublicKeyCredential<ServerAuthenticatorAssertionResponse>>() {
-    };
+    private final ServerPublicKeyCredentialReader serverPublicKeyCredentialReader;
     private final CollectedClientDataConverter collectedClientDataConverter;
     private final ServerEndpointFilterUtil serverEndpointFilterUtil;
 
@@ -65,9 +54,8 @@ public class FidoServerAssertionResultEndpointFilter extends AbstractAuthenticat
             RequestMatcher requiresAuthenticationRequestMatcher) {
         super(requiresAuthenticationRequestMatcher);
 
-        this.jsonConverter = objectConverter.getJsonConverter();
         this.serverPropertyProvider = serverPropertyProvider;
-        this.serverPublicKeyCredentialValidator = new ServerPublicKeyCredentialValidator<>();
+        this.serverPublicKeyCredentialReader = new ServerPublicKeyCredentialReader();
 
         this.setAuthenticationSuccessHandler(new FidoServerAssertionResultEndpointSuccessHandler(objectConverter));
         this.setAuthenticationFailureHandler(new FidoServerAssertionResultEndpointFailureHandler(objectConverter));
@@ -99,28 +87,19 @@ public class FidoServerAssertionResultEndpointFilter extends AbstractAuthenticat
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) {
-        InputStream inputStream;
-        try {
-            inputStream = request.getInputStream();
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
         try{
-            ServerPublicKeyCredential<ServerAuthenticatorAssertionResponse> credential = jsonConverter.readValue(inputStream, credentialTypeRef);
-            serverPublicKeyCredentialValidator.validate(credential);
-
-            ServerAuthenticatorAssertionResponse assertionResponse = credential.getResponse();
+            DecodedServerPublicKeyCredential credential = serverPublicKeyCredentialReader.readAssertion(request);
 
             ServerProperty serverProperty = serverPropertyProvider.provide(request);
 
-            CollectedClientData collectedClientData = collectedClientDataConverter.convert(assertionResponse.getClientDataJSON());
+            CollectedClientData collectedClientData = collectedClientDataConverter.convert(credential.getClientDataJSON());
             UserVerificationRequirement userVerificationRequirement = serverEndpointFilterUtil.decodeUserVerification(collectedClientData.getChallenge());
 
             WebAuthnAuthenticationRequest webAuthnAuthenticationRequest = new WebAuthnAuthenticationRequest(
-                    credential.getRawId() == null ? null : Base64UrlUtil.decode(credential.getRawId()),
-                    assertionResponse.getClientDataJSON() == null ? null : Base64UrlUtil.decode(assertionResponse.getClientDataJSON()),
-                    assertionResponse.getAuthenticatorData() == null ? null : Base64UrlUtil.decode(assertionResponse.getAuthenticatorData()),
-                    assertionResponse.getSignature() == null ? null : Base64UrlUtil.decode(assertionResponse.getSignature()),
+                    credential.getCredentialId(),
+                    credential.getClientDataJSON(),
+                    credential.getAuthenticatorData(),
+                    credential.getSignature(),
                     credential.getClientExtensionResults()
             );
             WebAuthnAuthenticationParameters webAuthnAuthenticationParameters = new WebAuthnAuthenticationParameters(
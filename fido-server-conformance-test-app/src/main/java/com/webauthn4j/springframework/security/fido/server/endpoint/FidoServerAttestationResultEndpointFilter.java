@@ -16,28 +16,28 @@
 
 package com.webauthn4j.springframework.security.fido.server.endpoint;
 
-import tools.jackson.core.type.TypeReference;
+import com.webauthn4j.WebAuthnManager;
 import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.AuthenticationExtensionsClientOutputsConverter;
 import com.webauthn4j.converter.CollectedClientDataConverter;
 import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.RegistrationData;
+import com.webauthn4j.data.RegistrationParameters;
 import com.webauthn4j.data.attestation.AttestationObject;
 import com.webauthn4j.data.client.CollectedClientData;
-import com.webauthn4j.springframework.security.WebAuthnRegistrationRequestValidator;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordImpl;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordManager;
-import com.webauthn4j.springframework.security.fido.server.validator.ServerPublicKeyCredentialValidator;
+import com.webauthn4j.springframework.security.server.ServerPropertyProvider;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.util.Assert;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.UncheckedIOException;
 import java.util.Collections;
-import java.util.Set;
 
 public class FidoServerAttestationResultEndpointFilter extends ServerEndpointFilterBase {
 
@@ -50,27 +50,29 @@ public class FidoServerAttestationResultEndpointFilter extends ServerEndpointFil
     private final WebAuthnCredentialRecordManager webAuthnAuthenticatorManager;
     private final AttestationObjectConverter attestationObjectConverter;
     private final CollectedClientDataConverter collectedClientDataConverter;
-    private final WebAuthnRegistrationRequestValidator webAuthnRegistrationRequestValidator;
-    private final ServerPublicKeyCredentialValidator<ServerAuthenticatorAttestationResponse> serverPublicKeyCredentialValidator;
+    private final AuthenticationExtensionsClientOutputsConverter authenticationExtensionsClientOutputsConverter;
+    private final WebAuthnManager webAuthnManager;
+    private final ServerPropertyProvider serverPropertyProvider;
+    private final ServerPublicKeyCredentialReader serverPublicKeyCredentialReader;
 
     private UsernameNotFoundHandler usernameNotFoundHandler = new DefaultUsernameNotFoundHandler();
-    private final TypeReference<ServerPublicKeyCredential<ServerAuthenticatorAttestationResponse>> credentialTypeRef
-            = new TypeReference<ServerPublicKeyCredential<ServerAuthenticatorAttestationResponse>>() {
-    };
 
     public FidoServerAttestationResultEndpointFilter(
             ObjectConverter objectConverter,
             UserDetailsService userDetailsService,
             WebAuthnCredentialRecordManager webAuthnAuthenticatorManager,
-            WebAuthnRegistrationRequestValidator webAuthnRegistrationRequestValidator) {
+            WebAuthnManager webAuthnManager,
+            ServerPropertyProvider serverPropertyProvider) {
         super(FILTER_URL, objectConverter);
         this.attestationObjectConverter = new AttestationObjectConverter(objectConverter);
         this.collectedClientDataConverter = new CollectedClientDataConverter(objectConverter);
-        this.serverPublicKeyCredentialValidator = new ServerPublicKeyCredentialValidator<>();
+        this.authenticationExtensionsClientOutputsConverter = new AuthenticationExtensionsClientOutputsConverter(objectConverter);
+        this.serverPublicKeyCredentialReader = new ServerPublicKeyCredentialReader();
 
         this.userDetailsService = userDetailsService;
         this.webAuthnAuthenticatorManager = webAuthnAuthenticatorManager;
-        this.webAuthnRegistrationRequestValidator = webAuthnRegistrationRequestValidator;
+        this.webAuthnManager = webAuthnManager;
+        this.serverPropertyProvider = serverPropertyProvider;
         checkConfig();
     }
 
@@ -82,31 +84,27 @@ public class FidoServerAttestationResultEndpointFilter extends ServerEndpointFil
 
     @SuppressWarnings("squid:S2177")
     private void checkConfig() {
-        Assert.notNull(webAuthnRegistrationRequestValidator, "webAuthnRegistrationRequestValidator must not be null");
+        Assert.notNull(webAuthnManager, "webAuthnManager must not be null");
+        Assert.notNull(serverPropertyProvider, "serverPropertyProvider must not be null");
     }
 
     @Override
     protected ServerResponse processRequest(HttpServletRequest request) {
-        InputStream inputStream;
-        try {
-            inputStream = request.getInputStream();
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
         try{
-            ServerPublicKeyCredential<ServerAuthenticatorAttestationResponse> credential =
-                    this.objectConverter.getJsonConverter().readValue(inputStream, credentialTypeRef);
-            serverPublicKeyCredentialValidator.validate(credential);
-            ServerAuthenticatorAttestationResponse response = credential.getResponse();
-            CollectedClientData collectedClientData = collectedClientDataConverter.convert(response.getClientDataJSON());
-            AttestationObject attestationObject = attestationObjectConverter.convert(response.getAttestationObject());
-            Set<String> transports = Collections.emptySet();
-            webAuthnRegistrationRequestValidator.validate(
-                    request,
-                    response.getClientDataJSON(),
-                    response.getAttestationObject(),
-                    transports,
-                    credential.getClientExtensionResults());
+            DecodedServerPublicKeyCredential credential = serverPublicKeyCredentialReader.readAttestation(request);
+            // verify the very same decoded objects that are persisted below
+            byte[] clientDataBytes = credential.getClientDataJSON();
+            byte[] attestationObjectBytes = credential.getAttestationObject();
+            CollectedClientData collectedClientData = collectedClientDataConverter.convert(clientDataBytes);
+            AttestationObject attestationObject = attestationObjectConverter.convert(attestationObjectBytes);
+            String clientExtensionsJSON = credential.getClientExtensionResults();
+            AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> clientExtensions =
+                    clientExtensionsJSON == null ? null : authenticationExtensionsClientOutputsConverter.convert(clientExtensionsJSON);
+            RegistrationData registrationData = new RegistrationData(
+                    attestationObject, attestationObjectBytes,
+                    collectedClientData, clientDataBytes,
+                    clientExtensions, Collections.emptySet());
+            webAuthnManager.verify(registrationData, new RegistrationParameters(serverPropertyProvider.provide(request), null, false, true));
 
             String loginUsername = serverEndpointFilterUtil.decodeUsername(collectedClientData.getChallenge());
             try {
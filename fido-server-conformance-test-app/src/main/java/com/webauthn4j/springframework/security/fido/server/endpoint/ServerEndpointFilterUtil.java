@@ -16,7 +16,6 @@
 
 package com.webauthn4j.springframework.security.fido.server.endpoint;
 
-import com.webauthn4j.converter.util.CborConverter;
 import com.webauthn4j.converter.util.JsonConverter;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.UserVerificationRequirement;
@@ -32,115 +31,82 @@ import java.io.IOException;
 
 class ServerEndpointFilterUtil {
 
+    private static final String CONTENT_TYPE = "application/json";
+
     protected final Log logger = LogFactory.getLog(getClass());
 
     private final JsonConverter jsonConverter;
-    private final CborConverter cborConverter;
+    private final ChallengeEnvelopeCodec challengeEnvelopeCodec = new ChallengeEnvelopeCodec();
+
+    // bodies that never change are serialized once and written as-is
+    private final byte[] attestationResultSuccessBody;
+    private final byte[] assertionResultSuccessBody;
+    private final byte[] anonymousAccessErrorBody;
+    private final byte[] authenticationFailedErrorBody;
+    private final byte[] internalErrorBody;
 
     ServerEndpointFilterUtil(ObjectConverter objectConverter) {
         this.jsonConverter = objectConverter.getJsonConverter();
-        this.cborConverter = objectConverter.getCborConverter();
+        this.attestationResultSuccessBody = jsonConverter.writeValueAsBytes(new AttestationResultSuccessResponse());
+        this.assertionResultSuccessBody = jsonConverter.writeValueAsBytes(new AssertionResultSuccessResponse());
+        this.anonymousAccessErrorBody = jsonConverter.writeValueAsBytes(new ErrorResponse("Anonymous access is prohibited"));
+        this.authenticationFailedErrorBody = jsonConverter.writeValueAsBytes(new ErrorResponse("Authentication failed"));
+        this.internalErrorBody = jsonConverter.writeValueAsBytes(new ErrorResponse("The server encountered an internal error"));
     }
 
     void writeResponse(HttpServletResponse httpServletResponse, ServerResponse response) throws IOException {
-        String responseText = jsonConverter.writeValueAsString(response);
-        httpServletResponse.setContentType("application/json");
-        httpServletResponse.getWriter().print(responseText);
+        byte[] body;
+        if (response.getClass() == AttestationResultSuccessResponse.class) {
+            body = attestationResultSuccessBody;
+        } else if (response.getClass() == AssertionResultSuccessResponse.class) {
+            body = assertionResultSuccessBody;
+        } else {
+            body = jsonConverter.writeValueAsBytes(response);
+        }
+        writeBody(httpServletResponse, body);
     }
 
     void writeErrorResponse(HttpServletResponse httpServletResponse, RuntimeException e) throws IOException {
-        ErrorResponse errorResponse;
+        byte[] body;
         int statusCode;
         if (e instanceof InsufficientAuthenticationException) {
-            errorResponse = new ErrorResponse("Anonymous access is prohibited");
+            body = anonymousAccessErrorBody;
             statusCode = HttpServletResponse.SC_FORBIDDEN;
         } else if (e instanceof AuthenticationException || e instanceof IllegalArgumentException) {
-            errorResponse = new ErrorResponse("Authentication failed");
+            body = authenticationFailedErrorBody;
             statusCode = HttpServletResponse.SC_FORBIDDEN;
         } else {
-            errorResponse = new ErrorResponse("The server encountered an internal error");
+            body = internalErrorBody;
             statusCode = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
         }
-        String errorResponseText = jsonConverter.writeValueAsString(errorResponse);
-        httpServletResponse.setContentType("application/json");
-        httpServletResponse.getWriter().print(errorResponseText);
         httpServletResponse.setStatus(statusCode);
+        writeBody(httpServletResponse, body);
+    }
+
+    /**
+     * Writes the UTF-8 encoded body straight to the output stream, bypassing the {@link java.io.PrintWriter}
+     * and its char-to-byte transcoding.
+     */
+    private void writeBody(HttpServletResponse httpServletResponse, byte[] body) throws IOException {
+        httpServletResponse.setContentType(CONTENT_TYPE);
+        httpServletResponse.setContentLength(body.length);
+        httpServletResponse.getOutputStream().write(body);
     }
 
     Challenge encodeUsername(Challenge challenge, String username) {
-        UsernameEncodedChallengeEnvelope envelope = new UsernameEncodedChallengeEnvelope();
-        envelope.setChallenge(challenge.getValue());
-        envelope.setUsername(username);
-        byte[] bytes = cborConverter.writeValueAsBytes(envelope);
-        return new DefaultChallenge(bytes);
+        return new DefaultChallenge(challengeEnvelopeCodec.encodeUsername(challenge.getValue(), username));
     }
 
     String decodeUsername(Challenge challenge) {
-        try {
-            UsernameEncodedChallengeEnvelope envelope = cborConverter.readValue(challenge.getValue(), UsernameEncodedChallengeEnvelope.class);
-            return envelope.getUsername();
-        } catch (RuntimeException e) {
-            return null;
-        }
+        return challengeEnvelopeCodec.decodeUsername(challenge.getValue());
     }
 
     Challenge encodeUserVerification(Challenge challenge, UserVerificationRequirement userVerification) {
-        UserVerificationEncodedChallengeEnvelope envelope = new UserVerificationEncodedChallengeEnvelope();
-        envelope.setChallenge(challenge.getValue());
-        envelope.setUserVerification(userVerification);
-        byte[] bytes = cborConverter.writeValueAsBytes(envelope);
-        return new DefaultChallenge(bytes);
+        return new DefaultChallenge(challengeEnvelopeCodec.encodeUserVerification(challenge.getValue(), userVerification));
     }
 
     UserVerificationRequirement decodeUserVerification(Challenge challenge) {
-        try {
-            UserVerificationEncodedChallengeEnvelope envelope = cborConverter.readValue(challenge.getValue(), UserVerificationEncodedChallengeEnvelope.class);
-            return envelope.getUserVerification();
-        } catch (RuntimeException e) {
-            return null;
-        }
-    }
-
-    static class UsernameEncodedChallengeEnvelope {
-        private String username;
-        private byte[] challenge;
-
-        public String getUsername() {
-            return username;
-        }
-
-        public void setUsername(String username) {
-            this.username = username;
-        }
-
-        public byte[] getChallenge() {
-            return challenge;
-        }
-
-        public void setChallenge(byte[] challenge) {
-            this.challenge = challenge;
-        }
-    }
-
-    static class UserVerificationEncodedChallengeEnvelope {
-        private UserVerificationRequirement userVerification;
-        private byte[] challenge;
-
-        public UserVerificationRequirement getUserVerification() {
-            return userVerification;
-        }
-
-        public void setUserVerification(UserVerificationRequirement userVerification) {
-            this.userVerification = userVerification;
-        }
-
-        public byte[] getChallenge() {
-            return challenge;
-        }
-
-        public void setChallenge(byte[] challenge) {
-            this.challenge = challenge;
-        }
+        return challengeEnvelopeCodec.decodeUserVerification(challenge.getValue());
     }
 
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.fido.server.endpoint;
+
+import com.webauthn4j.data.PublicKeyCredentialType;
+import com.webauthn4j.springframework.security.exception.BadCredentialIdException;
+import com.webauthn4j.springframework.security.exception.ConstraintViolationException;
+import com.webauthn4j.springframework.security.exception.DataConversionException;
+import tools.jackson.core.Base64Variant;
+import tools.jackson.core.Base64Variants;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.ObjectWriteContext;
+import tools.jackson.core.StreamReadConstraints;
+import tools.jackson.core.exc.StreamConstraintsException;
+import tools.jackson.core.json.JsonFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Streams a {@link ServerPublicKeyCredential} request body into a {@link DecodedServerPublicKeyCredential}.
+ * <p>
+ * base64url members are decoded by the parser straight into {@code byte[]} without materializing the
+ * intermediate {@link String}s, and the body size, string length and nesting depth are bounded so that
+ * oversized payloads are rejected before any verification work is done.
+ */
+class ServerPublicKeyCredentialReader {
+
+    static final int DEFAULT_MAX_BODY_SIZE = 64 * 1024;
+    static final int DEFAULT_MAX_FIELD_LENGTH = 16 * 1024;
+
+    private static final int MAX_NESTING_DEPTH = 16;
+    private static final Base64Variant BASE64URL =
+            Base64Variants.MODIFIED_FOR_URL.withReadPadding(Base64Variant.PaddingReadBehaviour.PADDING_ALLOWED);
+
+    private final JsonFactory jsonFactory;
+    private final int maxBodySize;
+    private final int maxFieldLength;
+
+    ServerPublicKeyCredentialReader() {
+        this(DEFAULT_MAX_BODY_SIZE, DEFAULT_MAX_FIELD_LENGTH);
+    }
+
+    ServerPublicKeyCredentialReader(int maxBodySize, int maxFieldLength) {
+        this.maxBodySize = maxBodySize;
+        this.maxFieldLength = maxFieldLength;
+        this.jsonFactory = JsonFactory.builder()
+                .streamReadConstraints(StreamReadConstraints.builder()
+                        .maxDocumentLength(maxBodySize)
+                        .maxStringLength(maxFieldLength)
+                        .maxNestingDepth(MAX_NESTING_DEPTH)
+                        .build())
+                .build();
+    }
+
+    DecodedServerPublicKeyCredential readAttestation(HttpServletRequest request) {
+        DecodedServerPublicKeyCredential credential = read(request);
+        assertNotNull(credential.getAttestationObject(), "response.attestationObject");
+        return credential;
+    }
+
+    DecodedServerPublicKeyCredential readAssertion(HttpServletRequest request) {
+        DecodedServerPublicKeyCredential credential = read(request);
+        assertNotNull(credential.getAuthenticatorData(), "response.authenticatorData");
+        assertNotNull(credential.getSignature(), "response.signature");
+        return credential;
+    }
+
+    DecodedServerPublicKeyCredential read(HttpServletRequest request) {
+        if (request.getContentLengthLong() > maxBodySize) {
+            throw new DataConversionException("Request body exceeds " + maxBodySize + " bytes");
+        }
+        try (JsonParser parser = jsonFactory.createParser(ObjectReadContext.empty(), request.getInputStream())) {
+            return readCredential(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (StreamConstraintsException e) {
+            throw new DataConversionException("Request body exceeds the allowed size", e);
+        } catch (JacksonException e) {
+            throw new DataConversionException("Failed to parse request body", e);
+        }
+    }
+
+    private DecodedServerPublicKeyCredential readCredential(JsonParser parser) {
+        expectStartObject(parser.nextToken(), "serverPublicKeyCredential");
+        byte[] id = null;
+        byte[] rawId = null;
+        String type = null;
+        Response response = null;
+        String clientExtensionResults = null;
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_OBJECT; token = parser.nextToken()) {
+            String name = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            switch (name) {
+                case "id":
+                    id = readCredentialId(parser, valueToken, name);
+                    break;
+                case "rawId":
+                    rawId = readCredentialId(parser, valueToken, name);
+                    break;
+                case "type":
+                    type = valueToken == JsonToken.VALUE_STRING ? parser.getValueAsString() : null;
+                    parser.skipChildren();
+                    break;
+                case "response":
+                    response = valueToken == JsonToken.VALUE_NULL ? null : readResponse(parser, valueToken);
+                    break;
+                case "clientExtensionResults":
+                    clientExtensionResults = readRawJson(parser, valueToken);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        assertNotNull(id, "id");
+        assertNotNull(rawId, "rawId");
+        assertNotNull(type, "type");
+        assertNotNull(response, "response");
+        if (!Arrays.equals(id, rawId)) {
+            throw new BadCredentialIdException("id and rawId doesn't match");
+        }
+        if (!PublicKeyCredentialType.PUBLIC_KEY.getValue().equals(type)) {
+            throw new BadCredentialIdException("type must be 'public-key'");
+        }
+        assertNotNull(response.clientDataJSON, "response.clientDataJSON");
+        return new DecodedServerPublicKeyCredential(rawId, response.clientDataJSON, response.attestationObject,
+                response.authenticatorData, response.signature, response.userHandle, clientExtensionResults);
+    }
+
+    private Response readResponse(JsonParser parser, JsonToken token) {
+        expectStartObject(token, "response");
+        Response response = new Response();
+        for (JsonToken next = parser.nextToken(); next != JsonToken.END_OBJECT; next = parser.nextToken()) {
+            String name = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            switch (name) {
+                case "clientDataJSON":
+                    response.clientDataJSON = readBinary(parser, valueToken, name);
+                    break;
+                case "attestationObject":
+                    response.attestationObject = readBinary(parser, valueToken, name);
+                    break;
+                case "authenticatorData":
+                    response.authenticatorData = readBinary(parser, valueToken, name);
+                    break;
+                case "signature":
+                    response.signature = readBinary(parser, valueToken, name);
+                    break;
+                case "userHandle":
+                    response.userHandle = readBinary(parser, valueToken, name);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return response;
+    }
+
+    private byte[] readCredentialId(JsonParser parser, JsonToken token, String name) {
+        try {
+            return readBinary(parser, token, name);
+        } catch (StreamConstraintsException e) {
+            throw e;
+        } catch (JacksonException e) {
+            throw new BadCredentialIdException(name + " cannot be parsed as base64url", e);
+        }
+    }
+
+    private byte[] readBinary(JsonParser parser, JsonToken token, String name) {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new DataConversionException(name + " must be a base64url string");
+        }
+        byte[] value = parser.getBinaryValue(BASE64URL);
+        if (value.length > maxFieldLength) {
+            throw new DataConversionException(name + " exceeds " + maxFieldLength + " bytes");
+        }
+        return value;
+    }
+
+    /**
+     * Keeps {@code clientExtensionResults} as JSON text, whether it is sent as an embedded object or as a string.
+     */
+    private String readRawJson(JsonParser parser, JsonToken token) {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getValueAsString();
+        }
+        expectStartObject(token, "clientExtensionResults");
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(ObjectWriteContext.empty(), writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+
+    private static void expectStartObject(JsonToken token, String name) {
+        if (token != JsonToken.START_OBJECT) {
+            throw new DataConversionException(name + " must be a JSON object");
+        }
+    }
+
+    private static void assertNotNull(Object value, String name) {
+        if (value == null) {
+            throw new ConstraintViolationException(name + " must not be null");
+        }
+    }
+
+    private static class Response {
+        private byte[] clientDataJSON;
+        private byte[] attestationObject;
+        private byte[] authenticatorData;
+        private byte[] signature;
+        private byte[] userHandle;
+    }
+}
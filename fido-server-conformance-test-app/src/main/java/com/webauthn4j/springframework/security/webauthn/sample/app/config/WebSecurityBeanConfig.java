@@ -17,9 +17,7 @@
 package com.webauthn4j.springframework.security.webauthn.sample.app.config;
 
 import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.jsontype.NamedType;
-import tools.jackson.dataformat.cbor.CBORMapper;
 import com.webauthn4j.WebAuthnManager;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.metadata.FidoMDS3MetadataBLOBProvider;
@@ -28,18 +26,19 @@ import com.webauthn4j.metadata.anchor.AggregatingTrustAnchorRepository;
 import com.webauthn4j.metadata.anchor.MetadataBLOBBasedTrustAnchorRepository;
 import com.webauthn4j.metadata.anchor.MetadataStatementsBasedTrustAnchorRepository;
 import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
-import com.webauthn4j.springframework.security.WebAuthnRegistrationRequestValidator;
 import com.webauthn4j.springframework.security.credential.InMemoryWebAuthnCredentialRecordManager;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordManager;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordService;
 import com.webauthn4j.springframework.security.challenge.ChallengeRepository;
-import com.webauthn4j.springframework.security.challenge.HttpSessionChallengeRepository;
 import com.webauthn4j.springframework.security.metadata.ResourcesMetadataStatementsProvider;
 import com.webauthn4j.springframework.security.options.*;
 import com.webauthn4j.springframework.security.server.ServerPropertyProvider;
 import com.webauthn4j.springframework.security.server.ServerPropertyProviderImpl;
 import com.webauthn4j.springframework.security.webauthn.sample.app.security.ExampleExtensionAuthenticatorOutput;
 import com.webauthn4j.springframework.security.webauthn.sample.app.security.ExampleExtensionClientInput;
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.SignedCookieChallengeRepository;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectConverterFactory;
 import com.webauthn4j.util.Base64Util;
 import com.webauthn4j.util.CertificateUtil;
 import com.webauthn4j.verifier.attestation.statement.androidkey.AndroidKeyAttestationStatementVerifier;
@@ -52,6 +51,7 @@ import com.webauthn4j.verifier.attestation.statement.u2f.FIDOU2FAttestationState
 import com.webauthn4j.verifier.attestation.trustworthiness.certpath.CertPathTrustworthinessVerifier;
 import com.webauthn4j.verifier.attestation.trustworthiness.certpath.DefaultCertPathTrustworthinessVerifier;
 import com.webauthn4j.verifier.attestation.trustworthiness.self.DefaultSelfAttestationTrustworthinessVerifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
@@ -70,6 +70,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -87,20 +88,22 @@ public class WebSecurityBeanConfig {
         return new InMemoryUserDetailsManager();
     }
 
-    @Bean
-    public WebAuthnRegistrationRequestValidator webAuthnRegistrationRequestValidator(WebAuthnManager webAuthnManager, ServerPropertyProvider serverPropertyProvider) {
-        return new WebAuthnRegistrationRequestValidator(webAuthnManager, serverPropertyProvider);
-    }
-
     @Bean
     public AuthenticationTrustResolver authenticationTrustResolver() {
         return new AuthenticationTrustResolverImpl();
     }
 
 
+    /**
+     * Nodes sharing sample.challenge.master-secret (base64, at least 32 bytes) verify each other's challenge cookies.
+     * Without it, a random secret is used and only the issuing node verifies them. Replays are detected per node in either case.
+     */
     @Bean
-    public ChallengeRepository challengeRepository() {
-        return new HttpSessionChallengeRepository();
+    public ChallengeRepository challengeRepository(@Value("${sample.challenge.master-secret:}") String masterSecret) {
+        if (masterSecret.isEmpty()) {
+            return new SignedCookieChallengeRepository();
+        }
+        return new SignedCookieChallengeRepository(Base64.getDecoder().decode(masterSecret));
     }
 
     @Bean
@@ -224,17 +227,18 @@ public class WebSecurityBeanConfig {
     }
 
     @Bean
-    public ObjectConverter objectConverter() {
-        JsonMapper jsonMapper = JsonMapper.builder()
-            .addModule(new WebAuthnMetadataJSONModule())
-            .registerSubtypes(new NamedType(ExampleExtensionClientInput.class, ExampleExtensionClientInput.ID))
-            .build();
-        
-        CBORMapper cborMapper = CBORMapper.builder()
-            .registerSubtypes(new NamedType(ExampleExtensionAuthenticatorOutput.class, ExampleExtensionAuthenticatorOutput.ID))
-            .build();
+    public ObjectCodecRegistry objectCodecRegistry() {
+        return ObjectConverterFactory.create(
+            ObjectConverterFactory.jsonMapperBuilder()
+                .addModule(new WebAuthnMetadataJSONModule())
+                .registerSubtypes(new NamedType(ExampleExtensionClientInput.class, ExampleExtensionClientInput.ID)),
+            ObjectConverterFactory.cborMapperBuilder()
+                .registerSubtypes(new NamedType(ExampleExtensionAuthenticatorOutput.class, ExampleExtensionAuthenticatorOutput.ID)));
+    }
 
-        return new ObjectConverter(jsonMapper, cborMapper);
+    @Bean
+    public ObjectConverter objectConverter(ObjectCodecRegistry objectCodecRegistry) {
+        return objectCodecRegistry.getObjectConverter();
     }
 
 }
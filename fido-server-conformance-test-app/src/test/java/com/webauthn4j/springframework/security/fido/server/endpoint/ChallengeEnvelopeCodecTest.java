@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.fido.server.endpoint;
+
+import com.webauthn4j.data.UserVerificationRequirement;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChallengeEnvelopeCodecTest {
+
+    private static final byte[] NONCE = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15};
+
+    private final ChallengeEnvelopeCodec target = new ChallengeEnvelopeCodec();
+
+    @Test
+    public void username_round_trip_test() {
+        for (String username : Arrays.asList("john.doe@example.com", "", "ユーザー", "emoji😀", null)) {
+            byte[] envelope = target.encodeUsername(NONCE, username);
+            assertThat(target.decodeUsername(envelope)).isEqualTo(username);
+        }
+    }
+
+    @Test
+    public void username_is_encoded_like_String_getBytes_test() {
+        String username = "aé中😀\uD800b";
+        byte[] envelope = target.encodeUsername(NONCE, username);
+
+        byte[] expected = username.getBytes(StandardCharsets.UTF_8);
+        assertThat(Arrays.copyOfRange(envelope, envelope.length - expected.length, envelope.length)).isEqualTo(expected);
+    }
+
+    @Test
+    public void userVerification_round_trip_test() {
+        for (UserVerificationRequirement userVerification : Arrays.asList(UserVerificationRequirement.REQUIRED,
+                UserVerificationRequirement.PREFERRED, UserVerificationRequirement.DISCOURAGED, null)) {
+            byte[] envelope = target.encodeUserVerification(NONCE, userVerification);
+            assertThat(target.decodeUserVerification(envelope)).isEqualTo(userVerification);
+        }
+    }
+
+    @Test
+    public void malformed_envelope_test() {
+        byte[] envelope = target.encodeUsername(NONCE, "john.doe@example.com");
+
+        assertThat(target.decodeUsername(null)).isNull();
+        assertThat(target.decodeUsername(new byte[0])).isNull();
+        assertThat(target.decodeUsername(Arrays.copyOf(envelope, envelope.length - 1))).isNull();
+        assertThat(target.decodeUsername(Arrays.copyOf(envelope, envelope.length + 1))).isNull();
+        assertThat(target.decodeUsername(NONCE)).isNull();
+        assertThat(target.decodeUserVerification(envelope)).isNull();
+
+        byte[] wrongVersion = envelope.clone();
+        wrongVersion[0] = 2;
+        assertThat(target.decodeUsername(wrongVersion)).isNull();
+    }
+
+    @Test
+    public void unknown_userVerification_round_trip_test() {
+        UserVerificationRequirement userVerification = UserVerificationRequirement.create("future-value");
+
+        byte[] envelope = target.encodeUserVerification(NONCE, userVerification);
+        assertThat(target.decodeUserVerification(envelope)).isEqualTo(userVerification);
+    }
+
+    @Test
+    public void malformed_userVerification_envelope_test() {
+        byte[] envelope = target.encodeUserVerification(NONCE, UserVerificationRequirement.REQUIRED);
+
+        assertThat(target.decodeUserVerification(Arrays.copyOf(envelope, envelope.length - 1))).isNull();
+        assertThat(target.decodeUserVerification(Arrays.copyOf(envelope, envelope.length + 1))).isNull();
+
+        byte[] unknownCode = envelope.clone();
+        unknownCode[envelope.length - 1] = 5;
+        assertThat(target.decodeUserVerification(unknownCode)).isNull();
+    }
+}
@@ -53,4 +53,16 @@ public class ServerEndpointFilterUtilTest {
         assertThat(response.getContentType()).isEqualTo("application/json");
         assertThat(response.getContentAsString()).isEqualTo("{\"errorMessage\":\"Anonymous access is prohibited\",\"status\":\"failed\"}");
     }
+
+    @Test
+    public void writeResponse_with_constant_body_test() throws IOException {
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.writeResponse(response, new AttestationResultSuccessResponse());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString()).isEqualTo("{\"errorMessage\":\"\",\"status\":\"ok\"}");
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.fido.server.endpoint;
+
+import com.webauthn4j.springframework.security.exception.BadCredentialIdException;
+import com.webauthn4j.springframework.security.exception.ConstraintViolationException;
+import com.webauthn4j.springframework.security.exception.DataConversionException;
+import com.webauthn4j.util.Base64UrlUtil;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ServerPublicKeyCredentialReaderTest {
+
+    private static final byte[] CREDENTIAL_ID = {0x01, 0x02, 0x03, 0x04};
+    private static final byte[] CLIENT_DATA = "{\"type\":\"webauthn.create\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ATTESTATION_OBJECT = {(byte) 0xa0};
+
+    private final ServerPublicKeyCredentialReader target = new ServerPublicKeyCredentialReader(1024, 256);
+
+    @Test
+    public void readAttestation_test() {
+        String body = "{" +
+                "\"id\":\"" + Base64UrlUtil.encodeToString(CREDENTIAL_ID) + "\"," +
+                "\"rawId\":\"" + Base64UrlUtil.encodeToString(CREDENTIAL_ID) + "\"," +
+                "\"type\":\"public-key\"," +
+                "\"unknown\":{\"nested\":[1,2,3]}," +
+                "\"response\":{" +
+                "\"clientDataJSON\":\"" + Base64UrlUtil.encodeToString(CLIENT_DATA) + "\"," +
+                "\"attestationObject\":\"" + Base64UrlUtil.encodeToString(ATTESTATION_OBJECT) + "\"}," +
+                "\"clientExtensionResults\":{\"credProps\":{\"rk\":true}}" +
+                "}";
+
+        DecodedServerPublicKeyCredential credential = target.readAttestation(createRequest(body));
+
+        assertThat(credential.getCredentialId()).isEqualTo(CREDENTIAL_ID);
+        assertThat(credential.getClientDataJSON()).isEqualTo(CLIENT_DATA);
+        assertThat(credential.getAttestationObject()).isEqualTo(ATTESTATION_OBJECT);
+        assertThat(credential.getClientExtensionResults()).isEqualTo("{\"credProps\":{\"rk\":true}}");
+    }
+
+    @Test
+    public void read_with_mismatched_rawId_test() {
+        String body = "{" +
+                "\"id\":\"" + Base64UrlUtil.encodeToString(CREDENTIAL_ID) + "\"," +
+                "\"rawId\":\"AAAA\"," +
+                "\"type\":\"public-key\"," +
+                "\"response\":{\"clientDataJSON\":\"" + Base64UrlUtil.encodeToString(CLIENT_DATA) + "\"}" +
+                "}";
+
+        assertThatThrownBy(() -> target.read(createRequest(body))).isInstanceOf(BadCredentialIdException.class);
+    }
+
+    @Test
+    public void read_with_malformed_id_test() {
+        String body = "{\"id\":\"!!!\",\"rawId\":\"!!!\",\"type\":\"public-key\",\"response\":{}}";
+
+        assertThatThrownBy(() -> target.read(createRequest(body))).isInstanceOf(BadCredentialIdException.class);
+    }
+
+    @Test
+    public void readAssertion_without_signature_test() {
+        String body = "{" +
+                "\"id\":\"" + Base64UrlUtil.encodeToString(CREDENTIAL_ID) + "\"," +
+                "\"rawId\":\"" + Base64UrlUtil.encodeToString(CREDENTIAL_ID) + "\"," +
+                "\"type\":\"public-key\"," +
+                "\"response\":{\"clientDataJSON\":\"" + Base64UrlUtil.encodeToString(CLIENT_DATA) + "\",\"authenticatorData\":\"AQ\"}" +
+                "}";
+
+        assertThatThrownBy(() -> target.readAssertion(createRequest(body))).isInstanceOf(ConstraintViolationException.class);
+    }
+
+    @Test
+    public void read_oversized_body_test() {
+        StringBuilder builder = new StringBuilder("{\"id\":\"");
+        for (int i = 0; i < 2048; i++) {
+            builder.append('A');
+        }
+        builder.append("\"}");
+
+        assertThatThrownBy(() -> target.read(createRequest(builder.toString()))).isInstanceOf(DataConversionException.class);
+    }
+
+    private MockHttpServletRequest createRequest(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/webauthn/attestation/result");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+group = "com.webauthn4j"
+description = "WebAuthn4J Spring Security Sample shared ObjectConverter factory"
+
+dependencies {
+    implementation(libs.webauthn4j.core)
+    implementation("tools.jackson.core:jackson-databind")
+    implementation("tools.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("tools.jackson.module:jackson-module-blackbird")
+
+    //Test
+    testImplementation("junit:junit")
+    testImplementation("org.assertj:assertj-core")
+}
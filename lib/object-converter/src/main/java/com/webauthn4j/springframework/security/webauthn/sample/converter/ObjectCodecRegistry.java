@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.converter;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches {@link ObjectReader}s and {@link ObjectWriter}s per target type, so that hot call sites skip the type
+ * resolution and deserializer lookup {@link ObjectConverter} performs on every call.
+ * Instances are created by {@link ObjectConverterFactory}.
+ */
+public class ObjectCodecRegistry {
+
+    private final ObjectConverter objectConverter;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+
+    private final ConcurrentMap<Type, ObjectReader> jsonReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Type, ObjectWriter> jsonWriters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Type, ObjectReader> cborReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Type, ObjectWriter> cborWriters = new ConcurrentHashMap<>();
+
+    ObjectCodecRegistry(ObjectConverter objectConverter, ObjectMapper jsonMapper, ObjectMapper cborMapper) {
+        this.objectConverter = objectConverter;
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborMapper;
+    }
+
+    public ObjectConverter getObjectConverter() {
+        return objectConverter;
+    }
+
+    public ObjectMapper getJsonMapper() {
+        return jsonMapper;
+    }
+
+    public ObjectMapper getCborMapper() {
+        return cborMapper;
+    }
+
+    public ObjectReader jsonReader(Class<?> type) {
+        return reader(jsonReaders, jsonMapper, type);
+    }
+
+    public ObjectReader jsonReader(TypeReference<?> typeReference) {
+        return reader(jsonReaders, jsonMapper, typeReference.getType());
+    }
+
+    public ObjectWriter jsonWriter(Class<?> type) {
+        return writer(jsonWriters, jsonMapper, type);
+    }
+
+    public ObjectWriter jsonWriter(TypeReference<?> typeReference) {
+        return writer(jsonWriters, jsonMapper, typeReference.getType());
+    }
+
+    public ObjectReader cborReader(Class<?> type) {
+        return reader(cborReaders, cborMapper, type);
+    }
+
+    public ObjectReader cborReader(TypeReference<?> typeReference) {
+        return reader(cborReaders, cborMapper, typeReference.getType());
+    }
+
+    public ObjectWriter cborWriter(Class<?> type) {
+        return writer(cborWriters, cborMapper, type);
+    }
+
+    public ObjectWriter cborWriter(TypeReference<?> typeReference) {
+        return writer(cborWriters, cborMapper, typeReference.getType());
+    }
+
+    private static ObjectReader reader(ConcurrentMap<Type, ObjectReader> readers, ObjectMapper mapper, Type type) {
+        return readers.computeIfAbsent(type, key -> mapper.readerFor(mapper.constructType(key)));
+    }
+
+    private static ObjectWriter writer(ConcurrentMap<Type, ObjectWriter> writers, ObjectMapper mapper, Type type) {
+        return writers.computeIfAbsent(type, key -> mapper.writerFor(mapper.constructType(key)));
+    }
+}
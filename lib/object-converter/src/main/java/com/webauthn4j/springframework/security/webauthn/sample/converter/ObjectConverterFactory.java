@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.converter;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Builds the {@link ObjectConverter} shared by the sample applications, together with an {@link ObjectCodecRegistry}
+ * that uses the very mappers of the {@link ObjectConverter}.
+ * <p>
+ * Both mappers register the Blackbird module, which replaces reflective property access with generated lambdas.
+ */
+public final class ObjectConverterFactory {
+
+    private ObjectConverterFactory() {
+    }
+
+    /**
+     * @return JSON mapper builder with the common modules registered, to be customized by the application
+     */
+    public static JsonMapper.Builder jsonMapperBuilder() {
+        return JsonMapper.builder().addModule(new BlackbirdModule());
+    }
+
+    /**
+     * @return CBOR mapper builder with the common modules registered, to be customized by the application
+     */
+    public static CBORMapper.Builder cborMapperBuilder() {
+        return CBORMapper.builder().addModule(new BlackbirdModule());
+    }
+
+    public static ObjectCodecRegistry create() {
+        return create(jsonMapperBuilder(), cborMapperBuilder());
+    }
+
+    public static ObjectCodecRegistry create(JsonMapper.Builder jsonMapperBuilder, CBORMapper.Builder cborMapperBuilder) {
+        ObjectConverter objectConverter = new ObjectConverter(jsonMapperBuilder.build(), cborMapperBuilder.build());
+        // ObjectConverter registers its modules and features on copies of the given mappers and doesn't expose them,
+        // so they are taken from its converters instead of being configured a second time here
+        return new ObjectCodecRegistry(objectConverter,
+                mapperOf(objectConverter.getJsonConverter()),
+                mapperOf(objectConverter.getCborConverter()));
+    }
+
+    private static ObjectMapper mapperOf(Object converter) {
+        for (Class<?> type = converter.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || !ObjectMapper.class.isAssignableFrom(field.getType())) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    return (ObjectMapper) field.get(converter);
+                } catch (IllegalAccessException | RuntimeException e) {
+                    throw new IllegalStateException(String.format("Failed to access the mapper of %s.", type.getName()), e);
+                }
+            }
+        }
+        throw new IllegalStateException(String.format("%s doesn't hold a mapper.", converter.getClass().getName()));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.converter;
+
+import com.webauthn4j.data.client.CollectedClientData;
+import com.webauthn4j.data.client.ClientDataType;
+import com.webauthn4j.data.client.Origin;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import org.junit.Test;
+import tools.jackson.core.type.TypeReference;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ObjectCodecRegistryTest {
+
+    private final ObjectCodecRegistry target = ObjectConverterFactory.create();
+
+    @Test
+    public void reader_and_writer_are_cached_per_type_test() {
+        assertThat(target.jsonReader(CollectedClientData.class)).isSameAs(target.jsonReader(CollectedClientData.class));
+        assertThat(target.cborWriter(CollectedClientData.class)).isSameAs(target.cborWriter(CollectedClientData.class));
+        assertThat(target.jsonReader(new TypeReference<Map<String, Object>>() {
+        })).isSameAs(target.jsonReader(new TypeReference<Map<String, Object>>() {
+        }));
+    }
+
+    @Test
+    public void cached_reader_reads_what_ObjectConverter_writes_test() {
+        CollectedClientData clientData = new CollectedClientData(ClientDataType.WEBAUTHN_CREATE, new DefaultChallenge(), new Origin("https://example.com"), null);
+
+        byte[] json = target.getObjectConverter().getJsonConverter().writeValueAsBytes(clientData);
+        byte[] cbor = target.getObjectConverter().getCborConverter().writeValueAsBytes(clientData);
+
+        assertThat(target.jsonReader(CollectedClientData.class).<CollectedClientData>readValue(json)).isEqualTo(clientData);
+        assertThat(target.cborReader(CollectedClientData.class).<CollectedClientData>readValue(cbor)).isEqualTo(clientData);
+        assertThat(target.jsonWriter(CollectedClientData.class).writeValueAsBytes(clientData)).isEqualTo(json);
+    }
+
+}
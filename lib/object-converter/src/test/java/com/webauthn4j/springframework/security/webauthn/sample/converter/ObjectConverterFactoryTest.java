@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.converter;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.attestation.authenticator.EC2COSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.client.ClientDataType;
+import com.webauthn4j.data.client.CollectedClientData;
+import com.webauthn4j.data.client.Origin;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.util.ECUtil;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.ECPublicKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the registry mappers behave like the mappers of a default {@link ObjectConverter}
+ */
+public class ObjectConverterFactoryTest {
+
+    private final ObjectConverter reference = new ObjectConverter();
+
+    private final ObjectCodecRegistry target = ObjectConverterFactory.create();
+
+    @Test
+    public void json_round_trip_matches_ObjectConverter_test() {
+        // tokenBinding is null, so the output also covers the NON_NULL inclusion
+        CollectedClientData clientData = new CollectedClientData(ClientDataType.WEBAUTHN_GET, new DefaultChallenge(), new Origin("https://example.com"), null);
+
+        byte[] expected = reference.getJsonConverter().writeValueAsBytes(clientData);
+        byte[] actual = target.jsonWriter(CollectedClientData.class).writeValueAsBytes(clientData);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(target.jsonReader(CollectedClientData.class).<CollectedClientData>readValue(expected)).isEqualTo(clientData);
+        assertThat(reference.getJsonConverter().readValue(new String(actual, StandardCharsets.UTF_8), CollectedClientData.class)).isEqualTo(clientData);
+    }
+
+    @Test
+    public void cbor_round_trip_matches_ObjectConverter_test() {
+        EC2COSEKey coseKey = EC2COSEKey.create((ECPublicKey) ECUtil.createKeyPair().getPublic(), COSEAlgorithmIdentifier.ES256);
+
+        byte[] expected = reference.getCborConverter().writeValueAsBytes(coseKey);
+        byte[] actual = target.cborWriter(EC2COSEKey.class).writeValueAsBytes(coseKey);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(target.cborReader(EC2COSEKey.class).<EC2COSEKey>readValue(expected)).isEqualTo(coseKey);
+        assertThat(reference.getCborConverter().readValue(actual, EC2COSEKey.class)).isEqualTo(coseKey);
+    }
+
+    @Test
+    public void registry_uses_the_mappers_of_its_ObjectConverter_test() {
+        CollectedClientData clientData = new CollectedClientData(ClientDataType.WEBAUTHN_GET, new DefaultChallenge(), new Origin("https://example.com"), null);
+        ObjectConverter objectConverter = target.getObjectConverter();
+
+        assertThat(target.jsonWriter(CollectedClientData.class).writeValueAsBytes(clientData))
+                .isEqualTo(objectConverter.getJsonConverter().writeValueAsBytes(clientData));
+        assertThat(target.cborWriter(CollectedClientData.class).writeValueAsBytes(clientData))
+                .isEqualTo(objectConverter.getCborConverter().writeValueAsBytes(clientData));
+    }
+
+    @Test
+    public void unknown_properties_are_ignored_like_ObjectConverter_test() {
+        CollectedClientData clientData = new CollectedClientData(ClientDataType.WEBAUTHN_CREATE, new DefaultChallenge(), new Origin("https://example.com"), null);
+        String json = reference.getJsonConverter().writeValueAsString(clientData);
+        String extended = json.substring(0, json.length() - 1) + ",\"unknown\":1}";
+
+        assertThat(target.jsonReader(CollectedClientData.class).<CollectedClientData>readValue(extended))
+                .isEqualTo(reference.getJsonConverter().readValue(extended, CollectedClientData.class));
+    }
+}
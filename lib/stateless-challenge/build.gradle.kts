@@ -0,0 +1,33 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+group = "com.webauthn4j"
+description = "WebAuthn4J Spring Security Sample stateless challenge repository"
+
+dependencies {
+    implementation(libs.webauthn4j.spring.security.core)
+    implementation(libs.webauthn4j.core)
+    implementation("org.springframework:spring-web")
+
+    compileOnly(platform(libs.spring.boot.dependencies))
+    compileOnly("jakarta.servlet:jakarta.servlet-api")
+
+    //Test
+    testImplementation("jakarta.servlet:jakarta.servlet-api")
+    testImplementation("org.springframework:spring-test")
+    testImplementation("junit:junit")
+    testImplementation("org.assertj:assertj-core")
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.springframework.security.challenge.ChallengeRepository;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Base class of {@link ChallengeRepository} implementations which hand the client a token in a cookie instead of
+ * keeping the challenge in the {@link jakarta.servlet.http.HttpSession}.
+ * A challenge is consumed when it is loaded; it is remembered for the rest of the request so that
+ * several components verifying the same request see the same challenge.
+ */
+public abstract class AbstractCookieChallengeRepository implements ChallengeRepository {
+
+    public static final String DEFAULT_COOKIE_NAME = "WEBAUTHN_CHALLENGE";
+
+    private final String requestAttribute = getClass().getName() + ".CHALLENGE";
+
+    private final Duration timeToLive;
+
+    private String cookieName = DEFAULT_COOKIE_NAME;
+    private Clock clock = Clock.systemUTC();
+
+    protected AbstractCookieChallengeRepository(Duration timeToLive) {
+        if (timeToLive.compareTo(Duration.ofSeconds(1)) < 0) {
+            throw new IllegalArgumentException("timeToLive must be at least one second");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public Challenge generateChallenge() {
+        return new DefaultChallenge();
+    }
+
+    @Override
+    public void saveChallenge(Challenge challenge, HttpServletRequest request) {
+        HttpServletResponse response = currentResponse();
+        if (response == null) {
+            throw new IllegalStateException("No current HttpServletResponse is bound to write the challenge cookie to.");
+        }
+        if (challenge == null) {
+            request.setAttribute(requestAttribute, Optional.empty());
+            response.addCookie(createCookie(request, "", 0));
+            return;
+        }
+        long now = clock.millis();
+        String token = issue(challenge, now + timeToLive.toMillis(), now, request);
+        request.setAttribute(requestAttribute, Optional.of(challenge));
+        response.addCookie(createCookie(request, token, (int) timeToLive.getSeconds()));
+    }
+
+    @Override
+    public Challenge loadChallenge(HttpServletRequest request) {
+        Object cached = request.getAttribute(requestAttribute);
+        if (cached instanceof Optional) {
+            return ((Optional<?>) cached).map(Challenge.class::cast).orElse(null);
+        }
+        String token = readCookie(request);
+        Challenge challenge = token == null || token.isEmpty() ? null : consume(token, clock.millis(), request);
+        request.setAttribute(requestAttribute, Optional.ofNullable(challenge));
+        HttpServletResponse response = currentResponse();
+        if (challenge != null && response != null) {
+            response.addCookie(createCookie(request, "", 0));
+        }
+        return challenge;
+    }
+
+    /**
+     * Issues a fresh challenge unless one was already saved in the current request.
+     * An outstanding challenge in the cookie is never handed out again, as loading it would consume it.
+     */
+    @Override
+    public Challenge loadOrGenerateChallenge(HttpServletRequest request) {
+        Object cached = request.getAttribute(requestAttribute);
+        if (cached instanceof Optional && ((Optional<?>) cached).isPresent()) {
+            return (Challenge) ((Optional<?>) cached).get();
+        }
+        Challenge challenge = generateChallenge();
+        saveChallenge(challenge, request);
+        return challenge;
+    }
+
+    /**
+     * Records the challenge and returns the cookie-safe token the client has to present to redeem it.
+     */
+    protected abstract String issue(Challenge challenge, long expiryMillis, long nowMillis, HttpServletRequest request);
+
+    /**
+     * Redeems the token, returning {@code null} when it is unknown, expired or already consumed.
+     */
+    protected abstract Challenge consume(String token, long nowMillis, HttpServletRequest request);
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setCookieName(String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    private String readCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private Cookie createCookie(HttpServletRequest request, String value, int maxAge) {
+        Cookie cookie = new Cookie(cookieName, value);
+        String contextPath = request.getContextPath();
+        cookie.setPath(contextPath == null || contextPath.isEmpty() ? "/" : contextPath);
+        cookie.setMaxAge(maxAge);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+
+    private static HttpServletResponse currentResponse() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getResponse();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Derives time-rotated HMAC-SHA256 keys from a single master secret.
+ * The key of an epoch is {@code HMAC(masterSecret, epoch)}, so every node sharing the master secret derives
+ * the same keys without any coordination, and a leaked epoch key expires with its epoch.
+ */
+public class ChallengeKeyRing {
+
+    static final String ALGORITHM = "HmacSHA256";
+
+    private static final int MASTER_SECRET_LENGTH = 32;
+
+    private final SecretKeySpec masterKey;
+    private final long rotationMillis;
+
+    private volatile EpochKey current;
+    private volatile EpochKey previous;
+
+    public ChallengeKeyRing(byte[] masterSecret, Duration rotationPeriod) {
+        if (masterSecret == null || masterSecret.length < MASTER_SECRET_LENGTH) {
+            throw new IllegalArgumentException("masterSecret must be at least " + MASTER_SECRET_LENGTH + " bytes");
+        }
+        if (rotationPeriod.isNegative() || rotationPeriod.isZero()) {
+            throw new IllegalArgumentException("rotationPeriod must be positive");
+        }
+        this.masterKey = new SecretKeySpec(Arrays.copyOf(masterSecret, masterSecret.length), ALGORITHM);
+        this.rotationMillis = rotationPeriod.toMillis();
+    }
+
+    /**
+     * Creates a key ring with a random master secret, suitable for a single node only.
+     */
+    public ChallengeKeyRing(Duration rotationPeriod) {
+        this(randomSecret(), rotationPeriod);
+    }
+
+    public Duration getRotationPeriod() {
+        return Duration.ofMillis(rotationMillis);
+    }
+
+    public int epochAt(long epochMillis) {
+        return (int) (epochMillis / rotationMillis);
+    }
+
+    /**
+     * Returns the key of the given epoch, or {@code null} when the epoch is neither the current nor the previous one
+     * at the given time.
+     */
+    public SecretKeySpec keyFor(int epoch, long nowMillis) {
+        int currentEpoch = epochAt(nowMillis);
+        if (epoch != currentEpoch && epoch != currentEpoch - 1) {
+            return null;
+        }
+        EpochKey key = current;
+        if (key != null && key.epoch == epoch) {
+            return key.key;
+        }
+        key = previous;
+        if (key != null && key.epoch == epoch) {
+            return key.key;
+        }
+        return rotate(epoch).key;
+    }
+
+    private synchronized EpochKey rotate(int epoch) {
+        EpochKey currentKey = current;
+        if (currentKey != null && currentKey.epoch == epoch) {
+            return currentKey;
+        }
+        if (previous != null && previous.epoch == epoch) {
+            return previous;
+        }
+        EpochKey derived = new EpochKey(epoch, derive(epoch));
+        if (currentKey == null || epoch > currentKey.epoch) {
+            previous = currentKey;
+            current = derived;
+        }
+        else {
+            previous = derived;
+        }
+        return derived;
+    }
+
+    private SecretKeySpec derive(int epoch) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(masterKey);
+            return new SecretKeySpec(mac.doFinal(ByteBuffer.allocate(Integer.BYTES).putInt(epoch).array()), ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] randomSecret() {
+        byte[] secret = new byte[MASTER_SECRET_LENGTH];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    private static final class EpochKey {
+        private final int epoch;
+        private final SecretKeySpec key;
+
+        private EpochKey(int epoch, SecretKeySpec key) {
+            this.epoch = epoch;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers consumed challenge tokens until they expire, so that a signed challenge is accepted only once.
+ * Tokens are grouped into buckets by expiry time; a whole bucket is dropped once its tokens can no longer
+ * pass the expiry check, which keeps memory proportional to the challenges issued within one time-to-live.
+ */
+public class ChallengeReplayFilter {
+
+    private final long bucketMillis;
+    private final ConcurrentMap<Long, Set<ByteBuffer>> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong evictedBefore = new AtomicLong();
+
+    public ChallengeReplayFilter(Duration bucketSize) {
+        if (bucketSize.isNegative() || bucketSize.isZero()) {
+            throw new IllegalArgumentException("bucketSize must be positive");
+        }
+        this.bucketMillis = bucketSize.toMillis();
+    }
+
+    /**
+     * Marks the token as consumed.
+     *
+     * @param tokenId      value unique to the token, such as its MAC
+     * @param expiryMillis expiry of the token
+     * @param nowMillis    current time
+     * @return {@code true} if the token was not consumed before
+     */
+    public boolean tryConsume(byte[] tokenId, long expiryMillis, long nowMillis) {
+        evictExpired(nowMillis);
+        long bucket = expiryMillis / bucketMillis;
+        return buckets.computeIfAbsent(bucket, key -> ConcurrentHashMap.newKeySet())
+                .add(ByteBuffer.wrap(tokenId.clone()));
+    }
+
+    public int size() {
+        return buckets.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void evictExpired(long nowMillis) {
+        // a bucket may still hold tokens expiring up to the end of the bucket, so keep the current one
+        long firstLiveBucket = nowMillis / bucketMillis;
+        long evicted = evictedBefore.get();
+        if (firstLiveBucket > evicted && evictedBefore.compareAndSet(evicted, firstLiveBucket)) {
+            buckets.keySet().removeIf(bucket -> bucket < firstLiveBucket);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+/**
+ * Key-value store holding issued challenges until they are consumed or expire.
+ * Implementations must make {@link #consume(String, long)} atomic: when several callers consume the same key
+ * concurrently, at most one of them receives the value.
+ */
+public interface ChallengeStore {
+
+    /**
+     * Stores the value under the key until the given expiry.
+     */
+    void save(String key, byte[] value, long expiryMillis, long nowMillis);
+
+    /**
+     * Removes the value stored under the key and returns it.
+     *
+     * @return the value, or {@code null} when the key is unknown, expired or already consumed
+     */
+    byte[] consume(String key, long nowMillis);
+
+}
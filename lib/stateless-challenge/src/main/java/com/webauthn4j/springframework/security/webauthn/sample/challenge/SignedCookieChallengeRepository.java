@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import jakarta.servlet.http.HttpServletRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * {@link com.webauthn4j.springframework.security.challenge.ChallengeRepository} which keeps no per-client server state.
+ * The cookie carries the challenge together with its expiry and a MAC computed with a rotating key
+ * over the challenge and the host it was issued for. Nodes whose key rings are created with the same master secret
+ * can verify each other's cookies. A key ring with a random master secret only verifies the cookies of its own node.
+ * <p>
+ * Replay protection is node-local: the {@link ChallengeReplayFilter} makes sure each issued challenge is accepted
+ * only once by this node, but a cookie replayed to another node sharing the master secret is accepted there once more
+ * until it expires. Use a shared challenge store when a challenge must be consumed exactly once across nodes.
+ */
+public class SignedCookieChallengeRepository extends AbstractCookieChallengeRepository {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 1 + Integer.BYTES + Long.BYTES + Short.BYTES;
+    private static final int MAC_LENGTH = 16;
+    private static final int MAX_CHALLENGE_LENGTH = 1024;
+
+    private static final Duration DEFAULT_ROTATION_PERIOD = Duration.ofMinutes(10);
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final ChallengeKeyRing keyRing;
+    private final ChallengeReplayFilter replayFilter;
+
+    public SignedCookieChallengeRepository(ChallengeKeyRing keyRing, Duration timeToLive) {
+        super(timeToLive);
+        if (keyRing.getRotationPeriod().compareTo(timeToLive) < 0) {
+            throw new IllegalArgumentException("key rotation period must not be shorter than timeToLive");
+        }
+        this.keyRing = keyRing;
+        this.replayFilter = new ChallengeReplayFilter(timeToLive.dividedBy(4));
+    }
+
+    /**
+     * Creates a repository whose cookies are verified by every node created with the same master secret.
+     */
+    public SignedCookieChallengeRepository(byte[] masterSecret) {
+        this(new ChallengeKeyRing(masterSecret, DEFAULT_ROTATION_PERIOD), DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Creates a repository with a random key, suitable for a single node only.
+     */
+    public SignedCookieChallengeRepository() {
+        this(new ChallengeKeyRing(DEFAULT_ROTATION_PERIOD), DEFAULT_TIME_TO_LIVE);
+    }
+
+    @Override
+    protected String issue(Challenge challenge, long expiryMillis, long nowMillis, HttpServletRequest request) {
+        byte[] value = challenge.getValue();
+        if (value.length > MAX_CHALLENGE_LENGTH) {
+            throw new IllegalArgumentException("challenge must not exceed " + MAX_CHALLENGE_LENGTH + " bytes");
+        }
+        int epoch = keyRing.epochAt(nowMillis);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + value.length + MAC_LENGTH);
+        buffer.put(VERSION).putInt(epoch).putLong(expiryMillis).putShort((short) value.length).put(value);
+        buffer.put(mac(keyRing.keyFor(epoch, nowMillis), buffer.array(), buffer.position(), binding(request)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    @Override
+    protected Challenge consume(String token, long nowMillis, HttpServletRequest request) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.get() != VERSION) {
+                return null;
+            }
+            int epoch = buffer.getInt();
+            long expiry = buffer.getLong();
+            int length = Short.toUnsignedInt(buffer.getShort());
+            if (length > MAX_CHALLENGE_LENGTH || buffer.remaining() != length + MAC_LENGTH) {
+                return null;
+            }
+            SecretKeySpec key = keyRing.keyFor(epoch, nowMillis);
+            if (key == null || expiry <= nowMillis) {
+                return null;
+            }
+            int signedLength = HEADER_LENGTH + length;
+            byte[] expected = mac(key, bytes, signedLength, binding(request));
+            byte[] actual = Arrays.copyOfRange(bytes, signedLength, bytes.length);
+            if (!MessageDigest.isEqual(expected, actual) || !replayFilter.tryConsume(actual, expiry, nowMillis)) {
+                return null;
+            }
+            return new DefaultChallenge(Arrays.copyOfRange(bytes, HEADER_LENGTH, signedLength));
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static byte[] mac(SecretKeySpec key, byte[] bytes, int length, byte[] binding) {
+        try {
+            Mac mac = Mac.getInstance(ChallengeKeyRing.ALGORITHM);
+            mac.init(key);
+            mac.update(bytes, 0, length);
+            mac.update(binding);
+            return Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] binding(HttpServletRequest request) {
+        return request.getServerName().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * {@link com.webauthn4j.springframework.security.challenge.ChallengeRepository} keeping challenges in a
+ * {@link ChallengeStore}. The client only holds a random handle, and the challenge is consumed atomically
+ * from the store on verification, so with a shared store any node can verify it exactly once.
+ */
+public class StoreBackedChallengeRepository extends AbstractCookieChallengeRepository {
+
+    private static final int HANDLE_LENGTH = 16;
+
+    private final ChallengeStore challengeStore;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public StoreBackedChallengeRepository(ChallengeStore challengeStore, Duration timeToLive) {
+        super(timeToLive);
+        this.challengeStore = challengeStore;
+    }
+
+    @Override
+    protected String issue(Challenge challenge, long expiryMillis, long nowMillis, HttpServletRequest request) {
+        byte[] handle = new byte[HANDLE_LENGTH];
+        secureRandom.nextBytes(handle);
+        String key = Base64.getUrlEncoder().withoutPadding().encodeToString(handle);
+        challengeStore.save(key, challenge.getValue(), expiryMillis, nowMillis);
+        return key;
+    }
+
+    @Override
+    protected Challenge consume(String token, long nowMillis, HttpServletRequest request) {
+        byte[] value = challengeStore.consume(token, nowMillis);
+        return value == null ? null : new DefaultChallenge(value);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-process {@link ChallengeStore} sharded by expiry time.
+ * Entries are put into the slot of a hashed time wheel matching the tick they expire in, and a slot is recycled as a
+ * whole by swapping in a fresh map once its tick has passed, so expiry costs O(1) regardless of the number of entries.
+ * Slots are swapped with compare-and-set and entries are removed with {@link ConcurrentMap#remove(Object)},
+ * so neither saving nor consuming takes a lock.
+ */
+public class TimeWheelChallengeStore implements ChallengeStore {
+
+    private final long tickMillis;
+    private final AtomicReferenceArray<Slot> wheel;
+
+    /**
+     * @param tickDuration resolution of the wheel
+     * @param maxTimeToLive longest time-to-live saved entries may have
+     */
+    public TimeWheelChallengeStore(Duration tickDuration, Duration maxTimeToLive) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        this.tickMillis = tickDuration.toMillis();
+        // one extra slot for the tick in progress
+        this.wheel = new AtomicReferenceArray<>((int) (maxTimeToLive.toMillis() / tickMillis) + 2);
+    }
+
+    @Override
+    public void save(String key, byte[] value, long expiryMillis, long nowMillis) {
+        long tick = expiryMillis / tickMillis;
+        if (tick - nowMillis / tickMillis >= wheel.length()) {
+            throw new IllegalArgumentException("expiry exceeds the span of the time wheel");
+        }
+        Slot slot = slotFor(tick);
+        if (slot != null) {
+            slot.entries.put(key, new Entry(value, expiryMillis));
+        }
+    }
+
+    @Override
+    public byte[] consume(String key, long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        for (long tick = nowTick; tick < nowTick + wheel.length(); tick++) {
+            Slot slot = wheel.get(index(tick));
+            if (slot == null || slot.tick != tick) {
+                continue;
+            }
+            Entry entry = slot.entries.remove(key);
+            if (entry != null) {
+                return entry.expiryMillis > nowMillis ? entry.value : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of entries in live slots, including expired entries not yet recycled.
+     */
+    public int size(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        int size = 0;
+        for (int i = 0; i < wheel.length(); i++) {
+            Slot slot = wheel.get(i);
+            if (slot != null && slot.tick >= nowTick) {
+                size += slot.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private Slot slotFor(long tick) {
+        int index = index(tick);
+        while (true) {
+            Slot slot = wheel.get(index);
+            if (slot != null && slot.tick == tick) {
+                return slot;
+            }
+            if (slot != null && slot.tick > tick) {
+                // the wheel has already moved past this tick
+                return null;
+            }
+            Slot fresh = new Slot(tick);
+            if (wheel.compareAndSet(index, slot, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int index(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length());
+    }
+
+    private static final class Slot {
+        private final long tick;
+        private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+        private Slot(long tick) {
+            this.tick = tick;
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] value;
+        private final long expiryMillis;
+
+        private Entry(byte[] value, long expiryMillis) {
+            this.value = value;
+            this.expiryMillis = expiryMillis;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import jakarta.servlet.http.Cookie;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SignedCookieChallengeRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final SignedCookieChallengeRepository target = new SignedCookieChallengeRepository(new ChallengeKeyRing(Duration.ofMinutes(10)), Duration.ofMinutes(5));
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void loadChallenge_test() {
+        target.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        Challenge challenge = new DefaultChallenge();
+        Cookie cookie = save(challenge, "example.com");
+
+        MockHttpServletRequest request = request("example.com", cookie);
+        assertThat(target.loadChallenge(request)).isEqualTo(challenge);
+        assertThat(request.getSession(false)).isNull();
+        // loading again within the same request returns the same challenge
+        assertThat(target.loadChallenge(request)).isEqualTo(challenge);
+    }
+
+    @Test
+    public void loadChallenge_rejects_replayed_token() {
+        target.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        Cookie cookie = save(new DefaultChallenge(), "example.com");
+
+        assertThat(target.loadChallenge(request("example.com", cookie))).isNotNull();
+        assertThat(target.loadChallenge(request("example.com", cookie))).isNull();
+    }
+
+    @Test
+    public void loadChallenge_rejects_expired_token() {
+        target.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        Cookie cookie = save(new DefaultChallenge(), "example.com");
+
+        target.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+        assertThat(target.loadChallenge(request("example.com", cookie))).isNull();
+    }
+
+    @Test
+    public void loadChallenge_rejects_token_issued_for_another_host() {
+        target.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        Cookie cookie = save(new DefaultChallenge(), "example.com");
+
+        assertThat(target.loadChallenge(request("example.org", cookie))).isNull();
+    }
+
+    @Test
+    public void loadChallenge_rejects_tampered_token() {
+        target.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        Cookie cookie = save(new DefaultChallenge(), "example.com");
+        char[] value = cookie.getValue().toCharArray();
+        value[20] = value[20] == 'A' ? 'B' : 'A';
+
+        assertThat(target.loadChallenge(request("example.com", new Cookie(cookie.getName(), new String(value))))).isNull();
+        assertThat(target.loadChallenge(request("example.com", new Cookie(cookie.getName(), "not a token")))).isNull();
+    }
+
+    @Test
+    public void loadChallenge_accepts_token_of_node_sharing_master_secret() {
+        byte[] masterSecret = new byte[32];
+        SignedCookieChallengeRepository issuer = new SignedCookieChallengeRepository(masterSecret);
+        SignedCookieChallengeRepository verifier = new SignedCookieChallengeRepository(masterSecret);
+        Challenge challenge = new DefaultChallenge();
+        MockHttpServletRequest request = request("example.com");
+        issuer.saveChallenge(challenge, request);
+        Cookie cookie = ((MockHttpServletResponse) ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getResponse())
+                .getCookie(SignedCookieChallengeRepository.DEFAULT_COOKIE_NAME);
+
+        assertThat(verifier.loadChallenge(request("example.com", cookie))).isEqualTo(challenge);
+        // replay protection is node-local
+        assertThat(issuer.loadChallenge(request("example.com", cookie))).isEqualTo(challenge);
+        assertThat(new SignedCookieChallengeRepository().loadChallenge(request("example.com", cookie))).isNull();
+    }
+
+    @Test
+    public void loadOrGenerateChallenge_returns_challenge_saved_in_same_request() {
+        MockHttpServletRequest request = request("example.com");
+        Challenge challenge = new DefaultChallenge();
+        target.saveChallenge(challenge, request);
+
+        assertThat(target.loadOrGenerateChallenge(request)).isEqualTo(challenge);
+    }
+
+    private Cookie save(Challenge challenge, String host) {
+        MockHttpServletRequest request = request(host);
+        MockHttpServletResponse response = (MockHttpServletResponse) ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getResponse();
+        target.saveChallenge(challenge, request);
+        Cookie cookie = response.getCookie(SignedCookieChallengeRepository.DEFAULT_COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.isHttpOnly()).isTrue();
+        assertThat(request.getSession(false)).isNull();
+        return cookie;
+    }
+
+    private MockHttpServletRequest request(String host, Cookie... cookies) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName(host);
+        if (cookies.length > 0) {
+            request.setCookies(cookies);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+        return request;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.challenge;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TimeWheelChallengeStoreTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private final TimeWheelChallengeStore target = new TimeWheelChallengeStore(Duration.ofSeconds(1), Duration.ofSeconds(10));
+
+    @Test
+    public void consume_test() {
+        target.save("key", new byte[]{1, 2, 3}, NOW + 5_000, NOW);
+
+        assertThat(target.consume("key", NOW + 1_000)).containsExactly(1, 2, 3);
+        assertThat(target.consume("key", NOW + 1_000)).isNull();
+        assertThat(target.consume("unknown", NOW + 1_000)).isNull();
+    }
+
+    @Test
+    public void consume_expired_entry_test() {
+        target.save("key", new byte[]{1}, NOW + 5_000, NOW);
+
+        assertThat(target.consume("key", NOW + 5_000)).isNull();
+    }
+
+    @Test
+    public void expired_slots_are_recycled_test() {
+        target.save("old", new byte[]{1}, NOW + 2_000, NOW);
+        assertThat(target.size(NOW)).isEqualTo(1);
+
+        // same slot one revolution later
+        target.save("new", new byte[]{2}, NOW + 2_000 + 12_000, NOW + 12_000);
+        assertThat(target.size(NOW + 12_000)).isEqualTo(1);
+        assertThat(target.consume("old", NOW + 12_000)).isNull();
+        assertThat(target.consume("new", NOW + 12_000)).containsExactly(2);
+    }
+
+    @Test
+    public void save_beyond_span_test() {
+        assertThatThrownBy(() -> target.save("key", new byte[]{1}, NOW + 60_000, NOW)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void concurrent_consume_returns_value_once_test() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 100; i++) {
+                String key = "key" + i;
+                target.save(key, new byte[]{1}, NOW + 5_000, NOW);
+                List<Callable<byte[]>> tasks = new ArrayList<>();
+                for (int j = 0; j < 8; j++) {
+                    tasks.add(() -> target.consume(key, NOW));
+                }
+                int consumed = 0;
+                for (Future<byte[]> future : executorService.invokeAll(tasks)) {
+                    if (future.get() != null) {
+                        consumed++;
+                    }
+                }
+                assertThat(consumed).isEqualTo(1);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
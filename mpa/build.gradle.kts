@@ -29,6 +29,8 @@ tasks.withType<org.springframework.boot.gradle.tasks.bundling.BootJar> {
 
 dependencies {
     implementation(libs.webauthn4j.spring.security.core)
+    implementation(project(":lib:stateless-challenge"))
+    implementation(project(":lib:object-converter"))
     implementation(libs.webauthn4j.core)
 
     // Spring Framework
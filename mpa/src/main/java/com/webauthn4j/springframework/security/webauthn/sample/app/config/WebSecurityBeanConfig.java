@@ -17,8 +17,6 @@
 package com.webauthn4j.springframework.security.webauthn.sample.app.config;
 
 import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.dataformat.cbor.CBORMapper;
 import com.webauthn4j.WebAuthnManager;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
@@ -28,11 +26,14 @@ import com.webauthn4j.springframework.security.credential.InMemoryWebAuthnCreden
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordManager;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordService;
 import com.webauthn4j.springframework.security.challenge.ChallengeRepository;
-import com.webauthn4j.springframework.security.challenge.HttpSessionChallengeRepository;
 import com.webauthn4j.springframework.security.converter.jackson.WebAuthn4JSpringSecurityJSONModule;
 import com.webauthn4j.springframework.security.options.*;
 import com.webauthn4j.springframework.security.server.ServerPropertyProvider;
 import com.webauthn4j.springframework.security.server.ServerPropertyProviderImpl;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectConverterFactory;
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.SignedCookieChallengeRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -40,6 +41,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.provisioning.UserDetailsManager;
 
+import java.util.Base64;
+
 @Configuration
 public class WebSecurityBeanConfig {
 
@@ -59,13 +62,17 @@ public class WebSecurityBeanConfig {
     }
 
     @Bean
-    public ObjectConverter objectConverter(){
-        JsonMapper jsonMapper = JsonMapper.builder()
-            .addModule(new WebAuthnMetadataJSONModule())
-            .addModule(new WebAuthn4JSpringSecurityJSONModule())
-            .build();
-        CBORMapper cborMapper = CBORMapper.builder().build();
-        return new ObjectConverter(jsonMapper, cborMapper);
+    public ObjectCodecRegistry objectCodecRegistry(){
+        return ObjectConverterFactory.create(
+            ObjectConverterFactory.jsonMapperBuilder()
+                .addModule(new WebAuthnMetadataJSONModule())
+                .addModule(new WebAuthn4JSpringSecurityJSONModule()),
+            ObjectConverterFactory.cborMapperBuilder());
+    }
+
+    @Bean
+    public ObjectConverter objectConverter(ObjectCodecRegistry objectCodecRegistry){
+        return objectCodecRegistry.getObjectConverter();
     }
 
     @Bean
@@ -78,9 +85,16 @@ public class WebSecurityBeanConfig {
         return new WebAuthnSecurityExpression();
     }
 
+    /**
+     * Nodes sharing sample.challenge.master-secret (base64, at least 32 bytes) verify each other's challenge cookies.
+     * Without it, a random secret is used and only the issuing node verifies them. Replays are detected per node in either case.
+     */
     @Bean
-    public ChallengeRepository challengeRepository() {
-        return new HttpSessionChallengeRepository();
+    public ChallengeRepository challengeRepository(@Value("${sample.challenge.master-secret:}") String masterSecret) {
+        if (masterSecret.isEmpty()) {
+            return new SignedCookieChallengeRepository();
+        }
+        return new SignedCookieChallengeRepository(Base64.getDecoder().decode(masterSecret));
     }
 
     @Bean
@@ -15,6 +15,8 @@
  */
 
 include("lib:spa-angular-client")
+include("lib:stateless-challenge")
+include("lib:object-converter")
 include("spa")
 include("fido-server-conformance-test-app")
-include("mpa")
\ No newline at end of file
+include("mpa")
@@ -18,6 +18,7 @@ import org.gradle.api.tasks.testing.logging.TestLogEvent
 
 plugins {
     id("org.springframework.boot")
+    alias(libs.plugins.jmh)
 }
 
 group = "com.webauthn4j"
@@ -29,6 +30,8 @@ tasks.withType<org.springframework.boot.gradle.tasks.bundling.BootJar> {
 
 dependencies {
     implementation(libs.webauthn4j.spring.security.core)
+    implementation(project(":lib:stateless-challenge"))
+    implementation(project(":lib:object-converter"))
     implementation(libs.webauthn4j.core)
     implementation(project(":lib:spa-angular-client"))
 
@@ -36,6 +39,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-security")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
 
     implementation("com.fasterxml.jackson.core:jackson-databind")
     implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
@@ -45,6 +49,7 @@ dependencies {
     //Others
     implementation("org.slf4j:jcl-over-slf4j")
     implementation(libs.modelmapper)
+    implementation("com.github.ben-manes.caffeine:caffeine")
     implementation("org.flywaydb:flyway-core")
     runtimeOnly("com.h2database:h2")
     runtimeOnly("com.mysql:mysql-connector-j")
@@ -61,6 +66,7 @@ dependencies {
     testImplementation(libs.spring.test.dbunit)
     testImplementation(libs.webdrivermanager)
     testImplementation(libs.selenium.java)
+    testImplementation(libs.jol.core)
 }
 
 tasks.test {
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.authenticator.COSEKey;
+import com.webauthn4j.data.attestation.authenticator.EC2COSEKey;
+import com.webauthn4j.data.attestation.authenticator.RSACOSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-assertion cost of verifying a signature against the COSE key of a freshly loaded credential record,
+ * which rebuilds the JCA public key, with the key of a cached {@link CredentialRecordSnapshot}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CredentialRecordSnapshotBenchmark {
+
+    @Param({"ES256", "RS256"})
+    public String algorithm;
+
+    private String jcaName;
+    private COSEKey entityKey;
+    private COSEKey snapshotKey;
+    private byte[] data;
+    private byte[] signature;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        KeyPair keyPair;
+        if ("ES256".equals(algorithm)) {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+            keyPair = keyPairGenerator.generateKeyPair();
+            entityKey = EC2COSEKey.create((ECPublicKey) keyPair.getPublic(), COSEAlgorithmIdentifier.ES256);
+            jcaName = "SHA256withECDSA";
+        } else {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            keyPair = keyPairGenerator.generateKeyPair();
+            entityKey = RSACOSEKey.create((RSAPublicKey) keyPair.getPublic(), COSEAlgorithmIdentifier.RS256);
+            jcaName = "SHA256withRSA";
+        }
+        CredentialRecordEntity credentialRecordEntity = new CredentialRecordEntity();
+        credentialRecordEntity.setAttestedCredentialData(new AttestedCredentialData(AAGUID.ZERO, new byte[]{0x01, 0x02}, entityKey));
+        snapshotKey = CredentialRecordSnapshot.of(credentialRecordEntity).getAttestedCredentialData().getCOSEKey();
+
+        data = "authenticatorData || clientDataHash".getBytes(StandardCharsets.UTF_8);
+        Signature signer = Signature.getInstance(jcaName);
+        signer.initSign(keyPair.getPrivate());
+        signer.update(data);
+        signature = signer.sign();
+    }
+
+    @Benchmark
+    public PublicKey publicKey_entity() {
+        return entityKey.getPublicKey();
+    }
+
+    @Benchmark
+    public PublicKey publicKey_snapshot() {
+        return snapshotKey.getPublicKey();
+    }
+
+    @Benchmark
+    public boolean verify_entity() throws GeneralSecurityException {
+        return verify(entityKey);
+    }
+
+    @Benchmark
+    public boolean verify_snapshot() throws GeneralSecurityException {
+        return verify(snapshotKey);
+    }
+
+    private boolean verify(COSEKey coseKey) throws GeneralSecurityException {
+        Signature verifier = Signature.getInstance(jcaName);
+        verifier.initVerify(coseKey.getPublicKey());
+        verifier.update(data);
+        return verifier.verify(signature);
+    }
+}
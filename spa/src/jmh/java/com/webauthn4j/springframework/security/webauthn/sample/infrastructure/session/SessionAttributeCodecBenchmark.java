@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.session;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.springframework.security.WebAuthnAuthenticationToken;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.LoginUser;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.*;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SessionAttributeCodec} with JDK serialization for the session attributes of a logged-in user.
+ * Encoded sizes are asserted in {@code SessionAttributeCodecTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionAttributeCodecBenchmark {
+
+    @Param({"securityContext", "challenge"})
+    public String attributeType;
+
+    private SessionAttributeCodec codec;
+    private Object attribute;
+    private byte[] encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() {
+        codec = new SessionAttributeCodec(new ObjectConverter());
+        attribute = "challenge".equals(attributeType) ? new DefaultChallenge() : createSecurityContext();
+        encoded = codec.encode(attribute);
+        serialized = serialize(attribute);
+    }
+
+    @Benchmark
+    public byte[] encode_codec() {
+        return codec.encode(attribute);
+    }
+
+    @Benchmark
+    public Object decode_codec() {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public byte[] encode_serialization() {
+        return serialize(attribute);
+    }
+
+    @Benchmark
+    public Object decode_serialization() {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return objectInputStream.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] serialize(Object attribute) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(attribute);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static SecurityContextImpl createSecurityContext() {
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        authorities.add(new SimpleGrantedAuthority("SINGLE_FACTOR_AUTHN_ALLOWED"));
+        LoginUser loginUser = new LoginUser(1, "john.doe@example.com", new byte[]{0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d, 0x0e, 0x0f, 0x10},
+                Collections.unmodifiableSet(authorities), true, null);
+        WebAuthnAuthenticationToken authentication = new WebAuthnAuthenticationToken(loginUser, null, loginUser.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetails("127.0.0.1", "5F2A1C8E0B9D4F6A7C3E1B0D9F8A6C4E"));
+        return new SecurityContextImpl(authentication);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter;
+
+import com.webauthn4j.converter.util.JsonConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.client.ClientDataType;
+import com.webauthn4j.data.client.CollectedClientData;
+import com.webauthn4j.data.client.Origin;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectConverterFactory;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding through a plain {@link ObjectConverter} with the cached readers of {@link ObjectCodecRegistry},
+ * whose mappers register the Blackbird module
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectCodecRegistryBenchmark {
+
+    private static final String CLIENT_EXTENSIONS = "{\"credProps\":{\"rk\":true}}";
+
+    private JsonConverter jsonConverter;
+    private ClientExtensionsConverter clientExtensionsConverter;
+    private ObjectReader clientDataReader;
+    private byte[] clientDataBytes;
+
+    @Setup
+    public void setup() {
+        jsonConverter = new ObjectConverter().getJsonConverter();
+        ObjectCodecRegistry objectCodecRegistry = ObjectConverterFactory.create();
+        clientExtensionsConverter = new ClientExtensionsConverter(objectCodecRegistry);
+        clientDataReader = objectCodecRegistry.jsonReader(CollectedClientData.class);
+
+        CollectedClientData clientData = new CollectedClientData(ClientDataType.WEBAUTHN_GET, new DefaultChallenge(), new Origin("https://localhost:8080"), null);
+        clientDataBytes = jsonConverter.writeValueAsBytes(clientData);
+    }
+
+    @Benchmark
+    public Map<String, RegistrationExtensionClientOutput> clientExtensions_objectConverter() {
+        return jsonConverter.readValue(CLIENT_EXTENSIONS, new TypeReference<Map<String, RegistrationExtensionClientOutput>>() {
+        });
+    }
+
+    @Benchmark
+    public Map<String, RegistrationExtensionClientOutput> clientExtensions_registry() {
+        return clientExtensionsConverter.convertToEntityAttribute(CLIENT_EXTENSIONS);
+    }
+
+    @Benchmark
+    public CollectedClientData clientData_objectConverter() {
+        return jsonConverter.readValue(clientDataBytes, CollectedClientData.class);
+    }
+
+    @Benchmark
+    public CollectedClientData clientData_registry() {
+        return clientDataReader.readValue(clientDataBytes);
+    }
+}
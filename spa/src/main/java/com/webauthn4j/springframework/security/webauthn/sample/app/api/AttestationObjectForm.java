@@ -35,6 +35,8 @@ public class AttestationObjectForm {
     private AttestationObject attestationObject;
     @NotNull
     private String attestationObjectBase64;
+    @NotNull
+    private byte[] attestationObjectBytes;
 
     public AttestationObject getAttestationObject() {
         return attestationObject;
@@ -51,4 +53,12 @@ public class AttestationObjectForm {
     public void setAttestationObjectBase64(String attestationObjectBase64) {
         this.attestationObjectBase64 = attestationObjectBase64;
     }
+
+    public byte[] getAttestationObjectBytes() {
+        return attestationObjectBytes;
+    }
+
+    public void setAttestationObjectBytes(byte[] attestationObjectBytes) {
+        this.attestationObjectBytes = attestationObjectBytes;
+    }
 }
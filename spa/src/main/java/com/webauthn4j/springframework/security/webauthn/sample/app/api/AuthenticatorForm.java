@@ -16,6 +16,7 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.app.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.validator.AuthenticatorFormValidator;
 
 import jakarta.validation.constraints.NotEmpty;
@@ -50,6 +51,12 @@ public class AuthenticatorForm {
      */
     private String clientExtensionsJSON;
 
+    /**
+     * populated by {@link AuthenticatorFormValidator} once the registration is verified
+     */
+    @JsonIgnore
+    private RegistrationContext registrationContext;
+
     public Integer getId() {
         return id;
     }
@@ -105,4 +112,14 @@ public class AuthenticatorForm {
     public void setClientExtensionsJSON(String clientExtensionsJSON) {
         this.clientExtensionsJSON = clientExtensionsJSON;
     }
+
+    @JsonIgnore
+    public RegistrationContext getRegistrationContext() {
+        return registrationContext;
+    }
+
+    @JsonIgnore
+    public void setRegistrationContext(RegistrationContext registrationContext) {
+        this.registrationContext = registrationContext;
+    }
 }
@@ -34,6 +34,9 @@ public class CollectedClientDataForm {
     @NotNull
     private String clientDataBase64;
 
+    @NotNull
+    private byte[] clientDataBytes;
+
     public CollectedClientData getCollectedClientData() {
         return collectedClientData;
     }
@@ -49,4 +52,12 @@ public class CollectedClientDataForm {
     public void setClientDataBase64(String clientDataBase64) {
         this.clientDataBase64 = clientDataBase64;
     }
+
+    public byte[] getClientDataBytes() {
+        return clientDataBytes;
+    }
+
+    public void setClientDataBytes(byte[] clientDataBytes) {
+        this.clientDataBytes = clientDataBytes;
+    }
 }
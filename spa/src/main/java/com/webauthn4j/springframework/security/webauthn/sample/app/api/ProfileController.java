@@ -20,6 +20,7 @@ import com.webauthn4j.springframework.security.webauthn.sample.app.api.validator
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.validator.spring.ProfileUpdateFormValidator;
 import com.webauthn4j.springframework.security.webauthn.sample.app.service.ProfileAppService;
 import com.webauthn4j.springframework.security.webauthn.sample.app.util.AppSpecificMapper;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.LoginUser;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -60,8 +61,8 @@ public class ProfileController {
     }
 
     @GetMapping
-    public ProfileForm show(@AuthenticationPrincipal UserEntity loginUserEntity) {
-        UserEntity userEntity = profileAppService.findOne(loginUserEntity.getId());
+    public ProfileForm show(@AuthenticationPrincipal LoginUser loginUser) {
+        UserEntity userEntity = profileAppService.findOne(loginUser.getId());
         return mapper.mapToProfileForm(userEntity);
     }
 
@@ -73,15 +74,15 @@ public class ProfileController {
     }
 
     @PutMapping
-    public ProfileForm update(@AuthenticationPrincipal UserEntity loginUserEntity, @Valid @RequestBody ProfileUpdateForm profileUpdateForm) {
-        int id = loginUserEntity.getId();
+    public ProfileForm update(@AuthenticationPrincipal LoginUser loginUser, @Valid @RequestBody ProfileUpdateForm profileUpdateForm) {
+        int id = loginUser.getId();
         UserEntity updatedUserEntity = profileAppService.update(id, profileUpdateForm);
         return mapper.mapToProfileForm(updatedUserEntity);
     }
 
     @DeleteMapping
-    public void delete(@AuthenticationPrincipal UserEntity loginUserEntity) {
-        int id = loginUserEntity.getId();
+    public void delete(@AuthenticationPrincipal LoginUser loginUser) {
+        int id = loginUser.getId();
         profileAppService.delete(id);
         SecurityContextHolder.clearContext();
     }
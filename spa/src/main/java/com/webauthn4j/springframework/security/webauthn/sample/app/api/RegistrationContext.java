@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.app.api;
+
+import com.webauthn4j.WebAuthnManager;
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.RegistrationData;
+import com.webauthn4j.data.RegistrationParameters;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Carries the artifacts of a single credential registration from request binding through verification,
+ * mapping and persistence, so that the attestation object, client data and client extensions are decoded
+ * exactly once per request.
+ */
+public class RegistrationContext {
+
+    private final RegistrationData registrationData;
+
+    private boolean verified;
+
+    RegistrationContext(RegistrationData registrationData) {
+        this.registrationData = registrationData;
+    }
+
+    /**
+     * Assembles a context from the already decoded parts of an {@link AuthenticatorForm}.
+     *
+     * @param authenticatorForm bound form, whose attestation object and client data are already decoded
+     * @param clientExtensions  parsed client extension outputs
+     * @return registration context
+     */
+    public static RegistrationContext of(AuthenticatorForm authenticatorForm, AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> clientExtensions) {
+        AttestationObjectForm attestationObjectForm = authenticatorForm.getAttestationObject();
+        CollectedClientDataForm collectedClientDataForm = authenticatorForm.getClientData();
+        RegistrationData registrationData = new RegistrationData(
+                attestationObjectForm.getAttestationObject(),
+                attestationObjectForm.getAttestationObjectBytes(),
+                collectedClientDataForm.getCollectedClientData(),
+                collectedClientDataForm.getClientDataBytes(),
+                clientExtensions,
+                toTransports(authenticatorForm.getTransports()));
+        return new RegistrationContext(registrationData);
+    }
+
+    private static Set<AuthenticatorTransport> toTransports(Set<String> transports) {
+        if (transports == null) {
+            return Collections.emptySet();
+        }
+        Set<AuthenticatorTransport> result = new LinkedHashSet<>();
+        for (String transport : transports) {
+            result.add(AuthenticatorTransport.create(transport));
+        }
+        return result;
+    }
+
+    /**
+     * Verifies the registration against the decoded artifacts held by this context.
+     *
+     * @param webAuthnManager        manager used for verification
+     * @param registrationParameters expected server properties and policies
+     */
+    public void verify(WebAuthnManager webAuthnManager, RegistrationParameters registrationParameters) {
+        webAuthnManager.verify(registrationData, registrationParameters);
+        this.verified = true;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    /**
+     * Returns the registration data once {@link #verify(WebAuthnManager, RegistrationParameters)} succeeded.
+     *
+     * @return verified registration data
+     * @throws IllegalStateException if the registration has not been verified
+     */
+    public RegistrationData getVerifiedRegistrationData() {
+        if (!verified) {
+            throw new IllegalStateException("Registration has not been verified.");
+        }
+        return registrationData;
+    }
+}
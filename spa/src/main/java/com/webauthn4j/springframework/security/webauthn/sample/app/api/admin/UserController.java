@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.app.api.admin;
+
+import com.webauthn4j.springframework.security.webauthn.sample.app.service.UserAppService;
+import com.webauthn4j.springframework.security.webauthn.sample.app.util.AppSpecificMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/user")
+public class UserController {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final UserAppService userAppService;
+
+    private final AppSpecificMapper mapper;
+
+    @Autowired
+    public UserController(UserAppService userAppService, AppSpecificMapper mapper) {
+        this.userAppService = userAppService;
+        this.mapper = mapper;
+    }
+
+    @GetMapping
+    public UserListForm list(@RequestParam(required = false) String keyword,
+                             @RequestParam(required = false) Integer afterId,
+                             @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return mapper.mapToUserListForm(userAppService.findAllByKeyword(keyword, afterId, pageSize));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.app.api.admin;
+
+import java.util.List;
+
+/**
+ * A page of users. Pass {@code nextAfterId} as {@code afterId} to fetch the next page.
+ */
+public class UserListForm {
+
+    private List<UserForm> users;
+
+    private boolean hasNext;
+
+    private Integer nextAfterId;
+
+    public List<UserForm> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserForm> users) {
+        this.users = users;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public void setNextAfterId(Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
@@ -16,8 +16,15 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.app.api.validator;
 
-import com.webauthn4j.springframework.security.WebAuthnRegistrationRequestValidator;
+import com.webauthn4j.WebAuthnManager;
+import com.webauthn4j.converter.AuthenticationExtensionsClientOutputsConverter;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.data.RegistrationParameters;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.springframework.security.server.ServerPropertyProvider;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.AuthenticatorForm;
+import com.webauthn4j.springframework.security.webauthn.sample.app.api.RegistrationContext;
 import com.webauthn4j.verifier.exception.VerificationException;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
@@ -29,34 +36,46 @@ public class AuthenticatorFormValidator {
 
     private static final String NOT_NULL = "not.null";
 
-    private final WebAuthnRegistrationRequestValidator webAuthnRegistrationRequestValidator;
+    private final WebAuthnManager webAuthnManager;
+    private final ServerPropertyProvider serverPropertyProvider;
+    private final AuthenticationExtensionsClientOutputsConverter authenticationExtensionsClientOutputsConverter;
 
-    public AuthenticatorFormValidator(WebAuthnRegistrationRequestValidator webAuthnRegistrationRequestValidator) {
-        this.webAuthnRegistrationRequestValidator = webAuthnRegistrationRequestValidator;
+    public AuthenticatorFormValidator(WebAuthnManager webAuthnManager, ServerPropertyProvider serverPropertyProvider,
+                                      AuthenticationExtensionsClientOutputsConverter authenticationExtensionsClientOutputsConverter) {
+        this.webAuthnManager = webAuthnManager;
+        this.serverPropertyProvider = serverPropertyProvider;
+        this.authenticationExtensionsClientOutputsConverter = authenticationExtensionsClientOutputsConverter;
     }
 
     public void validate(HttpServletRequest request, AuthenticatorForm form, Errors errors) {
         if (form.getId() == null) {
+            boolean complete = true;
             if (form.getCredentialId() == null) {
                 errors.rejectValue("credentialId", NOT_NULL);
+                complete = false;
             }
             if (form.getAttestationObject() == null) {
                 errors.rejectValue("attestationObject", NOT_NULL);
+                complete = false;
             }
             if (form.getClientData() == null) {
                 errors.rejectValue("clientData", NOT_NULL);
+                complete = false;
             }
             if (form.getClientExtensionsJSON() == null) {
                 errors.rejectValue("clientExtensionsJSON", NOT_NULL);
+                complete = false;
+            }
+            if (!complete) {
+                return;
             }
             try {
-                webAuthnRegistrationRequestValidator.validate(
-                        request,
-                        form.getClientData().getClientDataBase64(),
-                        form.getAttestationObject().getAttestationObjectBase64(),
-                        form.getTransports(),
-                        form.getClientExtensionsJSON());
-            } catch (VerificationException exception) {
+                AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> clientExtensions =
+                        authenticationExtensionsClientOutputsConverter.convert(form.getClientExtensionsJSON());
+                RegistrationContext registrationContext = RegistrationContext.of(form, clientExtensions);
+                registrationContext.verify(webAuthnManager, new RegistrationParameters(serverPropertyProvider.provide(request), null, false, true));
+                form.setRegistrationContext(registrationContext);
+            } catch (VerificationException | DataConversionException exception) {
                 errors.reject("e.AuthenticatorFormValidator.invalidAuthenticator", "AuthenticatorEntity is invalid.");
             }
 
@@ -16,9 +16,10 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.app.config;
 
+import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.AuthenticationExtensionsClientOutputsConverter;
+import com.webauthn4j.converter.CollectedClientDataConverter;
 import com.webauthn4j.converter.util.ObjectConverter;
-import com.webauthn4j.springframework.security.converter.Base64UrlStringToAttestationObjectConverter;
-import com.webauthn4j.springframework.security.converter.Base64UrlStringToCollectedClientDataConverter;
 import com.webauthn4j.springframework.security.webauthn.sample.app.formatter.AttestationObjectFormFormatter;
 import com.webauthn4j.springframework.security.webauthn.sample.app.formatter.CollectedClientDataFormFormatter;
 import org.springframework.context.annotation.Bean;
@@ -31,25 +32,30 @@ import org.springframework.context.annotation.Configuration;
 public class ConverterConfig {
 
     @Bean
-    public Base64UrlStringToCollectedClientDataConverter base64StringToCollectedClientDataConverter(ObjectConverter objectConverter) {
-        return new Base64UrlStringToCollectedClientDataConverter(objectConverter);
+    public CollectedClientDataConverter collectedClientDataConverter(ObjectConverter objectConverter) {
+        return new CollectedClientDataConverter(objectConverter);
     }
 
     @Bean
-    public Base64UrlStringToAttestationObjectConverter base64StringToWebAuthnAttestationObjectConverter(ObjectConverter objectConverter) {
-        return new Base64UrlStringToAttestationObjectConverter(objectConverter);
+    public AttestationObjectConverter attestationObjectConverter(ObjectConverter objectConverter) {
+        return new AttestationObjectConverter(objectConverter);
+    }
+
+    @Bean
+    public AuthenticationExtensionsClientOutputsConverter authenticationExtensionsClientOutputsConverter(ObjectConverter objectConverter) {
+        return new AuthenticationExtensionsClientOutputsConverter(objectConverter);
     }
 
     @Bean
     public CollectedClientDataFormFormatter collectedClientDataFromToBase64StringConverter(
-            Base64UrlStringToCollectedClientDataConverter base64UrlStringToCollectedClientDataConverter) {
-        return new CollectedClientDataFormFormatter(base64UrlStringToCollectedClientDataConverter);
+            CollectedClientDataConverter collectedClientDataConverter) {
+        return new CollectedClientDataFormFormatter(collectedClientDataConverter);
     }
 
     @Bean
     public AttestationObjectFormFormatter attestationObjectFormFormatter(
-            Base64UrlStringToAttestationObjectConverter base64UrlStringToAttestationObjectConverter) {
-        return new AttestationObjectFormFormatter(base64UrlStringToAttestationObjectConverter);
+            AttestationObjectConverter attestationObjectConverter) {
+        return new AttestationObjectFormFormatter(attestationObjectConverter);
     }
 
 }
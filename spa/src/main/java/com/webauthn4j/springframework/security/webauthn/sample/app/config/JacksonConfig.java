@@ -16,18 +16,21 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.app.config;
 
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectConverterFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.json.JsonMapper;
 
 @Configuration
 @ComponentScan(basePackages = "com.webauthn4j.springframework.security.webauthn.sample.app.util.jackson")
 public class JacksonConfig {
 
+    /**
+     * MVC mapper. Kept apart from the {@code ObjectConverter} mappers, which omit null properties.
+     */
     @Bean
     public ObjectMapper objectMapper() {
-        return JsonMapper.builder().build();
+        return ObjectConverterFactory.jsonMapperBuilder().build();
     }
 }
\ No newline at end of file
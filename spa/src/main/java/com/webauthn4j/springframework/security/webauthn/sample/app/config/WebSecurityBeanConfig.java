@@ -17,22 +17,26 @@
 package com.webauthn4j.springframework.security.webauthn.sample.app.config;
 
 import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.dataformat.cbor.CBORMapper;
 import com.webauthn4j.WebAuthnManager;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
-import com.webauthn4j.springframework.security.WebAuthnRegistrationRequestValidator;
 import com.webauthn4j.springframework.security.WebAuthnSecurityExpression;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordService;
 import com.webauthn4j.springframework.security.challenge.ChallengeRepository;
-import com.webauthn4j.springframework.security.challenge.HttpSessionChallengeRepository;
 import com.webauthn4j.springframework.security.converter.jackson.WebAuthn4JSpringSecurityJSONModule;
 import com.webauthn4j.springframework.security.options.*;
 import com.webauthn4j.springframework.security.server.ServerPropertyProvider;
 import com.webauthn4j.springframework.security.server.ServerPropertyProviderImpl;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectConverterFactory;
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.ChallengeKeyRing;
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.ChallengeStore;
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.SignedCookieChallengeRepository;
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.StoreBackedChallengeRepository;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.component.PublicKeyCredentialUserEntityProviderImpl;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.component.UserManager;
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.config.ChallengeStoreProperties;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.access.AccessDeniedException;
@@ -51,16 +55,13 @@ import org.springframework.security.web.authentication.logout.LogoutSuccessHandl
 import org.springframework.security.web.csrf.InvalidCsrfTokenException;
 import org.springframework.security.web.csrf.MissingCsrfTokenException;
 
+import java.time.Duration;
+import java.util.Base64;
 import java.util.LinkedHashMap;
 
 @Configuration
 public class WebSecurityBeanConfig {
 
-    @Bean
-    public WebAuthnRegistrationRequestValidator webAuthnRegistrationRequestValidator(WebAuthnManager webAuthnManager, ServerPropertyProvider serverPropertyProvider) {
-        return new WebAuthnRegistrationRequestValidator(webAuthnManager, serverPropertyProvider);
-    }
-
     @Bean
     public AuthenticationTrustResolver authenticationTrustResolver() {
         return new AuthenticationTrustResolverImpl();
@@ -72,8 +73,18 @@ public class WebSecurityBeanConfig {
     }
 
     @Bean
-    public ChallengeRepository challengeRepository() {
-        return new HttpSessionChallengeRepository();
+    public ChallengeRepository challengeRepository(ChallengeStoreProperties challengeStoreProperties, ObjectProvider<ChallengeStore> challengeStoreProvider) {
+        Duration timeToLive = challengeStoreProperties.getTimeToLive();
+        ChallengeStore challengeStore = challengeStoreProvider.getIfAvailable();
+        if (challengeStore != null) {
+            return new StoreBackedChallengeRepository(challengeStore, timeToLive);
+        }
+        // replays are detected per node even if the nodes share the master secret
+        String masterSecret = challengeStoreProperties.getMasterSecret();
+        ChallengeKeyRing keyRing = masterSecret == null || masterSecret.isEmpty()
+                ? new ChallengeKeyRing(timeToLive.multipliedBy(2))
+                : new ChallengeKeyRing(Base64.getDecoder().decode(masterSecret), timeToLive.multipliedBy(2));
+        return new SignedCookieChallengeRepository(keyRing, timeToLive);
     }
 
     @Bean
@@ -100,7 +111,6 @@ public class WebSecurityBeanConfig {
 
     @Bean
     public WebAuthnManager webAuthnManager(ObjectConverter objectConverter) {
-
         WebAuthnManager webAuthnManager = WebAuthnManager.createNonStrictWebAuthnManager(objectConverter);
         webAuthnManager.getAuthenticationDataVerifier().setCrossOriginAllowed(true);
         return webAuthnManager;
@@ -113,13 +123,17 @@ public class WebSecurityBeanConfig {
 
 
     @Bean
-    public ObjectConverter objectConverter() {
-        JsonMapper jsonMapper = JsonMapper.builder()
-            .addModule(new WebAuthnMetadataJSONModule())
-            .addModule(new WebAuthn4JSpringSecurityJSONModule())
-            .build();
-        CBORMapper cborMapper = CBORMapper.builder().build();
-        return new ObjectConverter(jsonMapper, cborMapper);
+    public ObjectCodecRegistry objectCodecRegistry() {
+        return ObjectConverterFactory.create(
+            ObjectConverterFactory.jsonMapperBuilder()
+                .addModule(new WebAuthnMetadataJSONModule())
+                .addModule(new WebAuthn4JSpringSecurityJSONModule()),
+            ObjectConverterFactory.cborMapperBuilder());
+    }
+
+    @Bean
+    public ObjectConverter objectConverter(ObjectCodecRegistry objectCodecRegistry) {
+        return objectCodecRegistry.getObjectConverter();
     }
 
     @Bean
@@ -148,7 +148,8 @@ public class WebSecurityConfig {
                 .requestMatchers("/health/**").permitAll()
                 .requestMatchers("/info/**").permitAll()
                 .requestMatchers("/h2-console/**").denyAll()
-                .requestMatchers("/api/admin/**").access(getWebExpressionAuthorizationManager("hasRole('ADMIN_ROLE') and isAuthenticated()"))
+                .requestMatchers("/api/admin/**").access(getWebExpressionAuthorizationManager("hasRole('ADMIN') and isAuthenticated()"))
+                .requestMatchers("/actuator/**").access(getWebExpressionAuthorizationManager("hasRole('ACTUATOR') and isAuthenticated()"))
                 .anyRequest().access(getWebExpressionAuthorizationManager("@webAuthnSecurityExpression.isWebAuthnAuthenticated(authentication) || hasAuthority('SINGLE_FACTOR_AUTHN_ALLOWED')"))
         );
 
@@ -17,9 +17,9 @@
 package com.webauthn4j.springframework.security.webauthn.sample.app.formatter;
 
 import com.webauthn4j.data.attestation.AttestationObject;
-import com.webauthn4j.springframework.security.converter.Base64UrlStringToAttestationObjectConverter;
+import com.webauthn4j.converter.AttestationObjectConverter;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.AttestationObjectForm;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.webauthn4j.util.Base64UrlUtil;
 import org.springframework.format.Formatter;
 
 import java.text.ParseException;
@@ -30,19 +30,20 @@ import java.util.Locale;
  */
 public class AttestationObjectFormFormatter implements Formatter<AttestationObjectForm> {
 
-    @Autowired
-    private Base64UrlStringToAttestationObjectConverter base64UrlStringToAttestationObjectConverter;
+    private final AttestationObjectConverter attestationObjectConverter;
 
-    public AttestationObjectFormFormatter(Base64UrlStringToAttestationObjectConverter base64UrlStringToAttestationObjectConverter) {
-        this.base64UrlStringToAttestationObjectConverter = base64UrlStringToAttestationObjectConverter;
+    public AttestationObjectFormFormatter(AttestationObjectConverter attestationObjectConverter) {
+        this.attestationObjectConverter = attestationObjectConverter;
     }
 
     @Override
     public AttestationObjectForm parse(String text, Locale locale) throws ParseException {
-        AttestationObject attestationObject = base64UrlStringToAttestationObjectConverter.convert(text);
+        byte[] bytes = Base64UrlUtil.decode(text);
+        AttestationObject attestationObject = attestationObjectConverter.convert(bytes);
         AttestationObjectForm attestationObjectForm = new AttestationObjectForm();
         attestationObjectForm.setAttestationObject(attestationObject);
         attestationObjectForm.setAttestationObjectBase64(text);
+        attestationObjectForm.setAttestationObjectBytes(bytes);
         return attestationObjectForm;
     }
 
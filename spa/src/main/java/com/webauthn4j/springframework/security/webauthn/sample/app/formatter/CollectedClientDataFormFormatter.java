@@ -17,8 +17,9 @@
 package com.webauthn4j.springframework.security.webauthn.sample.app.formatter;
 
 import com.webauthn4j.data.client.CollectedClientData;
-import com.webauthn4j.springframework.security.converter.Base64UrlStringToCollectedClientDataConverter;
+import com.webauthn4j.converter.CollectedClientDataConverter;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.CollectedClientDataForm;
+import com.webauthn4j.util.Base64UrlUtil;
 import org.springframework.format.Formatter;
 
 import java.text.ParseException;
@@ -29,18 +30,20 @@ import java.util.Locale;
  */
 public class CollectedClientDataFormFormatter implements Formatter<CollectedClientDataForm> {
 
-    private final Base64UrlStringToCollectedClientDataConverter base64UrlStringToCollectedClientDataConverter;
+    private final CollectedClientDataConverter collectedClientDataConverter;
 
-    public CollectedClientDataFormFormatter(Base64UrlStringToCollectedClientDataConverter base64UrlStringToCollectedClientDataConverter) {
-        this.base64UrlStringToCollectedClientDataConverter = base64UrlStringToCollectedClientDataConverter;
+    public CollectedClientDataFormFormatter(CollectedClientDataConverter collectedClientDataConverter) {
+        this.collectedClientDataConverter = collectedClientDataConverter;
     }
 
     @Override
     public CollectedClientDataForm parse(String text, Locale locale) throws ParseException {
-        CollectedClientData collectedClientData = base64UrlStringToCollectedClientDataConverter.convert(text);
+        byte[] bytes = Base64UrlUtil.decode(text);
+        CollectedClientData collectedClientData = collectedClientDataConverter.convert(bytes);
         CollectedClientDataForm collectedClientDataForm = new CollectedClientDataForm();
         collectedClientDataForm.setCollectedClientData(collectedClientData);
         collectedClientDataForm.setClientDataBase64(text);
+        collectedClientDataForm.setClientDataBytes(bytes);
         return collectedClientDataForm;
     }
 
@@ -38,6 +38,7 @@ public class ProfileAppServiceImpl implements ProfileAppService {
         this.mapper = mapper;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public UserEntity findOne(int id) {
         return userService.findOne(id);
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.app.service;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import org.springframework.data.domain.Slice;
+
+public interface UserAppService {
+
+    /**
+     * find users by keyword with keyset pagination
+     *
+     * @param keyword keyword. all users are returned if null or blank
+     * @param afterId id of the last user of the previous page. null for the first page
+     * @param size    page size
+     * @return user list ordered by id
+     */
+    Slice<UserEntity> findAllByKeyword(String keyword, Integer afterId, int size);
+}
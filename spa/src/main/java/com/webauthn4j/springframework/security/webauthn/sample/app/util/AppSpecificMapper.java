@@ -16,16 +16,26 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.app.util;
 
+import com.webauthn4j.data.RegistrationData;
+import com.webauthn4j.data.attestation.AttestationObject;
+import com.webauthn4j.data.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.data.extension.authenticator.RegistrationExtensionAuthenticatorOutput;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.AuthenticatorForm;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.ProfileCreateForm;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.ProfileForm;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.ProfileUpdateForm;
+import com.webauthn4j.springframework.security.webauthn.sample.app.api.RegistrationContext;
+import com.webauthn4j.springframework.security.webauthn.sample.app.api.admin.UserForm;
+import com.webauthn4j.springframework.security.webauthn.sample.app.api.admin.UserListForm;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.AuthorityRegistry;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.AuthorityEntity;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.exception.WebAuthnSampleBusinessException;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.exception.WebAuthnSampleEntityNotFoundException;
 import com.webauthn4j.util.Base64UrlUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -39,6 +49,9 @@ public class AppSpecificMapper {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    AuthorityRegistry authorityRegistry;
+
     public ProfileForm mapToProfileForm(UserEntity userEntity) {
         ProfileForm profileForm = new ProfileForm();
         profileForm.setId(userEntity.getId());
@@ -50,20 +63,58 @@ public class AppSpecificMapper {
         // authenticators
         profileForm.setAuthenticators(new ArrayList<>());
         mapToAuthenticatorFormList(userEntity.getCredentialRecords(), profileForm.getAuthenticators());
-        profileForm.setSingleFactorAuthenticationAllowed(userEntity.getAuthorities().stream().anyMatch(authorityEntity -> authorityEntity.getAuthority().equals("SINGLE_FACTOR_AUTHN_ALLOWED")));
+        profileForm.setSingleFactorAuthenticationAllowed(userEntity.getAuthorityEntities().stream().anyMatch(authorityEntity -> authorityEntity.getAuthority().equals("SINGLE_FACTOR_AUTHN_ALLOWED")));
 
         return profileForm;
     }
 
+    public UserListForm mapToUserListForm(Slice<UserEntity> users) {
+        UserListForm userListForm = new UserListForm();
+        List<UserForm> userForms = new ArrayList<>(users.getNumberOfElements());
+        for (UserEntity userEntity : users) {
+            userForms.add(mapToUserForm(userEntity));
+        }
+        userListForm.setUsers(userForms);
+        userListForm.setHasNext(users.hasNext());
+        userListForm.setNextAfterId(userForms.isEmpty() ? null : userForms.get(userForms.size() - 1).getId());
+        return userListForm;
+    }
+
+    private UserForm mapToUserForm(UserEntity userEntity) {
+        UserForm userForm = new UserForm();
+        userForm.setId(userEntity.getId());
+        userForm.setFirstName(userEntity.getFirstName());
+        userForm.setLastName(userEntity.getLastName());
+        userForm.setEmailAddress(userEntity.getEmailAddress());
+        List<String> authorities = new ArrayList<>();
+        for (AuthorityEntity authorityEntity : userEntity.getAuthorityEntities()) {
+            authorities.add(authorityEntity.getAuthority());
+        }
+        userForm.setAuthorities(authorities);
+        return userForm;
+    }
+
     private CredentialRecordEntity mapForCreate(AuthenticatorForm authenticatorForm) {
+        // reuse the artifacts decoded and verified by AuthenticatorFormValidator instead of parsing them again
+        RegistrationContext registrationContext = authenticatorForm.getRegistrationContext();
+        if (registrationContext == null || !registrationContext.isVerified()) {
+            // the form reached the mapper without passing AuthenticatorFormValidator
+            throw new WebAuthnSampleBusinessException("Authenticator has not been verified.");
+        }
+        RegistrationData registrationData = registrationContext.getVerifiedRegistrationData();
+        AttestationObject attestationObject = registrationData.getAttestationObject();
+        AuthenticatorData<RegistrationExtensionAuthenticatorOutput> authenticatorData = attestationObject.getAuthenticatorData();
         CredentialRecordEntity authenticatorEntity = new CredentialRecordEntity();
         authenticatorEntity.setName(authenticatorForm.getName());
-        authenticatorEntity.setClientData(authenticatorForm.getClientData().getCollectedClientData());
-        authenticatorEntity.setUvInitialized(authenticatorForm.getAttestationObject().getAttestationObject().getAuthenticatorData().isFlagUV());
-        authenticatorEntity.setBackupEligible(authenticatorForm.getAttestationObject().getAttestationObject().getAuthenticatorData().isFlagBE());
-        authenticatorEntity.setBackedUp(authenticatorForm.getAttestationObject().getAttestationObject().getAuthenticatorData().isFlagBS());
-        authenticatorEntity.setAttestationStatement(authenticatorForm.getAttestationObject().getAttestationObject().getAttestationStatement());
-        authenticatorEntity.setAttestedCredentialData(authenticatorForm.getAttestationObject().getAttestationObject().getAuthenticatorData().getAttestedCredentialData());
+        authenticatorEntity.setClientData(registrationData.getCollectedClientData());
+        authenticatorEntity.setUvInitialized(authenticatorData.isFlagUV());
+        authenticatorEntity.setBackupEligible(authenticatorData.isFlagBE());
+        authenticatorEntity.setBackedUp(authenticatorData.isFlagBS());
+        authenticatorEntity.setAttestationStatement(attestationObject.getAttestationStatement());
+        authenticatorEntity.setAttestedCredentialData(authenticatorData.getAttestedCredentialData());
+        authenticatorEntity.setTransports(registrationData.getTransports());
+        authenticatorEntity.setClientExtensions(registrationData.getClientExtensions());
+        authenticatorEntity.setAuthenticatorExtensions(authenticatorData.getExtensions());
         return authenticatorEntity;
     }
 
@@ -98,9 +149,9 @@ public class AppSpecificMapper {
         // authorities
         List<AuthorityEntity> authorities = new ArrayList<>();
         if(profileCreateForm.isSingleFactorAuthenticationAllowed() == true){
-            authorities.add(new AuthorityEntity(null, "SINGLE_FACTOR_AUTHN_ALLOWED"));
+            authorities.add(authorityRegistry.getAuthority("SINGLE_FACTOR_AUTHN_ALLOWED"));
         }
-        userEntity.setAuthorities(authorities);
+        userEntity.setAuthorityEntities(authorities);
 
         return userEntity;
     }
@@ -117,13 +168,13 @@ public class AppSpecificMapper {
         userEntity.getCredentialRecords().forEach(authenticatorEntity -> authenticatorEntity.setUser(userEntity));
 
         // authorities
-        List<AuthorityEntity> authorities = userEntity.getAuthorities();
+        List<AuthorityEntity> authorities = userEntity.getAuthorityEntities();
         if(profileUpdateForm.isSingleFactorAuthenticationAllowed() == true){
             if(authorities.stream().anyMatch(authorityEntity -> authorityEntity.getAuthority().equals("SINGLE_FACTOR_AUTHN_ALLOWED"))){
                 //nop
             }
             else {
-                authorities.add(new AuthorityEntity(null, "SINGLE_FACTOR_AUTHN_ALLOWED"));
+                authorities.add(authorityRegistry.getAuthority("SINGLE_FACTOR_AUTHN_ALLOWED"));
             }
         }
         else {
@@ -18,9 +18,12 @@ package com.webauthn4j.springframework.security.webauthn.sample.app.util.jackson
 
 import tools.jackson.core.JsonParser;
 import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ObjectReader;
 import tools.jackson.databind.deser.std.StdDeserializer;
-import com.webauthn4j.springframework.security.converter.Base64UrlStringToAttestationObjectConverter;
+import com.webauthn4j.data.attestation.AttestationObject;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.AttestationObjectForm;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+import com.webauthn4j.util.Base64UrlUtil;
 import org.springframework.stereotype.Component;
 
 /**
@@ -29,17 +32,17 @@ import org.springframework.stereotype.Component;
 @Component
 public class AuthenticatorObjectFormDeserializer extends StdDeserializer<AttestationObjectForm> {
 
-    private final Base64UrlStringToAttestationObjectConverter base64UrlStringToAttestationObjectConverter;
+    private final ObjectReader reader;
 
     @SuppressWarnings("unused")
     public AuthenticatorObjectFormDeserializer() {
         super(AttestationObjectForm.class);
-        this.base64UrlStringToAttestationObjectConverter = com.webauthn4j.springframework.security.webauthn.sample.app.config.ApplicationContextHolder.getBean(Base64UrlStringToAttestationObjectConverter.class);
+        this.reader = com.webauthn4j.springframework.security.webauthn.sample.app.config.ApplicationContextHolder.getBean(ObjectCodecRegistry.class).cborReader(AttestationObject.class);
     }
 
-    public AuthenticatorObjectFormDeserializer(Base64UrlStringToAttestationObjectConverter base64UrlStringToAttestationObjectConverter) {
+    public AuthenticatorObjectFormDeserializer(ObjectCodecRegistry objectCodecRegistry) {
         super(AttestationObjectForm.class);
-        this.base64UrlStringToAttestationObjectConverter = base64UrlStringToAttestationObjectConverter;
+        this.reader = objectCodecRegistry.cborReader(AttestationObject.class);
     }
 
     /**
@@ -48,9 +51,11 @@ public class AuthenticatorObjectFormDeserializer extends StdDeserializer<Attesta
     @Override
     public AttestationObjectForm deserialize(JsonParser p, DeserializationContext ctxt) {
         String value = p.getValueAsString();
+        byte[] bytes = Base64UrlUtil.decode(value);
         AttestationObjectForm result = new AttestationObjectForm();
-        result.setAttestationObject(base64UrlStringToAttestationObjectConverter.convert(value));
+        result.setAttestationObject(reader.readValue(bytes));
         result.setAttestationObjectBase64(value);
+        result.setAttestationObjectBytes(bytes);
         return result;
     }
 }
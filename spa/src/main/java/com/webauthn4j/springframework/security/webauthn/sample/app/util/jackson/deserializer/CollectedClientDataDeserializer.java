@@ -18,9 +18,12 @@ package com.webauthn4j.springframework.security.webauthn.sample.app.util.jackson
 
 import tools.jackson.core.JsonParser;
 import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ObjectReader;
 import tools.jackson.databind.deser.std.StdDeserializer;
-import com.webauthn4j.springframework.security.converter.Base64UrlStringToCollectedClientDataConverter;
+import com.webauthn4j.data.client.CollectedClientData;
 import com.webauthn4j.springframework.security.webauthn.sample.app.api.CollectedClientDataForm;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+import com.webauthn4j.util.Base64UrlUtil;
 import org.springframework.stereotype.Component;
 
 /**
@@ -29,17 +32,17 @@ import org.springframework.stereotype.Component;
 @Component
 public class CollectedClientDataDeserializer extends StdDeserializer<CollectedClientDataForm> {
 
-    private final Base64UrlStringToCollectedClientDataConverter base64UrlStringToCollectedClientDataConverter;
+    private final ObjectReader reader;
 
     @SuppressWarnings("unused")
     public CollectedClientDataDeserializer() {
         super(CollectedClientDataForm.class);
-        this.base64UrlStringToCollectedClientDataConverter = com.webauthn4j.springframework.security.webauthn.sample.app.config.ApplicationContextHolder.getBean(Base64UrlStringToCollectedClientDataConverter.class);
+        this.reader = com.webauthn4j.springframework.security.webauthn.sample.app.config.ApplicationContextHolder.getBean(ObjectCodecRegistry.class).jsonReader(CollectedClientData.class);
     }
 
-    public CollectedClientDataDeserializer(Base64UrlStringToCollectedClientDataConverter base64UrlStringToCollectedClientDataConverter) {
+    public CollectedClientDataDeserializer(ObjectCodecRegistry objectCodecRegistry) {
         super(CollectedClientDataForm.class);
-        this.base64UrlStringToCollectedClientDataConverter = base64UrlStringToCollectedClientDataConverter;
+        this.reader = objectCodecRegistry.jsonReader(CollectedClientData.class);
     }
 
     /**
@@ -48,9 +51,11 @@ public class CollectedClientDataDeserializer extends StdDeserializer<CollectedCl
     @Override
     public CollectedClientDataForm deserialize(JsonParser p, DeserializationContext ctxt) {
         String value = p.getValueAsString();
+        byte[] bytes = Base64UrlUtil.decode(value);
         CollectedClientDataForm result = new CollectedClientDataForm();
-        result.setCollectedClientData(base64UrlStringToCollectedClientDataConverter.convert(value));
+        result.setCollectedClientData(reader.readValue(bytes));
         result.setClientDataBase64(value);
+        result.setClientDataBytes(bytes);
         return result;
     }
 }
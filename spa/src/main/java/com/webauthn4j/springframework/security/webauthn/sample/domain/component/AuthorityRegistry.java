@@ -0,0 +1,213 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.AuthorityEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.exception.WebAuthnSampleEntityNotFoundException;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.AuthorityEntityRepository;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.UserEntityRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the canonical authorities. Authorities are loaded once and cached in memory, and users share
+ * the same immutable authority set as long as they are granted the same authorities. The sets hold one interned
+ * {@link SimpleGrantedAuthority} per authority name instead of the entities, so that principals kept in the sessions
+ * don't retain the persistence context's objects.
+ * <p>
+ * The built-in authorities are created and the registry is loaded at startup, outside any caller's transaction.
+ * Afterwards the registry never writes: an authority unknown to it is looked up again in the caller's transaction,
+ * so that only one connection is held at a time.
+ * <p>
+ * Authority ids granted to each user are cached, so that a login doesn't query the user and group relations.
+ * Entries are evicted when the user is updated or deleted, and expire after a while, because group authorities
+ * can be changed behind the registry's back.
+ */
+@Component
+public class AuthorityRegistry implements SmartInitializingSingleton {
+
+    /**
+     * authorities the application refers to by name, which are also loaded by the V0_0_1 migration
+     */
+    static final List<String> BUILT_IN_AUTHORITIES = Collections.unmodifiableList(Arrays.asList("ROLE_ADMIN", "ROLE_ACTUATOR", "SINGLE_FACTOR_AUTHN_ALLOWED"));
+
+    private final AuthorityEntityRepository authorityEntityRepository;
+    private final UserEntityRepository userEntityRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<Integer, List<Integer>> authorityIdsByUserId = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    private volatile Authorities authorities;
+
+    public AuthorityRegistry(AuthorityEntityRepository authorityEntityRepository, UserEntityRepository userEntityRepository, PlatformTransactionManager transactionManager) {
+        this.authorityEntityRepository = authorityEntityRepository;
+        this.userEntityRepository = userEntityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * create the missing built-in authorities and load the registry
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        Set<String> existing = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> authorityEntityRepository.findAll().forEach(authorityEntity -> existing.add(authorityEntity.getAuthority())));
+        for (String authority : BUILT_IN_AUTHORITIES) {
+            if (existing.contains(authority)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> authorityEntityRepository.saveAndFlush(new AuthorityEntity(null, authority)));
+            } catch (DataIntegrityViolationException e) {
+                // created concurrently by another node
+            }
+        }
+        reload();
+        getAuthorities();
+    }
+
+    /**
+     * return the canonical authority
+     *
+     * @param authority authority name
+     * @return canonical authority
+     */
+    public AuthorityEntity getAuthority(String authority) {
+        AuthorityEntity authorityEntity = getAuthorities().byName.get(authority);
+        if (authorityEntity != null) {
+            return authorityEntity;
+        }
+        // an authority may be added after the registry is loaded
+        reload();
+        authorityEntity = getAuthorities().byName.get(authority);
+        if (authorityEntity == null) {
+            throw new WebAuthnSampleEntityNotFoundException(String.format("Authority '%s' is not found.", authority));
+        }
+        return authorityEntity;
+    }
+
+    /**
+     * resolve the authorities granted to the user, including the ones inherited from the groups
+     *
+     * @param userId user id
+     * @return immutable set of the interned authorities
+     */
+    public Set<GrantedAuthority> resolveAuthorities(int userId) {
+        List<Integer> authorityIds = authorityIdsByUserId.get(userId, this::loadAuthorityIds);
+        Authorities current = getAuthorities();
+        if (!current.grantedById.keySet().containsAll(authorityIds)) {
+            // an authority is added after the registry is loaded
+            reload();
+            current = getAuthorities();
+        }
+        Authorities registry = current;
+        return registry.sets.computeIfAbsent(authorityIds, ids -> {
+            Set<GrantedAuthority> set = new LinkedHashSet<>();
+            for (Integer id : ids) {
+                GrantedAuthority grantedAuthority = registry.grantedById.get(id);
+                if (grantedAuthority == null) {
+                    throw new WebAuthnSampleEntityNotFoundException(String.format("Authority '%d' is not found.", id));
+                }
+                set.add(grantedAuthority);
+            }
+            return Collections.unmodifiableSet(set);
+        });
+    }
+
+    /**
+     * evict the cached authority ids of the user. They are evicted again after commit, so that a concurrent login
+     * cannot re-populate the entry with the relations before the commit.
+     *
+     * @param userId user id
+     */
+    public void evictUser(int userId) {
+        authorityIdsByUserId.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    authorityIdsByUserId.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * discard the cached authorities. They are reloaded on the next access.
+     */
+    public void reload() {
+        authorities = null;
+    }
+
+    private List<Integer> loadAuthorityIds(int userId) {
+        List<Integer> authorityIds = new ArrayList<>(userEntityRepository.findAllAuthorityIdsByUserId(userId));
+        Collections.sort(authorityIds);
+        return Collections.unmodifiableList(authorityIds);
+    }
+
+    private Authorities getAuthorities() {
+        Authorities current = authorities;
+        if (current == null) {
+            synchronized (this) {
+                current = authorities;
+                if (current == null) {
+                    // joins the caller's transaction if any, instead of holding a second connection
+                    current = transactionTemplate.execute(status -> new Authorities(authorityEntityRepository.findAll()));
+                    authorities = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static class Authorities {
+
+        private final Map<Integer, GrantedAuthority> grantedById;
+        private final Map<String, AuthorityEntity> byName;
+        private final Map<List<Integer>, Set<GrantedAuthority>> sets = new ConcurrentHashMap<>();
+
+        Authorities(List<AuthorityEntity> authorityEntities) {
+            Map<Integer, GrantedAuthority> idMap = new HashMap<>();
+            Map<String, AuthorityEntity> nameMap = new HashMap<>();
+            Map<String, GrantedAuthority> interned = new HashMap<>();
+            for (AuthorityEntity authorityEntity : authorityEntities) {
+                String authority = authorityEntity.getAuthority();
+                // duplicated names share one instance
+                idMap.put(authorityEntity.getId(), interned.computeIfAbsent(authority, SimpleGrantedAuthority::new));
+                nameMap.putIfAbsent(authority, authorityEntity);
+            }
+            this.grantedById = Collections.unmodifiableMap(idMap);
+            this.byName = Collections.unmodifiableMap(nameMap);
+        }
+    }
+}
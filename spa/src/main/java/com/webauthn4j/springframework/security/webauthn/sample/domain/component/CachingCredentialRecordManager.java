@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecord;
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordService;
+import com.webauthn4j.springframework.security.exception.CredentialIdNotFoundException;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+
+import java.util.List;
+
+/**
+ * {@link WebAuthnCredentialRecordService} decorator which serves credential lookups from {@link CredentialRecordCache}.
+ * Counter updates are written through to the delegate and then reflected to the cache.
+ */
+public class CachingCredentialRecordManager implements WebAuthnCredentialRecordService {
+
+    private final WebAuthnCredentialRecordService delegate;
+    private final CredentialRecordCache credentialRecordCache;
+
+    public CachingCredentialRecordManager(WebAuthnCredentialRecordService delegate, CredentialRecordCache credentialRecordCache) {
+        this.delegate = delegate;
+        this.credentialRecordCache = credentialRecordCache;
+    }
+
+    @Override
+    public void updateCounter(byte[] credentialId, long counter) throws CredentialIdNotFoundException {
+        delegate.updateCounter(credentialId, counter);
+        credentialRecordCache.updateCounter(credentialId, counter);
+    }
+
+    @Override
+    public WebAuthnCredentialRecord loadCredentialRecordByCredentialId(byte[] credentialId) {
+        return credentialRecordCache.get(credentialId,
+                key -> CredentialRecordSnapshot.of((CredentialRecordEntity) delegate.loadCredentialRecordByCredentialId(key)));
+    }
+
+    @Override
+    public List<WebAuthnCredentialRecord> loadCredentialRecordsByUserPrincipal(Object principal) {
+        return delegate.loadCredentialRecordsByUserPrincipal(principal);
+    }
+}
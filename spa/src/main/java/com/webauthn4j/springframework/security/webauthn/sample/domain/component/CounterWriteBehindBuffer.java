@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.CredentialRecordCounterRepository;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.ByteArrayKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer of signature counters. The highest counter per credential is held in memory, and flushed to
+ * the database in JDBC batches periodically, when the number of pending credentials reaches the threshold, and on
+ * graceful shutdown. Counters are lost if the process is killed before a flush.
+ */
+public class CounterWriteBehindBuffer implements SmartLifecycle {
+
+    private final Logger logger = LoggerFactory.getLogger(CounterWriteBehindBuffer.class);
+
+    private final CredentialRecordCounterRepository credentialRecordCounterRepository;
+    private final Duration flushInterval;
+    private final int flushThreshold;
+
+    private final ConcurrentMap<ByteArrayKey, Long> pendingCounters = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * constructor
+     *
+     * @param credentialRecordCounterRepository repository to flush the counters
+     * @param flushInterval                     interval between periodic flushes
+     * @param flushThreshold                    number of pending credentials which triggers a flush. Also used as the JDBC batch size
+     */
+    public CounterWriteBehindBuffer(CredentialRecordCounterRepository credentialRecordCounterRepository, Duration flushInterval, int flushThreshold) {
+        this.credentialRecordCounterRepository = credentialRecordCounterRepository;
+        this.flushInterval = flushInterval;
+        this.flushThreshold = flushThreshold;
+    }
+
+    /**
+     * offer a new counter value
+     *
+     * @param credentialId credential ID
+     * @param counter      counter value
+     * @return true if the value is greater than the pending one, false if it doesn't increase
+     */
+    public boolean offer(byte[] credentialId, long counter) {
+        boolean[] increased = new boolean[1];
+        pendingCounters.compute(new ByteArrayKey(credentialId), (key, pending) -> {
+            if (pending == null || pending < counter) {
+                increased[0] = true;
+                return counter;
+            }
+            return pending;
+        });
+        ScheduledExecutorService currentScheduler = scheduler;
+        if (pendingCounters.size() >= flushThreshold && currentScheduler != null && flushRequested.compareAndSet(false, true)) {
+            try {
+                currentScheduler.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // shutting down. pending counters are flushed by stop()
+                flushRequested.set(false);
+            }
+        }
+        return increased[0];
+    }
+
+    /**
+     * return the pending counter value which is not flushed yet
+     *
+     * @param credentialId credential ID
+     * @return pending counter value, or -1 if nothing is pending
+     */
+    public long getPendingCounter(byte[] credentialId) {
+        Long pending = pendingCounters.get(new ByteArrayKey(credentialId));
+        return pending == null ? -1 : pending;
+    }
+
+    /**
+     * return the number of credentials whose counter is pending
+     *
+     * @return the number of pending credentials
+     */
+    public int getPendingCount() {
+        return pendingCounters.size();
+    }
+
+    /**
+     * flush pending counters to the database
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            if (pendingCounters.isEmpty()) {
+                return;
+            }
+            Map<ByteArrayKey, Long> snapshot = new HashMap<>(pendingCounters);
+            credentialRecordCounterRepository.batchUpdateCounters(snapshot, flushThreshold);
+            // keep the values which are increased during the flush for the next one
+            snapshot.forEach(pendingCounters::remove);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush signature counters. They are retried on the next flush.", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService newScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "counter-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        newScheduler.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        scheduler = newScheduler;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService currentScheduler = scheduler;
+        scheduler = null;
+        if (currentScheduler != null) {
+            currentScheduler.shutdown();
+            try {
+                if (!currentScheduler.awaitTermination(flushInterval.toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Signature counter flush did not finish in time.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.ByteArrayKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of {@link CredentialRecordSnapshot} keyed by credential ID.
+ * <p>
+ * Cached snapshots never leave the cache: lookups return a copy, so that the verification state the caller updates
+ * after an assertion doesn't leak into other logins. Credential IDs are also indexed by user, so that the credentials
+ * of a user can be evicted without scanning the cache.
+ */
+public class CredentialRecordCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "credentialRecords";
+
+    private final Cache<ByteArrayKey, CredentialRecordSnapshot> cache;
+
+    private final ConcurrentMap<Integer, Set<ByteArrayKey>> keysByUserId = new ConcurrentHashMap<>();
+
+    public CredentialRecordCache(long maximumSize, Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .evictionListener((ByteArrayKey key, CredentialRecordSnapshot snapshot, RemovalCause cause) -> unindex(key, snapshot))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * return a copy of the cached snapshot, or load and cache it if absent
+     *
+     * @param credentialId credential ID
+     * @param loader loader invoked on cache miss
+     * @return snapshot
+     */
+    public CredentialRecordSnapshot get(byte[] credentialId, Function<byte[], CredentialRecordSnapshot> loader) {
+        return cache.get(new ByteArrayKey(credentialId), key -> {
+            CredentialRecordSnapshot snapshot = loader.apply(key.getValue());
+            if (snapshot.getUserId() != null) {
+                keysByUserId.computeIfAbsent(snapshot.getUserId(), userId -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+            return snapshot;
+        }).copy();
+    }
+
+    /**
+     * update the counter of the cached snapshot if it is present. The counter never decreases.
+     *
+     * @param credentialId credential ID
+     * @param counter counter
+     */
+    public void updateCounter(byte[] credentialId, long counter) {
+        cache.asMap().computeIfPresent(new ByteArrayKey(credentialId),
+                (key, snapshot) -> snapshot.getCounter() < counter ? snapshot.withCounter(counter) : snapshot);
+    }
+
+    /**
+     * evict snapshots of credentials owned by the specified user
+     *
+     * @param userId userId
+     */
+    public void evictByUserId(int userId) {
+        runNowAndAfterCommit(() -> {
+            Set<ByteArrayKey> keys = keysByUserId.remove(userId);
+            if (keys != null) {
+                cache.invalidateAll(keys);
+            }
+        });
+    }
+
+    /**
+     * return hit/miss/eviction statistics
+     *
+     * @return statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private void unindex(ByteArrayKey key, CredentialRecordSnapshot snapshot) {
+        if (snapshot == null || snapshot.getUserId() == null) {
+            return;
+        }
+        keysByUserId.computeIfPresent(snapshot.getUserId(), (userId, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Evicts immediately, and again after commit so that a concurrent load cannot re-populate a stale entry
+     * before the transaction is committed.
+     */
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.statement.AttestationStatement;
+import com.webauthn4j.data.client.CollectedClientData;
+import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
+import com.webauthn4j.data.extension.authenticator.RegistrationExtensionAuthenticatorOutput;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecord;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+
+/**
+ * Lightweight {@link WebAuthnCredentialRecord} built from a projection of the credential record columns.
+ * It is used to build allowCredentials and excludeCredentials of the options, so neither the user entity
+ * nor the registration artifacts (attestation statement, client data and extension outputs) are loaded.
+ * <p>
+ * The descriptor carries the username it was looked up by. {@link #getUserPrincipal()} returns the principal of the
+ * authentication it was looked up for, if that is a {@link UserDetails}, and otherwise throws
+ * {@link UnsupportedOperationException}, since loading the user would defeat the projection.
+ * Load the record by credential ID when the user principal is needed.
+ */
+public class CredentialRecordDescriptor implements WebAuthnCredentialRecord {
+
+    private final String username;
+    private final UserDetails userPrincipal;
+    private final AttestedCredentialData attestedCredentialData;
+    private final Set<AuthenticatorTransport> transports;
+    private long counter;
+    private boolean uvInitialized;
+    private boolean backupEligible;
+    private boolean backedUp;
+
+    public CredentialRecordDescriptor(String username, UserDetails userPrincipal,
+                                      AttestedCredentialData attestedCredentialData, Set<AuthenticatorTransport> transports,
+                                      long counter, boolean uvInitialized, boolean backupEligible, boolean backedUp) {
+        this.username = username;
+        this.userPrincipal = userPrincipal;
+        this.attestedCredentialData = attestedCredentialData;
+        this.transports = transports;
+        this.counter = counter;
+        this.uvInitialized = uvInitialized;
+        this.backupEligible = backupEligible;
+        this.backedUp = backedUp;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return the principal of the authentication the descriptor was looked up for
+     * @throws UnsupportedOperationException if the descriptor was looked up by username only
+     */
+    @Override
+    public UserDetails getUserPrincipal() {
+        if (userPrincipal == null) {
+            throw new UnsupportedOperationException("The user principal of '" + username + "' is not loaded with the credential descriptor. Load the credential record by credential ID instead.");
+        }
+        return userPrincipal;
+    }
+
+    @Override
+    public AttestedCredentialData getAttestedCredentialData() {
+        return attestedCredentialData;
+    }
+
+    @Override
+    public AttestationStatement getAttestationStatement() {
+        return null;
+    }
+
+    @Override
+    public long getCounter() {
+        return counter;
+    }
+
+    @Override
+    public void setCounter(long value) {
+        this.counter = value;
+    }
+
+    @Override
+    public Set<AuthenticatorTransport> getTransports() {
+        return transports;
+    }
+
+    @Override
+    public CollectedClientData getClientData() {
+        return null;
+    }
+
+    @Override
+    public AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> getClientExtensions() {
+        return null;
+    }
+
+    @Override
+    public AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput> getAuthenticatorExtensions() {
+        return null;
+    }
+
+    @Override
+    public Boolean isUvInitialized() {
+        return uvInitialized;
+    }
+
+    @Override
+    public void setUvInitialized(boolean value) {
+        this.uvInitialized = value;
+    }
+
+    @Override
+    public Boolean isBackupEligible() {
+        return backupEligible;
+    }
+
+    @Override
+    public void setBackupEligible(boolean value) {
+        this.backupEligible = value;
+    }
+
+    @Override
+    public Boolean isBackedUp() {
+        return backedUp;
+    }
+
+    @Override
+    public void setBackedUp(boolean value) {
+        this.backedUp = value;
+    }
+}
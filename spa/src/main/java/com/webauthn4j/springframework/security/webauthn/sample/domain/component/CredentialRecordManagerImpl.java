@@ -16,20 +16,23 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
 
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecord;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordService;
 import com.webauthn4j.springframework.security.exception.CredentialIdNotFoundException;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.AuthenticatorEntityRepository;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.AuthenticatorTransportBitmask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 @Transactional
 @Component
@@ -39,26 +42,44 @@ public class CredentialRecordManagerImpl implements WebAuthnCredentialRecordServ
 
     private final AuthenticatorEntityRepository authenticatorEntityRepository;
 
-    public CredentialRecordManagerImpl(AuthenticatorEntityRepository authenticatorEntityRepository) {
+    private final AuthorityRegistry authorityRegistry;
+
+    public CredentialRecordManagerImpl(AuthenticatorEntityRepository authenticatorEntityRepository, AuthorityRegistry authorityRegistry) {
         this.authenticatorEntityRepository = authenticatorEntityRepository;
+        this.authorityRegistry = authorityRegistry;
     }
 
     @Override
     public void updateCounter(byte[] credentialId, long counter) throws CredentialIdNotFoundException {
-        CredentialRecordEntity authenticatorEntity = authenticatorEntityRepository.findOneByCredentialId(credentialId)
-                .orElseThrow(() -> new CredentialIdNotFoundException("AuthenticatorEntity not found"));
-        authenticatorEntity.setCounter(counter);
+        // authenticators which don't implement a signature counter always report 0, so there is nothing to persist
+        if (counter == 0) {
+            return;
+        }
+        int updatedCount = authenticatorEntityRepository.updateCounter(credentialId, counter);
+        if (updatedCount == 0) {
+            if (!authenticatorEntityRepository.findOneByCredentialId(credentialId).isPresent()) {
+                throw new CredentialIdNotFoundException("AuthenticatorEntity not found");
+            }
+            // stored counter is already equal to or greater than the new value
+            logger.warn("Signature counter is not increased. The authenticator may be cloned.");
+        }
     }
 
+    @Transactional(readOnly = true)
     @Override
     public WebAuthnCredentialRecord loadCredentialRecordByCredentialId(byte[] credentialId) {
-        return authenticatorEntityRepository.findOneByCredentialId(credentialId)
+        CredentialRecordEntity credentialRecordEntity = authenticatorEntityRepository.findOneByCredentialId(credentialId)
                 .orElseThrow(() -> new CredentialIdNotFoundException("AuthenticatorEntity not found"));
+        UserEntity userEntity = credentialRecordEntity.getUser();
+        userEntity.setGrantedAuthorities(authorityRegistry.resolveAuthorities(userEntity.getId()));
+        return credentialRecordEntity;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<WebAuthnCredentialRecord> loadCredentialRecordsByUserPrincipal(Object principal) {
         String username;
+        UserDetails userPrincipal = null;
         if(principal == null){
             return Collections.emptyList();
         }
@@ -67,10 +88,21 @@ public class CredentialRecordManagerImpl implements WebAuthnCredentialRecordServ
         }
         else if(principal instanceof Authentication){
             username = ((Authentication) principal).getName();
+            if (((Authentication) principal).getPrincipal() instanceof UserDetails) {
+                userPrincipal = (UserDetails) ((Authentication) principal).getPrincipal();
+            }
         }
         else {
             throw new IllegalArgumentException("unexpected principal is specified.");
         }
-        return new ArrayList<>(authenticatorEntityRepository.findAllByEmailAddress(username));
+        // the records are used to build allowCredentials and excludeCredentials, so the user graph isn't loaded
+        List<WebAuthnCredentialRecord> credentialRecords = new ArrayList<>();
+        for (AuthenticatorEntityRepository.CredentialDescriptorView view : authenticatorEntityRepository.findAllCredentialDescriptorsByEmailAddress(username)) {
+            Set<AuthenticatorTransport> transports = AuthenticatorTransportBitmask.decode(view.getTransportsBitmask(), view.getTransportsOverflow());
+            credentialRecords.add(new CredentialRecordDescriptor(username, userPrincipal,
+                    new AttestedCredentialData(view.getAaguid(), view.getCredentialId(), view.getCoseKey()),
+                    transports, view.getCounter(), view.isUvInitialized(), view.isBackupEligible(), view.isBackedUp()));
+        }
+        return credentialRecords;
     }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.statement.AttestationStatement;
+import com.webauthn4j.data.client.CollectedClientData;
+import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
+import com.webauthn4j.data.extension.authenticator.RegistrationExtensionAuthenticatorOutput;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecord;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+
+/**
+ * Snapshot of {@link CredentialRecordEntity} which holds the attributes needed for authentication.
+ * Registration artifacts (attestation statement, client data and extension outputs) are not captured,
+ * and the user is captured as a {@link LoginUser} instead of the entity graph.
+ * <p>
+ * The verification state (counter, UV initialized and backup flags) is updated by webauthn4j after an assertion,
+ * so {@link CredentialRecordCache} hands out copies and only persisted updates are reflected to the cached instance.
+ * The JCA public key is built once per snapshot and shared by its copies, so it lives as long as the cache entry.
+ */
+public class CredentialRecordSnapshot implements WebAuthnCredentialRecord {
+
+    private final Integer userId;
+    private final UserDetails userPrincipal;
+    private final AttestedCredentialData attestedCredentialData;
+    private final Set<AuthenticatorTransport> transports;
+    private long counter;
+    private boolean uvInitialized;
+    private boolean backupEligible;
+    private boolean backedUp;
+
+    private CredentialRecordSnapshot(Integer userId, UserDetails userPrincipal, AttestedCredentialData attestedCredentialData,
+                                     Set<AuthenticatorTransport> transports, long counter,
+                                     boolean uvInitialized, boolean backupEligible, boolean backedUp) {
+        this.userId = userId;
+        this.userPrincipal = userPrincipal;
+        this.attestedCredentialData = attestedCredentialData;
+        this.transports = transports;
+        this.counter = counter;
+        this.uvInitialized = uvInitialized;
+        this.backupEligible = backupEligible;
+        this.backedUp = backedUp;
+    }
+
+    public static CredentialRecordSnapshot of(CredentialRecordEntity entity) {
+        return new CredentialRecordSnapshot(
+                entity.getUser() == null ? null : entity.getUser().getId(),
+                entity.getUser() == null ? null : LoginUser.of(entity.getUser()),
+                cachePublicKey(entity.getAttestedCredentialData()),
+                entity.getTransports(),
+                entity.getCounter(),
+                entity.isUvInitialized(),
+                entity.isBackupEligible(),
+                entity.isBackedUp());
+    }
+
+    private static AttestedCredentialData cachePublicKey(AttestedCredentialData attestedCredentialData) {
+        if (attestedCredentialData == null || attestedCredentialData.getCOSEKey() == null) {
+            return attestedCredentialData;
+        }
+        return new AttestedCredentialData(attestedCredentialData.getAaguid(), attestedCredentialData.getCredentialId(),
+                new PublicKeyCachingCOSEKey(attestedCredentialData.getCOSEKey()));
+    }
+
+    /**
+     * return a copy with the specified counter
+     *
+     * @param counter counter
+     * @return snapshot
+     */
+    public CredentialRecordSnapshot withCounter(long counter) {
+        return new CredentialRecordSnapshot(userId, userPrincipal, attestedCredentialData, transports, counter, uvInitialized, backupEligible, backedUp);
+    }
+
+    /**
+     * return a copy whose verification state can be updated independently
+     *
+     * @return snapshot
+     */
+    public CredentialRecordSnapshot copy() {
+        return withCounter(counter);
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    @Override
+    public UserDetails getUserPrincipal() {
+        return userPrincipal;
+    }
+
+    @Override
+    public AttestedCredentialData getAttestedCredentialData() {
+        return attestedCredentialData;
+    }
+
+    @Override
+    public AttestationStatement getAttestationStatement() {
+        return null;
+    }
+
+    @Override
+    public long getCounter() {
+        return counter;
+    }
+
+    @Override
+    public void setCounter(long value) {
+        this.counter = value;
+    }
+
+    @Override
+    public Set<AuthenticatorTransport> getTransports() {
+        return transports;
+    }
+
+    @Override
+    public CollectedClientData getClientData() {
+        return null;
+    }
+
+    @Override
+    public AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> getClientExtensions() {
+        return null;
+    }
+
+    @Override
+    public AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput> getAuthenticatorExtensions() {
+        return null;
+    }
+
+    @Override
+    public Boolean isUvInitialized() {
+        return uvInitialized;
+    }
+
+    @Override
+    public void setUvInitialized(boolean value) {
+        this.uvInitialized = value;
+    }
+
+    @Override
+    public Boolean isBackupEligible() {
+        return backupEligible;
+    }
+
+    @Override
+    public void setBackupEligible(boolean value) {
+        this.backupEligible = value;
+    }
+
+    @Override
+    public Boolean isBackedUp() {
+        return backedUp;
+    }
+
+    @Override
+    public void setBackedUp(boolean value) {
+        this.backedUp = value;
+    }
+}
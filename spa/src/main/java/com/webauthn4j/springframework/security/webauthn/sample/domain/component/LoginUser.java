@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable principal of an authenticated user, which is kept in the {@code SecurityContext} for the life of the login
+ * instead of the {@link UserEntity} graph. It only holds what authorization needs: the id, the username, the user handle
+ * and the authorities flattened from the user and its groups. The password is held until it is erased after authentication.
+ */
+public class LoginUser implements UserDetails, CredentialsContainer {
+
+    private final int id;
+    private final String username;
+    private final byte[] userHandle;
+    private final Set<GrantedAuthority> authorities;
+    private final boolean accountNonLocked;
+    private String password;
+
+    public LoginUser(int id, String username, byte[] userHandle, Set<GrantedAuthority> authorities, boolean accountNonLocked, String password) {
+        this.id = id;
+        this.username = username;
+        this.userHandle = userHandle == null ? null : userHandle.clone();
+        this.authorities = authorities;
+        this.accountNonLocked = accountNonLocked;
+        this.password = password;
+    }
+
+    /**
+     * create a principal from the user and its resolved authorities
+     *
+     * @param userEntity  user
+     * @param authorities immutable set of the authorities, which may be shared with other principals
+     * @return principal
+     */
+    public static LoginUser of(UserEntity userEntity, Set<GrantedAuthority> authorities) {
+        return new LoginUser(
+                userEntity.getId() == null ? 0 : userEntity.getId(),
+                userEntity.getUsername(),
+                userEntity.getUserHandle(),
+                authorities,
+                userEntity.isAccountNonLocked(),
+                userEntity.getPassword());
+    }
+
+    /**
+     * create a principal from the user with its precomputed authorities, or copies of its direct authorities if they
+     * are not resolved, so that the principal doesn't retain the entities
+     *
+     * @param userEntity user
+     * @return principal
+     */
+    public static LoginUser of(UserEntity userEntity) {
+        Set<GrantedAuthority> authorities = userEntity.getGrantedAuthorities();
+        if (authorities == null) {
+            Set<GrantedAuthority> copies = new LinkedHashSet<>();
+            for (GrantedAuthority authority : userEntity.getAuthorities()) {
+                copies.add(new SimpleGrantedAuthority(authority.getAuthority()));
+            }
+            authorities = Collections.unmodifiableSet(copies);
+        }
+        return of(userEntity, authorities);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public byte[] getUserHandle() {
+        return userHandle == null ? null : userHandle.clone();
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return id == ((LoginUser) o).id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
+    /**
+     * return String representation
+     */
+    @Override
+    public String toString() {
+        return username;
+    }
+}
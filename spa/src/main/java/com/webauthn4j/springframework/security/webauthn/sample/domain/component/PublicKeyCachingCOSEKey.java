@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.data.attestation.authenticator.COSEKey;
+import com.webauthn4j.data.attestation.authenticator.COSEKeyOperation;
+import com.webauthn4j.data.attestation.authenticator.COSEKeyType;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * {@link COSEKey} decorator which builds the JCA {@link PublicKey} of the delegate once, so that the assertions
+ * verified against a cached {@link CredentialRecordSnapshot} don't rebuild it every time.
+ */
+class PublicKeyCachingCOSEKey implements COSEKey {
+
+    private static final long serialVersionUID = 1L;
+
+    private final COSEKey delegate;
+    private transient volatile PublicKey publicKey;
+
+    PublicKeyCachingCOSEKey(COSEKey delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public PublicKey getPublicKey() {
+        PublicKey key = publicKey;
+        if (key == null) {
+            key = delegate.getPublicKey();
+            publicKey = key;
+        }
+        return key;
+    }
+
+    @Override
+    public COSEKeyType getKeyType() {
+        return delegate.getKeyType();
+    }
+
+    @Override
+    public byte[] getKeyId() {
+        return delegate.getKeyId();
+    }
+
+    @Override
+    public COSEAlgorithmIdentifier getAlgorithm() {
+        return delegate.getAlgorithm();
+    }
+
+    @Override
+    public List<COSEKeyOperation> getKeyOps() {
+        return delegate.getKeyOps();
+    }
+
+    @Override
+    public byte[] getBaseIV() {
+        return delegate.getBaseIV();
+    }
+
+    @Override
+    public PrivateKey getPrivateKey() {
+        return delegate.getPrivateKey();
+    }
+
+    @Override
+    public boolean hasPublicKey() {
+        return delegate.hasPublicKey();
+    }
+
+    @Override
+    public boolean hasPrivateKey() {
+        return delegate.hasPrivateKey();
+    }
+
+    @Override
+    public void validate() {
+        delegate.validate();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof PublicKeyCachingCOSEKey) {
+            return delegate.equals(((PublicKeyCachingCOSEKey) o).delegate);
+        }
+        return delegate.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+}
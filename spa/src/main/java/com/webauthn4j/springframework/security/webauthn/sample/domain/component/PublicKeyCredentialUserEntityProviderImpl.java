@@ -18,7 +18,6 @@ package com.webauthn4j.springframework.security.webauthn.sample.domain.component
 
 import com.webauthn4j.data.PublicKeyCredentialUserEntity;
 import com.webauthn4j.springframework.security.options.PublicKeyCredentialUserEntityProvider;
-import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
 import org.springframework.security.core.Authentication;
 
 public class PublicKeyCredentialUserEntityProviderImpl implements PublicKeyCredentialUserEntityProvider {
@@ -36,11 +35,11 @@ public class PublicKeyCredentialUserEntityProviderImpl implements PublicKeyCrede
         }
 
         String username = authentication.getName();
-        UserEntity userEntity = userManager.loadUserByUsername(username);
+        LoginUser loginUser = userManager.loadUserByUsername(username);
         return new PublicKeyCredentialUserEntity(
-                userEntity.getUserHandle(),
-                userEntity.getUsername(),
-                userEntity.getUsername()
+                loginUser.getUserHandle(),
+                loginUser.getUsername(),
+                loginUser.getUsername()
         );
     }
 }
@@ -26,7 +26,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
  */
 public interface UserManager extends UserDetailsService {
 
-    UserEntity loadUserByUsername(String username) throws UsernameNotFoundException;
+    LoginUser loadUserByUsername(String username) throws UsernameNotFoundException;
 
     /**
      * create a userEntity
@@ -35,14 +35,21 @@ public class UserManagerImpl implements UserManager {
 
     private final UserEntityRepository userEntityRepository;
 
+    private final CredentialRecordCache credentialRecordCache;
+
+    private final AuthorityRegistry authorityRegistry;
+
     @Autowired
-    public UserManagerImpl(UserEntityRepository userEntityRepository) {
+    public UserManagerImpl(UserEntityRepository userEntityRepository, CredentialRecordCache credentialRecordCache, AuthorityRegistry authorityRegistry) {
         this.userEntityRepository = userEntityRepository;
+        this.credentialRecordCache = credentialRecordCache;
+        this.authorityRegistry = authorityRegistry;
     }
 
     /**
      * {@inheritDoc}
      */
+    @Transactional(readOnly = true)
     @Override
     public UserEntity findById(int id) {
         return userEntityRepository.findById(id)
@@ -52,10 +59,12 @@ public class UserManagerImpl implements UserManager {
     /**
      * {@inheritDoc}
      */
+    @Transactional(readOnly = true)
     @Override
-    public UserEntity loadUserByUsername(String username) {
-        return userEntityRepository.findOneByEmailAddress(username)
+    public LoginUser loadUserByUsername(String username) {
+        UserEntity userEntity = userEntityRepository.findOneByEmailAddress(username)
                 .orElseThrow(() -> new PrincipalNotFoundException(String.format("UserEntity with username'%s' is not found.", username)));
+        return LoginUser.of(userEntity, authorityRegistry.resolveAuthorities(userEntity.getId()));
     }
 
     /**
@@ -78,6 +87,9 @@ public class UserManagerImpl implements UserManager {
         UserEntity userEntity = userEntityRepository.findById(user.getId())
                 .orElseThrow(() -> new WebAuthnSampleEntityNotFoundException("User not found"));
         userEntityRepository.save(userEntity);
+        // credentials and authorities may be modified through the profile update
+        credentialRecordCache.evictByUserId(userEntity.getId());
+        authorityRegistry.evictUser(userEntity.getId());
     }
 
     /**
@@ -88,6 +100,8 @@ public class UserManagerImpl implements UserManager {
         UserEntity userEntity = userEntityRepository.findOneByEmailAddress(username)
                 .orElseThrow(() -> new PrincipalNotFoundException(String.format("UserEntity with username'%s' is not found.", username)));
         userEntityRepository.delete(userEntity);
+        credentialRecordCache.evictByUserId(userEntity.getId());
+        authorityRegistry.evictUser(userEntity.getId());
     }
 
     /**
@@ -98,6 +112,8 @@ public class UserManagerImpl implements UserManager {
         userEntityRepository.findById(id)
                 .orElseThrow(() -> new WebAuthnSampleEntityNotFoundException("User not found"));
         userEntityRepository.deleteById(id);
+        credentialRecordCache.evictByUserId(id);
+        authorityRegistry.evictUser(id);
     }
 
     /**
@@ -105,21 +121,24 @@ public class UserManagerImpl implements UserManager {
      */
     @Override
     public void changePassword(String oldPassword, String newPassword) {
-        UserEntity currentUserEntity = getCurrentUser();
+        LoginUser currentUser = getCurrentUser();
 
-        if (currentUserEntity == null) {
+        if (currentUser == null) {
             // This would indicate bad coding somewhere
             throw new AccessDeniedException(
                     "Can't change rawPassword as no Authentication object found in context "
                             + "for current user.");
         }
 
-        currentUserEntity.setPassword(newPassword);
+        UserEntity userEntity = userEntityRepository.findById(currentUser.getId())
+                .orElseThrow(() -> new WebAuthnSampleEntityNotFoundException("User not found"));
+        userEntity.setPassword(newPassword);
     }
 
     /**
      * {@inheritDoc}
      */
+    @Transactional(readOnly = true)
     @Override
     public boolean userExists(String username) {
         return userEntityRepository.findOneByEmailAddress(username).isPresent();
@@ -130,8 +149,8 @@ public class UserManagerImpl implements UserManager {
      *
      * @return login user
      */
-    private UserEntity getCurrentUser() {
-        return (UserEntity) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    private LoginUser getCurrentUser() {
+        return (LoginUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
 
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecord;
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordService;
+import com.webauthn4j.springframework.security.exception.CredentialIdNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * {@link WebAuthnCredentialRecordService} decorator which defers signature counter updates to {@link CounterWriteBehindBuffer}.
+ * Loaded credential records reflect the pending counter, so that the counter check stays monotonic before the flush.
+ */
+public class WriteBehindCredentialRecordManager implements WebAuthnCredentialRecordService {
+
+    private final Logger logger = LoggerFactory.getLogger(WriteBehindCredentialRecordManager.class);
+
+    private final WebAuthnCredentialRecordService delegate;
+    private final CounterWriteBehindBuffer counterWriteBehindBuffer;
+
+    public WriteBehindCredentialRecordManager(WebAuthnCredentialRecordService delegate, CounterWriteBehindBuffer counterWriteBehindBuffer) {
+        this.delegate = delegate;
+        this.counterWriteBehindBuffer = counterWriteBehindBuffer;
+    }
+
+    @Override
+    public void updateCounter(byte[] credentialId, long counter) throws CredentialIdNotFoundException {
+        // authenticators which don't implement a signature counter always report 0, so there is nothing to persist
+        if (counter == 0) {
+            return;
+        }
+        if (!counterWriteBehindBuffer.offer(credentialId, counter)) {
+            logger.warn("Signature counter is not increased. The authenticator may be cloned.");
+        }
+    }
+
+    @Override
+    public WebAuthnCredentialRecord loadCredentialRecordByCredentialId(byte[] credentialId) {
+        WebAuthnCredentialRecord credentialRecord = delegate.loadCredentialRecordByCredentialId(credentialId);
+        long pendingCounter = counterWriteBehindBuffer.getPendingCounter(credentialId);
+        if (pendingCounter > credentialRecord.getCounter()) {
+            // the loaded entity is detached, so this is not persisted
+            credentialRecord.setCounter(pendingCounter);
+        }
+        return credentialRecord;
+    }
+
+    @Override
+    public List<WebAuthnCredentialRecord> loadCredentialRecordsByUserPrincipal(Object principal) {
+        return delegate.loadCredentialRecordsByUserPrincipal(principal);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Signature counter update settings
+ */
+@ConfigurationProperties(prefix = "sample.counter")
+public class CounterUpdateProperties {
+
+    /**
+     * strict writes each counter update synchronously. write-behind buffers them in memory and flushes in batches.
+     */
+    private Mode mode = Mode.STRICT;
+
+    /**
+     * interval between flushes in WRITE_BEHIND mode
+     */
+    private Duration flushInterval = Duration.ofMillis(500);
+
+    /**
+     * number of pending credentials which triggers a flush in WRITE_BEHIND mode
+     */
+    private int flushThreshold = 500;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    public void setFlushThreshold(int flushThreshold) {
+        this.flushThreshold = flushThreshold;
+    }
+
+    public enum Mode {
+        STRICT,
+        WRITE_BEHIND
+    }
+}
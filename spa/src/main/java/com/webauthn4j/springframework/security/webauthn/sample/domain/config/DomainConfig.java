@@ -16,14 +16,52 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.domain.config;
 
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordService;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.CachingCredentialRecordManager;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.CredentialRecordCache;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.CounterWriteBehindBuffer;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.CredentialRecordManagerImpl;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.WriteBehindCredentialRecordManager;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.AuthenticatorEntityRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
 
 /**
  * DomainConfig
  */
 @Configuration
+@EnableConfigurationProperties(CounterUpdateProperties.class)
 @ComponentScan("com.webauthn4j.springframework.security.webauthn.sample.domain")
 public class DomainConfig {
 
+    @Bean
+    public CredentialRecordCache credentialRecordCache() {
+        return new CredentialRecordCache(10_000, Duration.ofMinutes(10));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sample.counter", name = "mode", havingValue = "write-behind")
+    public CounterWriteBehindBuffer counterWriteBehindBuffer(AuthenticatorEntityRepository authenticatorEntityRepository, CounterUpdateProperties counterUpdateProperties) {
+        return new CounterWriteBehindBuffer(authenticatorEntityRepository, counterUpdateProperties.getFlushInterval(), counterUpdateProperties.getFlushThreshold());
+    }
+
+    @Bean
+    @Primary
+    public WebAuthnCredentialRecordService cachingCredentialRecordManager(CredentialRecordManagerImpl credentialRecordManagerImpl, CredentialRecordCache credentialRecordCache,
+                                                                          ObjectProvider<CounterWriteBehindBuffer> counterWriteBehindBufferProvider) {
+        WebAuthnCredentialRecordService delegate = credentialRecordManagerImpl;
+        CounterWriteBehindBuffer counterWriteBehindBuffer = counterWriteBehindBufferProvider.getIfAvailable();
+        if (counterWriteBehindBuffer != null) {
+            delegate = new WriteBehindCredentialRecordManager(credentialRecordManagerImpl, counterWriteBehindBuffer);
+        }
+        return new CachingCredentialRecordManager(delegate, credentialRecordCache);
+    }
+
 }
@@ -26,14 +26,15 @@ import java.util.List;
  */
 @SuppressWarnings("WeakerAccess")
 @Entity
-@Table(name = "m_authority")
+@Table(name = "m_authority", uniqueConstraints = @UniqueConstraint(name = "ux_authority_authority", columnNames = "authority"))
 public class AuthorityEntity implements GrantedAuthority {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "m_authority_seq")
+    @SequenceGenerator(name = "m_authority_seq", sequenceName = "m_authority_seq", allocationSize = 50)
     private Integer id;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "r_user_authority",
             joinColumns = {@JoinColumn(name = "authority_id", referencedColumnName = "id")},
@@ -41,7 +42,7 @@ public class AuthorityEntity implements GrantedAuthority {
     )
     private List<UserEntity> users;
 
-    @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinTable(
             name = "r_group_authority",
             joinColumns = {@JoinColumn(name = "authority_id", referencedColumnName = "id")},
@@ -25,6 +25,8 @@ import com.webauthn4j.data.extension.authenticator.RegistrationExtensionAuthenti
 import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
 import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
 import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecord;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.AuthenticatorTransportBitmask;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.CredentialIdDigestUtil;
 import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter.*;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -35,16 +37,25 @@ import java.util.Set;
  * Authenticator model
  */
 @Entity
-@Table(name = "m_credential_record")
+@Table(name = "m_credential_record", indexes = {
+        @Index(name = "ux_credential_record_credential_id_digest", columnList = "credential_id_digest", unique = true)
+})
+@NamedEntityGraph(name = CredentialRecordEntity.WEBAUTHN_LOGIN_GRAPH, attributeNodes = @NamedAttributeNode("user"))
 public class CredentialRecordEntity implements WebAuthnCredentialRecord {
 
+    /**
+     * entity graph for WebAuthn login, which needs the user to build the principal
+     */
+    public static final String WEBAUTHN_LOGIN_GRAPH = "CredentialRecordEntity.webAuthnLogin";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "m_credential_record_seq")
+    @SequenceGenerator(name = "m_credential_record_seq", sequenceName = "m_credential_record_seq", allocationSize = 50)
     private Integer id;
 
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity user;
 
     private long counter;
@@ -53,11 +64,17 @@ public class CredentialRecordEntity implements WebAuthnCredentialRecord {
     private boolean backupEligible;
     private boolean backedUp;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "m_transport", joinColumns = @JoinColumn(name = "credential_record_id"))
-    @Column(name = "transport")
-    @Convert(converter = AuthenticatorTransportConverter.class)
-    private Set<AuthenticatorTransport> transports;
+    /**
+     * bitmask of known transports. See {@link AuthenticatorTransportBitmask}
+     */
+    @Column(name = "transports")
+    private int transportsBitmask;
+
+    /**
+     * comma separated transports which are not covered by the bitmask
+     */
+    @Column(name = "transports_overflow")
+    private String transportsOverflow;
 
     @Embedded
     @AttributeOverrides({
@@ -71,24 +88,21 @@ public class CredentialRecordEntity implements WebAuthnCredentialRecord {
     })
     private AttestedCredentialData attestedCredentialData;
 
-    @Lob
-    @Convert(converter = AttestationStatementConverter.class)
-    private AttestationStatement attestationStatement;
-
-    @Lob
-    @Convert(converter = CollectedClientDataConverter.class)
-    private CollectedClientData clientData;
+    /**
+     * SHA-256 digest of the credential ID, which is used as a fixed-width lookup key
+     */
+    @Column(name = "credential_id_digest", columnDefinition = "binary(32)", nullable = false)
+    private byte[] credentialIdDigest;
 
-    @Lob
-    @Convert(converter = ClientExtensionsConverter.class)
-    private AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput>  clientExtensions;
-
-    @Lob
-    @Convert(converter = AuthenticatorExtensionsConverter.class)
-    private AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput>  authenticatorExtensions;
+    /**
+     * registration artifacts are lazily loaded as they are not needed for authentication
+     */
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "registration_id")
+    private CredentialRecordRegistrationEntity registration;
 
     public String getFormat() {
-        return attestationStatement.getFormat();
+        return getAttestationStatement().getFormat();
     }
 
     public Integer getId() {
@@ -130,11 +144,12 @@ public class CredentialRecordEntity implements WebAuthnCredentialRecord {
 
     @Override
     public Set<AuthenticatorTransport> getTransports() {
-        return transports;
+        return AuthenticatorTransportBitmask.decode(transportsBitmask, transportsOverflow);
     }
 
     public void setTransports(Set<AuthenticatorTransport> transports) {
-        this.transports = transports;
+        this.transportsBitmask = AuthenticatorTransportBitmask.toBitmask(transports);
+        this.transportsOverflow = AuthenticatorTransportBitmask.toOverflow(transports);
     }
 
     public AttestedCredentialData getAttestedCredentialData() {
@@ -143,42 +158,55 @@ public class CredentialRecordEntity implements WebAuthnCredentialRecord {
 
     public void setAttestedCredentialData(AttestedCredentialData attestedCredentialData) {
         this.attestedCredentialData = attestedCredentialData;
+        this.credentialIdDigest = attestedCredentialData == null ? null : CredentialIdDigestUtil.digest(attestedCredentialData.getCredentialId());
+    }
+
+    public byte[] getCredentialIdDigest() {
+        return credentialIdDigest;
+    }
+
+    public CredentialRecordRegistrationEntity getRegistration() {
+        return registration;
+    }
+
+    public void setRegistration(CredentialRecordRegistrationEntity registration) {
+        this.registration = registration;
     }
 
     public AttestationStatement getAttestationStatement() {
-        return attestationStatement;
+        return registration == null ? null : registration.getAttestationStatement();
     }
 
     public void setAttestationStatement(AttestationStatement attestationStatement) {
-        this.attestationStatement = attestationStatement;
+        getOrCreateRegistration().setAttestationStatement(attestationStatement);
     }
 
 
     @Override
     public AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> getClientExtensions() {
-        return clientExtensions;
+        return registration == null ? null : registration.getClientExtensions();
     }
 
     public void setClientExtensions(AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> clientExtensions) {
-        this.clientExtensions = clientExtensions;
+        getOrCreateRegistration().setClientExtensions(clientExtensions);
     }
 
     @Override
     public AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput> getAuthenticatorExtensions() {
-        return authenticatorExtensions;
+        return registration == null ? null : registration.getAuthenticatorExtensions();
     }
 
     public void setAuthenticatorExtensions(AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput>  authenticatorExtensions) {
-        this.authenticatorExtensions = authenticatorExtensions;
+        getOrCreateRegistration().setAuthenticatorExtensions(authenticatorExtensions);
     }
 
     @Override
     public CollectedClientData getClientData() {
-        return this.clientData;
+        return registration == null ? null : registration.getClientData();
     }
 
     public void setClientData(CollectedClientData clientData) {
-        this.clientData = clientData;
+        getOrCreateRegistration().setClientData(clientData);
     }
 
     @Override
@@ -210,4 +238,11 @@ public class CredentialRecordEntity implements WebAuthnCredentialRecord {
     public void setBackedUp(boolean value) {
         this.backedUp = value;
     }
+
+    private CredentialRecordRegistrationEntity getOrCreateRegistration() {
+        if (registration == null) {
+            registration = new CredentialRecordRegistrationEntity();
+        }
+        return registration;
+    }
 }
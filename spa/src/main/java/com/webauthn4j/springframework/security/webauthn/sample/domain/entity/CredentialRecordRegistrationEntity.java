@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.entity;
+
+import com.webauthn4j.data.attestation.statement.AttestationStatement;
+import com.webauthn4j.data.client.CollectedClientData;
+import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
+import com.webauthn4j.data.extension.authenticator.RegistrationExtensionAuthenticatorOutput;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter.*;
+
+import jakarta.persistence.*;
+
+/**
+ * Registration artifacts of the authenticator, which are not needed for authentication
+ */
+@Entity
+@Table(name = "m_credential_record_registration")
+public class CredentialRecordRegistrationEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "m_credential_record_registration_seq")
+    @SequenceGenerator(name = "m_credential_record_registration_seq", sequenceName = "m_credential_record_registration_seq", allocationSize = 50)
+    private Integer id;
+
+    @Lob
+    @Convert(converter = AttestationStatementBinaryConverter.class)
+    private AttestationStatement attestationStatement;
+
+    @Lob
+    @Convert(converter = CollectedClientDataBinaryConverter.class)
+    private CollectedClientData clientData;
+
+    @Lob
+    @Convert(converter = ClientExtensionsConverter.class)
+    private AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput>  clientExtensions;
+
+    @Lob
+    @Convert(converter = AuthenticatorExtensionsBinaryConverter.class)
+    private AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput>  authenticatorExtensions;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public AttestationStatement getAttestationStatement() {
+        return attestationStatement;
+    }
+
+    public void setAttestationStatement(AttestationStatement attestationStatement) {
+        this.attestationStatement = attestationStatement;
+    }
+
+    public CollectedClientData getClientData() {
+        return clientData;
+    }
+
+    public void setClientData(CollectedClientData clientData) {
+        this.clientData = clientData;
+    }
+
+    public AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> getClientExtensions() {
+        return clientExtensions;
+    }
+
+    public void setClientExtensions(AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> clientExtensions) {
+        this.clientExtensions = clientExtensions;
+    }
+
+    public AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput> getAuthenticatorExtensions() {
+        return authenticatorExtensions;
+    }
+
+    public void setAuthenticatorExtensions(AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput> authenticatorExtensions) {
+        this.authenticatorExtensions = authenticatorExtensions;
+    }
+}
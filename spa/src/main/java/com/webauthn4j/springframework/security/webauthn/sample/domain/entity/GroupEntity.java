@@ -28,7 +28,8 @@ import java.util.List;
 public class GroupEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "m_group_seq")
+    @SequenceGenerator(name = "m_group_seq", sequenceName = "m_group_seq", allocationSize = 50)
     private Integer id;
     @Column(name = "group_name")
     private String groupName;
@@ -40,7 +41,7 @@ public class GroupEntity implements Serializable {
     public GroupEntity() {
     }
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "r_user_group",
             joinColumns = {@JoinColumn(name = "group_id", referencedColumnName = "id")},
@@ -48,7 +49,7 @@ public class GroupEntity implements Serializable {
     )
     private List<UserEntity> users;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "r_group_authority",
             joinColumns = {@JoinColumn(name = "group_id", referencedColumnName = "id")},
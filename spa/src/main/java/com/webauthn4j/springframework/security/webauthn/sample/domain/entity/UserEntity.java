@@ -16,20 +16,43 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.domain.entity;
 
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.TrigramUtil;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import jakarta.persistence.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * User model
+ * <p>
+ * Associations are lazily fetched. Use the named entity graphs to fetch what each use case needs.
  */
 @Entity
 @Table(name = "m_user")
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = UserEntity.PROFILE_GRAPH, attributeNodes = @NamedAttributeNode("credentialRecords")),
+        @NamedEntityGraph(name = UserEntity.LIST_GRAPH, attributeNodes = @NamedAttributeNode("authorities"))
+})
 public class UserEntity implements UserDetails {
 
+    /**
+     * entity graph for profile view, which needs credential records of the user
+     */
+    public static final String PROFILE_GRAPH = "UserEntity.profile";
+
+    /**
+     * entity graph for user listing, which shows the authorities directly granted to each user
+     */
+    public static final String LIST_GRAPH = "UserEntity.list";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "m_user_seq")
+    @SequenceGenerator(name = "m_user_seq", sequenceName = "m_user_seq", allocationSize = 50)
     private Integer id;
     @Column(columnDefinition = "VARBINARY(64)")
     private byte[] userHandle;
@@ -37,7 +60,7 @@ public class UserEntity implements UserDetails {
     private String lastName;
     private String emailAddress;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "r_user_group",
             joinColumns = {@JoinColumn(name = "user_id", referencedColumnName = "id")},
@@ -46,7 +69,10 @@ public class UserEntity implements UserDetails {
     )
     private List<GroupEntity> groups;
 
-    @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    /**
+     * authorities directly granted to the user. Canonical authorities from {@code AuthorityRegistry} are referenced, not owned.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "r_user_authority",
             joinColumns = {@JoinColumn(name = "user_id", referencedColumnName = "id")},
@@ -54,13 +80,27 @@ public class UserEntity implements UserDetails {
     )
     private List<AuthorityEntity> authorities;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CredentialRecordEntity> credentialRecords;
 
     private String password;
 
     private boolean locked;
 
+    /**
+     * trigrams of first name, last name and email address, which are maintained on write for keyword search
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "m_user_search_token", joinColumns = @JoinColumn(name = "user_id"))
+    @Column(name = "token", length = TrigramUtil.TOKEN_LENGTH)
+    private Set<String> searchTokens = new HashSet<>();
+
+    /**
+     * precomputed authorities including the ones inherited from the groups
+     */
+    @Transient
+    private Set<GrantedAuthority> grantedAuthorities;
+
     public Integer getId() {
         return id;
     }
@@ -83,6 +123,7 @@ public class UserEntity implements UserDetails {
 
     public void setFirstName(String firstName) {
         this.firstName = firstName;
+        refreshSearchTokens();
     }
 
     public String getLastName() {
@@ -91,6 +132,7 @@ public class UserEntity implements UserDetails {
 
     public void setLastName(String lastName) {
         this.lastName = lastName;
+        refreshSearchTokens();
     }
 
     public String getEmailAddress() {
@@ -99,6 +141,7 @@ public class UserEntity implements UserDetails {
 
     public void setEmailAddress(String emailAddress) {
         this.emailAddress = emailAddress;
+        refreshSearchTokens();
     }
 
     public List<GroupEntity> getGroups() {
@@ -109,12 +152,45 @@ public class UserEntity implements UserDetails {
         this.groups = groups;
     }
 
-    public List<AuthorityEntity> getAuthorities() {
+    public List<AuthorityEntity> getAuthorityEntities() {
         return authorities;
     }
 
-    public void setAuthorities(List<AuthorityEntity> authorities) {
+    public void setAuthorityEntities(List<AuthorityEntity> authorities) {
         this.authorities = authorities;
+        this.grantedAuthorities = null;
+    }
+
+    /**
+     * return the authorities granted to the user. The precomputed set is returned if it is resolved,
+     * otherwise the authorities directly granted to the user.
+     *
+     * @return authorities
+     */
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (grantedAuthorities != null) {
+            return grantedAuthorities;
+        }
+        return authorities == null ? Collections.emptyList() : Collections.unmodifiableList(authorities);
+    }
+
+    /**
+     * return the precomputed authorities including the ones inherited from the groups
+     *
+     * @return immutable set of the authorities, or null if they are not resolved
+     */
+    public Set<GrantedAuthority> getGrantedAuthorities() {
+        return grantedAuthorities;
+    }
+
+    /**
+     * set the precomputed authorities including the ones inherited from the groups
+     *
+     * @param grantedAuthorities immutable set of the authorities
+     */
+    public void setGrantedAuthorities(Set<GrantedAuthority> grantedAuthorities) {
+        this.grantedAuthorities = grantedAuthorities;
     }
 
     public List<CredentialRecordEntity> getCredentialRecords() {
@@ -173,4 +249,10 @@ public class UserEntity implements UserDetails {
         return emailAddress;
     }
 
+    private void refreshSearchTokens() {
+        Set<String> tokens = TrigramUtil.trigrams(firstName, lastName, emailAddress);
+        searchTokens.retainAll(tokens);
+        searchTokens.addAll(tokens);
+    }
+
 }
@@ -16,8 +16,13 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.domain.repository;
 
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.COSEKey;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.CredentialIdDigestUtil;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -27,11 +32,80 @@ import java.util.Optional;
 /**
  * {@link CredentialRecordEntity} repository
  */
-public interface AuthenticatorEntityRepository extends JpaRepository<CredentialRecordEntity, Integer> {
+public interface AuthenticatorEntityRepository extends JpaRepository<CredentialRecordEntity, Integer>, CredentialRecordCounterRepository {
 
-    @Query("SELECT authenticator FROM CredentialRecordEntity authenticator WHERE authenticator.attestedCredentialData.credentialId = :credentialId")
-    Optional<CredentialRecordEntity> findOneByCredentialId(@Param("credentialId") byte[] credentialId);
+    /**
+     * find a credential record by credential ID through the indexed credential ID digest
+     *
+     * @param credentialId credential ID
+     * @return credential record
+     */
+    default Optional<CredentialRecordEntity> findOneByCredentialId(byte[] credentialId) {
+        return findOneByCredentialIdDigest(CredentialIdDigestUtil.digest(credentialId), credentialId);
+    }
+
+    /**
+     * find a credential record by credential ID digest. The full credential ID is compared as well to guard against digest collision.
+     *
+     * @param credentialIdDigest SHA-256 digest of the credential ID
+     * @param credentialId credential ID
+     * @return credential record
+     */
+    @EntityGraph(CredentialRecordEntity.WEBAUTHN_LOGIN_GRAPH)
+    @Query("SELECT authenticator FROM CredentialRecordEntity authenticator WHERE authenticator.credentialIdDigest = :credentialIdDigest AND authenticator.attestedCredentialData.credentialId = :credentialId")
+    Optional<CredentialRecordEntity> findOneByCredentialIdDigest(@Param("credentialIdDigest") byte[] credentialIdDigest, @Param("credentialId") byte[] credentialId);
+
+    /**
+     * update the signature counter only if the new value is greater than the stored one
+     *
+     * @param credentialId credential ID
+     * @param counter new signature counter value
+     * @return the number of updated rows. 0 if the credential record is not found or the counter doesn't increase
+     */
+    default int updateCounter(byte[] credentialId, long counter) {
+        return updateCounterByCredentialIdDigest(CredentialIdDigestUtil.digest(credentialId), credentialId, counter);
+    }
+
+    @Modifying
+    @Query("UPDATE CredentialRecordEntity authenticator SET authenticator.counter = :counter WHERE authenticator.credentialIdDigest = :credentialIdDigest AND authenticator.attestedCredentialData.credentialId = :credentialId AND authenticator.counter < :counter")
+    int updateCounterByCredentialIdDigest(@Param("credentialIdDigest") byte[] credentialIdDigest, @Param("credentialId") byte[] credentialId, @Param("counter") long counter);
 
     @Query("SELECT authenticator FROM CredentialRecordEntity authenticator WHERE authenticator.user.emailAddress = :emailAddress")
     List<CredentialRecordEntity> findAllByEmailAddress(String emailAddress);
+
+    /**
+     * find credential descriptors of the user without loading credential record entities and their user graph
+     *
+     * @param emailAddress email address
+     * @return credential descriptors
+     */
+    @Query("SELECT authenticator.attestedCredentialData.aaguid AS aaguid, authenticator.attestedCredentialData.credentialId AS credentialId, authenticator.attestedCredentialData.coseKey AS coseKey, " +
+            "authenticator.transportsBitmask AS transportsBitmask, authenticator.transportsOverflow AS transportsOverflow, authenticator.counter AS counter, " +
+            "authenticator.uvInitialized AS uvInitialized, authenticator.backupEligible AS backupEligible, authenticator.backedUp AS backedUp " +
+            "FROM CredentialRecordEntity authenticator WHERE authenticator.user.emailAddress = :emailAddress ORDER BY authenticator.id")
+    List<CredentialDescriptorView> findAllCredentialDescriptorsByEmailAddress(@Param("emailAddress") String emailAddress);
+
+    /**
+     * Projection of the credential record columns, without registration artifacts and user
+     */
+    interface CredentialDescriptorView {
+
+        AAGUID getAaguid();
+
+        byte[] getCredentialId();
+
+        COSEKey getCoseKey();
+
+        int getTransportsBitmask();
+
+        String getTransportsOverflow();
+
+        long getCounter();
+
+        boolean isUvInitialized();
+
+        boolean isBackupEligible();
+
+        boolean isBackedUp();
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.repository;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.ByteArrayKey;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.CredentialIdDigestUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * {@link CredentialRecordCounterRepository} implementation
+ */
+public class CredentialRecordCounterRepositoryImpl implements CredentialRecordCounterRepository {
+
+    private static final String UPDATE_COUNTER_SQL =
+            "UPDATE m_credential_record SET counter = ? WHERE credential_id_digest = ? AND credential_id = ? AND counter < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CredentialRecordCounterRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchUpdateCounters(Map<ByteArrayKey, Long> counters, int batchSize) {
+        jdbcTemplate.batchUpdate(UPDATE_COUNTER_SQL, new ArrayList<>(counters.entrySet()), batchSize, (preparedStatement, entry) -> {
+            byte[] credentialId = entry.getKey().getValue();
+            long counter = entry.getValue();
+            preparedStatement.setLong(1, counter);
+            preparedStatement.setBytes(2, CredentialIdDigestUtil.digest(credentialId));
+            preparedStatement.setBytes(3, credentialId);
+            preparedStatement.setLong(4, counter);
+        });
+    }
+}
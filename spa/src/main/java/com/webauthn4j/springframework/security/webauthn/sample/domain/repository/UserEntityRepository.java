@@ -18,12 +18,14 @@ package com.webauthn4j.springframework.security.webauthn.sample.domain.repositor
 
 
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,8 +34,72 @@ import java.util.Optional;
 public interface UserEntityRepository extends JpaRepository<UserEntity, Integer> {
 
 
-    @Query("SELECT user FROM UserEntity user WHERE user.firstName LIKE %:keyword% OR user.lastName LIKE %:keyword% OR user.emailAddress LIKE %:keyword% ORDER BY user.id")
-    Page<UserEntity> findAllByKeyword(Pageable pageable, @Param("keyword") String keyword);
+    /**
+     * find user ids with keyset pagination
+     *
+     * @param afterId id of the last user of the previous page
+     * @param pageable only the page size is used
+     * @return user ids in ascending order
+     */
+    @Query("SELECT user.id FROM UserEntity user WHERE user.id > :afterId ORDER BY user.id")
+    List<Integer> findIdsAfterId(@Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * find ids of users by keyword with keyset pagination. Candidates are narrowed down by the indexed trigram tokens,
+     * and then confirmed by the LIKE pattern.
+     *
+     * @param tokens trigrams of the keyword
+     * @param tokenCount number of the trigrams
+     * @param pattern LIKE pattern of the normalized keyword
+     * @param afterId id of the last user of the previous page
+     * @param pageable only the page size is used
+     * @return user ids in ascending order
+     */
+    @Query("SELECT user.id FROM UserEntity user WHERE user.id > :afterId" +
+            " AND user.id IN (SELECT tokenUser.id FROM UserEntity tokenUser JOIN tokenUser.searchTokens token WHERE token IN :tokens GROUP BY tokenUser.id HAVING COUNT(token) = :tokenCount)" +
+            " AND (LOWER(user.firstName) LIKE :pattern ESCAPE '\\' OR LOWER(user.lastName) LIKE :pattern ESCAPE '\\' OR LOWER(user.emailAddress) LIKE :pattern ESCAPE '\\')" +
+            " ORDER BY user.id")
+    List<Integer> findIdsByTokens(@Param("tokens") Collection<String> tokens, @Param("tokenCount") long tokenCount, @Param("pattern") String pattern,
+                                  @Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * find ids of users by a keyword shorter than a trigram with keyset pagination
+     *
+     * @param pattern LIKE pattern of the normalized keyword
+     * @param afterId id of the last user of the previous page
+     * @param pageable only the page size is used
+     * @return user ids in ascending order
+     */
+    @Query("SELECT user.id FROM UserEntity user WHERE user.id > :afterId" +
+            " AND (LOWER(user.firstName) LIKE :pattern ESCAPE '\\' OR LOWER(user.lastName) LIKE :pattern ESCAPE '\\' OR LOWER(user.emailAddress) LIKE :pattern ESCAPE '\\')" +
+            " ORDER BY user.id")
+    List<Integer> findIdsByPattern(@Param("pattern") String pattern, @Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * find users of a listing page with their authorities. The page is selected by id first, because limiting a query
+     * which fetches a collection would make Hibernate paginate in memory.
+     *
+     * @param ids ids of the users of the page
+     * @return users ordered by id
+     */
+    @EntityGraph(UserEntity.LIST_GRAPH)
+    @Query("SELECT user FROM UserEntity user WHERE user.id IN :ids ORDER BY user.id")
+    List<UserEntity> findAllForListByIds(@Param("ids") Collection<Integer> ids);
 
     Optional<UserEntity> findOneByEmailAddress(String emailAddress);
+
+    /**
+     * find ids of the authorities granted to the user directly or through the groups
+     *
+     * @param userId user id
+     * @return authority ids
+     */
+    @Query(value = "SELECT authority_id FROM r_user_authority WHERE user_id = :userId" +
+            " UNION SELECT group_authority.authority_id FROM r_user_group user_group JOIN r_group_authority group_authority ON group_authority.group_id = user_group.group_id WHERE user_group.user_id = :userId",
+            nativeQuery = true)
+    List<Integer> findAllAuthorityIdsByUserId(@Param("userId") int userId);
+
+    @Override
+    @EntityGraph(UserEntity.PROFILE_GRAPH)
+    Optional<UserEntity> findById(Integer id);
 }
@@ -19,6 +19,7 @@ package com.webauthn4j.springframework.security.webauthn.sample.domain.service;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.function.Consumer;
@@ -52,13 +53,14 @@ public interface UserService {
     Page<UserEntity> findAll(Pageable pageable);
 
     /**
-     * find all users by keyword
+     * find all users by keyword with keyset pagination. The authorities of the users are fetched with them.
      *
-     * @param pageable paging info
-     * @param keyword  keyword
-     * @return user list
+     * @param keyword keyword. all users are returned if null
+     * @param afterId id of the last user of the previous page. null for the first page
+     * @param size    page size
+     * @return user list ordered by id
      */
-    Page<UserEntity> findAllByKeyword(Pageable pageable, String keyword);
+    Slice<UserEntity> findAllByKeyword(String keyword, Integer afterId, int size);
 
     /**
      * create a userEntity
@@ -19,13 +19,19 @@ package com.webauthn4j.springframework.security.webauthn.sample.domain.service;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.component.UserManager;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.UserEntityRepository;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.TrigramUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
@@ -47,6 +53,7 @@ public class UserServiceImpl implements UserService {
     /**
      * {@inheritDoc}
      */
+    @Transactional(readOnly = true)
     @Override
     public UserEntity findOne(int id) {
         return userManager.findById(id);
@@ -55,6 +62,7 @@ public class UserServiceImpl implements UserService {
     /**
      * {@inheritDoc}
      */
+    @Transactional(readOnly = true)
     @Override
     public List<UserEntity> findAll() {
         return userEntityRepository.findAll();
@@ -63,6 +71,7 @@ public class UserServiceImpl implements UserService {
     /**
      * {@inheritDoc}
      */
+    @Transactional(readOnly = true)
     @Override
     public Page<UserEntity> findAll(Pageable pageable) {
         return userEntityRepository.findAll(pageable);
@@ -71,13 +80,28 @@ public class UserServiceImpl implements UserService {
     /**
      * {@inheritDoc}
      */
+    @Transactional(readOnly = true)
     @Override
-    public Page<UserEntity> findAllByKeyword(Pageable pageable, String keyword) {
+    public Slice<UserEntity> findAllByKeyword(String keyword, Integer afterId, int size) {
+        int lastId = afterId == null ? 0 : afterId;
+        // fetch one extra id to know whether the next page exists
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<Integer> ids;
         if (keyword == null) {
-            return userEntityRepository.findAll(pageable);
+            ids = userEntityRepository.findIdsAfterId(lastId, pageable);
         } else {
-            return userEntityRepository.findAllByKeyword(pageable, keyword);
+            Set<String> tokens = TrigramUtil.trigrams(keyword);
+            String pattern = TrigramUtil.toContainsPattern(keyword);
+            if (tokens.isEmpty()) {
+                ids = userEntityRepository.findIdsByPattern(pattern, lastId, pageable);
+            } else {
+                ids = userEntityRepository.findIdsByTokens(tokens, tokens.size(), pattern, lastId, pageable);
+            }
         }
+        boolean hasNext = ids.size() > size;
+        List<Integer> pageIds = hasNext ? ids.subList(0, size) : ids;
+        List<UserEntity> content = pageIds.isEmpty() ? Collections.emptyList() : userEntityRepository.findAllForListByIds(pageIds);
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
     }
 
     /**
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.util;
+
+import com.webauthn4j.data.AuthenticatorTransport;
+
+import java.util.*;
+
+/**
+ * Codec which represents a set of {@link AuthenticatorTransport} as an integer bitmask of the known transports
+ * and a comma separated overflow string of the unknown ones.
+ * Decoding a bitmask without overflow returns a shared immutable set, and doesn't allocate.
+ * <p>
+ * Transports are hints supplied by the client, so unknown transports which can't be stored are dropped rather than
+ * rejected: values that are empty, contain the delimiter or exceed {@link #MAX_TRANSPORT_LENGTH}, and values beyond
+ * {@link #MAX_OVERFLOW_TRANSPORTS} or the {@link #MAX_OVERFLOW_LENGTH} of the column.
+ */
+public class AuthenticatorTransportBitmask {
+
+    public static final int MAX_TRANSPORT_LENGTH = 32;
+    public static final int MAX_OVERFLOW_TRANSPORTS = 8;
+    /**
+     * length of the transports_overflow column
+     */
+    public static final int MAX_OVERFLOW_LENGTH = 255;
+
+    private static final String OVERFLOW_DELIMITER = ",";
+
+    /**
+     * known transports. The index is the bit position, so the order must not be changed.
+     */
+    private static final AuthenticatorTransport[] KNOWN_TRANSPORTS = {
+            AuthenticatorTransport.create("usb"),
+            AuthenticatorTransport.create("nfc"),
+            AuthenticatorTransport.create("ble"),
+            AuthenticatorTransport.create("internal"),
+            AuthenticatorTransport.create("hybrid"),
+            AuthenticatorTransport.create("smart-card")
+    };
+
+    private static final List<Set<AuthenticatorTransport>> DECODED_SETS;
+
+    static {
+        int size = 1 << KNOWN_TRANSPORTS.length;
+        List<Set<AuthenticatorTransport>> decodedSets = new ArrayList<>(size);
+        for (int bitmask = 0; bitmask < size; bitmask++) {
+            Set<AuthenticatorTransport> transports = new HashSet<>();
+            for (int i = 0; i < KNOWN_TRANSPORTS.length; i++) {
+                if ((bitmask & (1 << i)) != 0) {
+                    transports.add(KNOWN_TRANSPORTS[i]);
+                }
+            }
+            decodedSets.add(Collections.unmodifiableSet(transports));
+        }
+        DECODED_SETS = Collections.unmodifiableList(decodedSets);
+    }
+
+    private AuthenticatorTransportBitmask() {
+    }
+
+    /**
+     * encode known transports to a bitmask
+     *
+     * @param transports transports
+     * @return bitmask
+     */
+    public static int toBitmask(Set<AuthenticatorTransport> transports) {
+        int bitmask = 0;
+        if (transports == null) {
+            return bitmask;
+        }
+        for (AuthenticatorTransport transport : transports) {
+            int index = indexOf(transport);
+            if (index >= 0) {
+                bitmask |= 1 << index;
+            }
+        }
+        return bitmask;
+    }
+
+    /**
+     * encode unknown transports to a comma separated string, in their natural order.
+     * Values which can't be stored are dropped.
+     *
+     * @param transports transports
+     * @return overflow string, or null if all the transports are known or dropped
+     */
+    public static String toOverflow(Set<AuthenticatorTransport> transports) {
+        if (transports == null) {
+            return null;
+        }
+        SortedSet<String> values = new TreeSet<>();
+        for (AuthenticatorTransport transport : transports) {
+            if (indexOf(transport) < 0 && isStorable(transport.getValue())) {
+                values.add(transport.getValue());
+            }
+        }
+        StringJoiner joiner = new StringJoiner(OVERFLOW_DELIMITER);
+        int count = 0;
+        for (String value : values) {
+            if (count == MAX_OVERFLOW_TRANSPORTS || joiner.length() + OVERFLOW_DELIMITER.length() + value.length() > MAX_OVERFLOW_LENGTH) {
+                break;
+            }
+            joiner.add(value);
+            count++;
+        }
+        return count == 0 ? null : joiner.toString();
+    }
+
+    /**
+     * decode transports
+     *
+     * @param bitmask bitmask of known transports
+     * @param overflow comma separated unknown transports. nullable
+     * @return immutable set of transports
+     */
+    public static Set<AuthenticatorTransport> decode(int bitmask, String overflow) {
+        Set<AuthenticatorTransport> known = DECODED_SETS.get(bitmask & (DECODED_SETS.size() - 1));
+        if (overflow == null || overflow.isEmpty()) {
+            return known;
+        }
+        Set<AuthenticatorTransport> transports = new HashSet<>(known);
+        for (String value : overflow.split(OVERFLOW_DELIMITER)) {
+            if (!value.isEmpty()) {
+                transports.add(AuthenticatorTransport.create(value));
+            }
+        }
+        return Collections.unmodifiableSet(transports);
+    }
+
+    private static boolean isStorable(String value) {
+        return value != null && !value.isEmpty() && value.length() <= MAX_TRANSPORT_LENGTH && !value.contains(OVERFLOW_DELIMITER);
+    }
+
+    private static int indexOf(AuthenticatorTransport transport) {
+        for (int i = 0; i < KNOWN_TRANSPORTS.length; i++) {
+            if (KNOWN_TRANSPORTS[i].equals(transport)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
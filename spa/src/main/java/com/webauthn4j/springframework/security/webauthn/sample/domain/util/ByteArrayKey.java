@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.util;
+
+import java.util.Arrays;
+
+/**
+ * Map key which wraps a byte array and compares it by content
+ */
+public final class ByteArrayKey {
+
+    private final byte[] value;
+    private final int hashCode;
+
+    public ByteArrayKey(byte[] value) {
+        this.value = value.clone();
+        this.hashCode = Arrays.hashCode(value);
+    }
+
+    public byte[] getValue() {
+        return value.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ByteArrayKey that = (ByteArrayKey) o;
+        return hashCode == that.hashCode && Arrays.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.util;
+
+import com.webauthn4j.util.MessageDigestUtil;
+
+/**
+ * Utility to compute the fixed-width digest used to index credential records by credential ID
+ */
+public class CredentialIdDigestUtil {
+
+    /**
+     * length of the digest in bytes
+     */
+    public static final int DIGEST_LENGTH = 32;
+
+    private CredentialIdDigestUtil() {
+    }
+
+    /**
+     * compute SHA-256 digest of the credential ID
+     *
+     * @param credentialId credential ID
+     * @return digest
+     */
+    public static byte[] digest(byte[] credentialId) {
+        if (credentialId == null) {
+            return null;
+        }
+        return MessageDigestUtil.createSHA256().digest(credentialId);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.util;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Utility for trigram based keyword search
+ */
+public class TrigramUtil {
+
+    /**
+     * length of a token
+     */
+    public static final int TOKEN_LENGTH = 3;
+
+    private TrigramUtil() {
+    }
+
+    /**
+     * return lower-cased trigrams of the specified values
+     *
+     * @param values values. null is ignored
+     * @return trigrams
+     */
+    public static Set<String> trigrams(String... values) {
+        Set<String> tokens = new HashSet<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            String normalized = normalize(value);
+            for (int i = 0; i + TOKEN_LENGTH <= normalized.length(); i++) {
+                tokens.add(normalized.substring(i, i + TOKEN_LENGTH));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * normalize a value or a keyword for case-insensitive search
+     *
+     * @param value value
+     * @return normalized value
+     */
+    public static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * return a LIKE pattern which matches values containing the keyword. Wildcard characters are escaped with '\'.
+     *
+     * @param keyword keyword
+     * @return LIKE pattern
+     */
+    public static String toContainsPattern(String keyword) {
+        String escaped = normalize(keyword)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.challenge;
+
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.ChallengeStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ChallengeStore} backed by the t_challenge table, shared by every node connected to the database.
+ * A challenge is consumed by the node whose DELETE removes the row, which makes consumption atomic across nodes.
+ * Statements run in auto-commit mode on the primary database.
+ */
+public class JdbcChallengeStore implements ChallengeStore {
+
+    private static final String INSERT_SQL = "INSERT INTO t_challenge (challenge_key, challenge_value, expiry) VALUES (?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT challenge_value FROM t_challenge WHERE challenge_key = ? AND expiry > ?";
+    private static final String DELETE_SQL = "DELETE FROM t_challenge WHERE challenge_key = ?";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM t_challenge WHERE expiry <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int purgeInterval;
+    private final AtomicLong saveCount = new AtomicLong();
+
+    /**
+     * @param purgeInterval number of saves between deletions of expired rows
+     */
+    public JdbcChallengeStore(JdbcTemplate jdbcTemplate, int purgeInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeInterval = purgeInterval;
+    }
+
+    @Override
+    public void save(String key, byte[] value, long expiryMillis, long nowMillis) {
+        jdbcTemplate.update(INSERT_SQL, key, value, expiryMillis);
+        if (saveCount.incrementAndGet() % purgeInterval == 0) {
+            purgeExpired(nowMillis);
+        }
+    }
+
+    @Override
+    public byte[] consume(String key, long nowMillis) {
+        List<byte[]> values = jdbcTemplate.query(SELECT_SQL, (resultSet, rowNum) -> resultSet.getBytes(1), key, nowMillis);
+        if (values.isEmpty()) {
+            return null;
+        }
+        // only the caller which actually deleted the row may use the challenge
+        return jdbcTemplate.update(DELETE_SQL, key) == 1 ? values.get(0) : null;
+    }
+
+    public int purgeExpired(long nowMillis) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, nowMillis);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.config;
+
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.ChallengeStore;
+import com.webauthn4j.springframework.security.webauthn.sample.challenge.TimeWheelChallengeStore;
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.challenge.JdbcChallengeStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Provides the {@link ChallengeStore} selected by sample.challenge.store. No store is registered in signed-cookie mode.
+ */
+@Configuration
+@EnableConfigurationProperties(ChallengeStoreProperties.class)
+public class ChallengeStoreConfig {
+
+    private static final int WHEEL_SLOTS = 8;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sample.challenge", name = "store", havingValue = "memory")
+    public ChallengeStore timeWheelChallengeStore(ChallengeStoreProperties challengeStoreProperties) {
+        Duration timeToLive = challengeStoreProperties.getTimeToLive();
+        return new TimeWheelChallengeStore(timeToLive.dividedBy(WHEEL_SLOTS), timeToLive);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sample.challenge", name = "store", havingValue = "jdbc")
+    public ChallengeStore jdbcChallengeStore(JdbcTemplate jdbcTemplate, ChallengeStoreProperties challengeStoreProperties) {
+        return new JdbcChallengeStore(jdbcTemplate, challengeStoreProperties.getJdbcPurgeInterval());
+    }
+}
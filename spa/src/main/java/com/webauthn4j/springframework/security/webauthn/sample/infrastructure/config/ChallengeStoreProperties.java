@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * WebAuthn challenge storage settings
+ */
+@ConfigurationProperties(prefix = "sample.challenge")
+public class ChallengeStoreProperties {
+
+    /**
+     * signed-cookie keeps no server state and detects replays per node only. memory keeps challenges in this node only.
+     * jdbc shares challenges through the database, so that any node can consume a challenge exactly once.
+     */
+    private Store store = Store.SIGNED_COOKIE;
+
+    /**
+     * how long an issued challenge can be used
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * number of saved challenges between deletions of expired rows in JDBC mode
+     */
+    private int jdbcPurgeInterval = 256;
+
+    /**
+     * base64 encoded master secret of at least 32 bytes which signs the challenge cookies in signed-cookie mode.
+     * Nodes sharing it verify each other's cookies. If unset, a random secret is used and the cookies are only
+     * verified by the node which issued them.
+     */
+    private String masterSecret;
+
+    public Store getStore() {
+        return store;
+    }
+
+    public void setStore(Store store) {
+        this.store = store;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public int getJdbcPurgeInterval() {
+        return jdbcPurgeInterval;
+    }
+
+    public void setJdbcPurgeInterval(int jdbcPurgeInterval) {
+        this.jdbcPurgeInterval = jdbcPurgeInterval;
+    }
+
+    public String getMasterSecret() {
+        return masterSecret;
+    }
+
+    public void setMasterSecret(String masterSecret) {
+        this.masterSecret = masterSecret;
+    }
+
+    public enum Store {
+        SIGNED_COOKIE,
+        MEMORY,
+        JDBC
+    }
+}
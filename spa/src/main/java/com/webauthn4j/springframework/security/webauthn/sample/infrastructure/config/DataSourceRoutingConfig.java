@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.config;
+
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.datasource.PrimaryPinCookie;
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.datasource.ReadWriteRoutingDataSource;
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.datasource.ReadYourWritesFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Read/write DataSource routing Configuration
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public PrimaryPinCookie primaryPinCookie(ReplicaDataSourceProperties replicaDataSourceProperties) {
+        String pinSecret = replicaDataSourceProperties.getPinSecret();
+        if (pinSecret == null || pinSecret.isEmpty()) {
+            return new PrimaryPinCookie(replicaDataSourceProperties.getMaxLag());
+        }
+        return new PrimaryPinCookie(Base64.getDecoder().decode(pinSecret), replicaDataSourceProperties.getMaxLag());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(PrimaryPinCookie primaryPinCookie) {
+        return new ReadYourWritesFilter(primaryPinCookie);
+    }
+
+    @Bean
+    public static BeanPostProcessor readWriteRoutingDataSourcePostProcessor(ObjectProvider<ReplicaDataSourceProperties> replicaDataSourcePropertiesProvider,
+                                                                            ObjectProvider<PrimaryPinCookie> primaryPinCookieProvider) {
+        return new RoutingDataSourcePostProcessor(replicaDataSourcePropertiesProvider, primaryPinCookieProvider);
+    }
+
+    /**
+     * Wraps the primary DataSource before the other wrappers, such as the JDBC instrumentation, are applied
+     */
+    private static class RoutingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicaDataSourceProperties> replicaDataSourcePropertiesProvider;
+        private final ObjectProvider<PrimaryPinCookie> primaryPinCookieProvider;
+
+        RoutingDataSourcePostProcessor(ObjectProvider<ReplicaDataSourceProperties> replicaDataSourcePropertiesProvider, ObjectProvider<PrimaryPinCookie> primaryPinCookieProvider) {
+            this.replicaDataSourcePropertiesProvider = replicaDataSourcePropertiesProvider;
+            this.primaryPinCookieProvider = primaryPinCookieProvider;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            ReplicaDataSourceProperties replica = replicaDataSourcePropertiesProvider.getObject();
+            if (replica.getUrl() == null) {
+                return bean;
+            }
+            DataSource replicaDataSource = DataSourceBuilder.create()
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .driverClassName(replica.getDriverClassName())
+                    .build();
+            return new ClosingLazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource((DataSource) bean, replicaDataSource, primaryPinCookieProvider.getObject()));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * Closes the routed pools when the DataSource bean is destroyed
+     */
+    private static class ClosingLazyConnectionDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+
+        private final ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+        ClosingLazyConnectionDataSourceProxy(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+            super(readWriteRoutingDataSource);
+            this.readWriteRoutingDataSource = readWriteRoutingDataSource;
+        }
+
+        @Override
+        public void close() throws IOException {
+            readWriteRoutingDataSource.close();
+        }
+    }
+}
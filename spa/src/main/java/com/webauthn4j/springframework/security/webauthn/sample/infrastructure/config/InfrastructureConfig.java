@@ -25,6 +25,6 @@ import org.springframework.context.annotation.Import;
  */
 @Configuration
 @EnableAutoConfiguration
-@Import(value = JpaConfig.class)
+@Import(value = {JpaConfig.class, DataSourceRoutingConfig.class, JdbcInstrumentationConfig.class, ChallengeStoreConfig.class, SessionConfig.class})
 public class InfrastructureConfig {
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.config;
+
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.jdbc.InstrumentedDataSource;
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.jdbc.JdbcEndpoint;
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.jdbc.JdbcInstrumentation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * JDBC instrumentation Configuration, which is enabled by {@code sample.jdbc.instrumentation.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sample.jdbc.instrumentation", name = "enabled", havingValue = "true")
+public class JdbcInstrumentationConfig {
+
+    /**
+     * name of the application DataSource bean, which is the only DataSource to be instrumented
+     */
+    private static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    @Bean
+    public JdbcInstrumentation jdbcInstrumentation(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new JdbcInstrumentation(meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new), Duration.ofMillis(100), 100, 1_000);
+    }
+
+    @Bean
+    public JdbcEndpoint jdbcEndpoint(JdbcInstrumentation jdbcInstrumentation) {
+        return new JdbcEndpoint(jdbcInstrumentation);
+    }
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<JdbcInstrumentation> jdbcInstrumentationProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN_NAME.equals(beanName) && bean instanceof DataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource((DataSource) bean, jdbcInstrumentationProvider.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.config;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.springframework.security.webauthn.sample.infrastructure.session.SessionAttributeCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+
+/**
+ * Session persistence settings. Sessions are kept in the servlet container by default, which never encodes
+ * attributes. When Spring Session JDBC is put on the classpath, its session repository encodes them with
+ * {@link SessionAttributeCodec}.
+ */
+@Configuration
+public class SessionConfig {
+
+    @Bean
+    public SessionAttributeCodec sessionAttributeCodec(ObjectConverter objectConverter) {
+        return new SessionAttributeCodec(objectConverter);
+    }
+
+    /**
+     * Conversion service the Spring Session JDBC repository looks up by name to encode session attributes
+     */
+    @Bean
+    @ConditionalOnClass(name = "org.springframework.session.jdbc.JdbcIndexedSessionRepository")
+    public ConversionService springSessionConversionService(SessionAttributeCodec sessionAttributeCodec) {
+        return sessionAttributeCodec.createConversionService();
+    }
+}
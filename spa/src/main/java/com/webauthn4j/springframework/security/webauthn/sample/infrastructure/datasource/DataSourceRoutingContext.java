@@ -0,0 +1,43 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.datasource;
+
+/**
+ * Holds whether the current thread must read from the primary database even in read-only transactions
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<Boolean> primaryPinned = new ThreadLocal<>();
+
+    private DataSourceRoutingContext() {
+    }
+
+    /**
+     * route read-only transactions of the current thread to the primary database
+     */
+    public static void pinPrimary() {
+        primaryPinned.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryPinned() {
+        return primaryPinned.get() != null;
+    }
+
+    public static void clear() {
+        primaryPinned.remove();
+    }
+}
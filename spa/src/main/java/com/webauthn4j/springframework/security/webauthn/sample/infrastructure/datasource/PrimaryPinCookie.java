@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Short-lived signed cookie which pins a client to the primary database while the replica may not have caught up
+ * with its writes. Unlike a session attribute it also pins sessionless clients, such as a client which logs in right
+ * after its registration, and any node sharing the secret honors it.
+ * <p>
+ * The value is the expiry followed by a truncated HMAC-SHA256 of the expiry. A forged or expired cookie is ignored.
+ */
+public class PrimaryPinCookie {
+
+    public static final String COOKIE_NAME = "PRIMARY_PINNED";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SECRET_LENGTH = 32;
+    private static final int MAC_LENGTH = 16;
+
+    private static final String WRITTEN_ATTRIBUTE = PrimaryPinCookie.class.getName() + ".WRITTEN";
+
+    private final SecretKeySpec key;
+    private final Duration maxReplicaLag;
+
+    private Clock clock = Clock.systemUTC();
+
+    public PrimaryPinCookie(byte[] secret, Duration maxReplicaLag) {
+        if (secret == null || secret.length < SECRET_LENGTH) {
+            throw new IllegalArgumentException("secret must be at least " + SECRET_LENGTH + " bytes");
+        }
+        if (maxReplicaLag.isNegative() || maxReplicaLag.isZero()) {
+            throw new IllegalArgumentException("maxReplicaLag must be positive");
+        }
+        this.key = new SecretKeySpec(Arrays.copyOf(secret, secret.length), ALGORITHM);
+        this.maxReplicaLag = maxReplicaLag;
+    }
+
+    /**
+     * Creates a cookie signed with a random secret, which is honored by this node only.
+     */
+    public PrimaryPinCookie(Duration maxReplicaLag) {
+        this(randomSecret(), maxReplicaLag);
+    }
+
+    /**
+     * add the cookie to the response, once per request
+     *
+     * @param request  request
+     * @param response response
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response) {
+        if (request.getAttribute(WRITTEN_ATTRIBUTE) != null || response.isCommitted()) {
+            return;
+        }
+        request.setAttribute(WRITTEN_ATTRIBUTE, Boolean.TRUE);
+        Cookie cookie = new Cookie(COOKIE_NAME, issue(clock.millis() + maxReplicaLag.toMillis()));
+        String contextPath = request.getContextPath();
+        cookie.setPath(contextPath == null || contextPath.isEmpty() ? "/" : contextPath);
+        cookie.setMaxAge((int) Math.max(1, (maxReplicaLag.toMillis() + 999) / 1000));
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setAttribute("SameSite", "Lax");
+        response.addCookie(cookie);
+    }
+
+    /**
+     * check whether the request carries a valid unexpired cookie
+     *
+     * @param request request
+     * @return true if the request must read from the primary
+     */
+    public boolean isPinned(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName()) && verify(cookie.getValue(), clock.millis())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    String issue(long expiryMillis) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + MAC_LENGTH);
+        buffer.putLong(expiryMillis);
+        buffer.put(mac(buffer.array()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    boolean verify(String token, long nowMillis) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (bytes.length != Long.BYTES + MAC_LENGTH) {
+            return false;
+        }
+        long expiry = ByteBuffer.wrap(bytes).getLong();
+        byte[] actual = Arrays.copyOfRange(bytes, Long.BYTES, bytes.length);
+        return MessageDigest.isEqual(mac(bytes), actual) && expiry > nowMillis;
+    }
+
+    private byte[] mac(byte[] bytes) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(bytes, 0, Long.BYTES);
+            return Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] randomSecret() {
+        byte[] secret = new byte[SECRET_LENGTH];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+}
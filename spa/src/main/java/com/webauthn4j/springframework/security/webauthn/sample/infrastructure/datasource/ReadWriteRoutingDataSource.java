@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link DataSource} which routes read-only transactions to the replica and the others to the primary.
+ * It must be wrapped with {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so that
+ * the physical connection is obtained after the read-only flag of the transaction is set.
+ * <p>
+ * When a read-write transaction commits during a request, the rest of the request is pinned to the primary, and the
+ * client is handed a {@link PrimaryPinCookie} which pins its next requests for the maximum replica lag, so that it
+ * reads its own writes with or without an HTTP session. Outside requests nothing is pinned, as nothing would clear
+ * the pin of a pooled thread.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final PrimaryPinCookie primaryPinCookie;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, PrimaryPinCookie primaryPinCookie) {
+        this.primary = primary;
+        this.replica = replica;
+        this.primaryPinCookie = primaryPinCookie;
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        targetDataSources.put(REPLICA, replica);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceRoutingContext.isPrimaryPinned() ? PRIMARY : REPLICA;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pinPrimaryForReadYourWrites();
+                }
+            });
+        }
+        return PRIMARY;
+    }
+
+    private void pinPrimaryForReadYourWrites() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        // cleared by ReadYourWritesFilter when the request completes
+        DataSourceRoutingContext.pinPrimary();
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        HttpServletResponse response = ((ServletRequestAttributes) requestAttributes).getResponse();
+        if (response != null) {
+            primaryPinCookie.write(request, response);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (replica instanceof AutoCloseable) {
+                ((AutoCloseable) replica).close();
+            }
+            if (primary instanceof AutoCloseable) {
+                ((AutoCloseable) primary).close();
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
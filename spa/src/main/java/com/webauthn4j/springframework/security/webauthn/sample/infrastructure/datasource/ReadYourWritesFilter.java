@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Pins requests carrying a valid {@link PrimaryPinCookie} to the primary database while the replica may not have
+ * caught up with the writes of the client. See {@link ReadWriteRoutingDataSource}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter implements Ordered {
+
+    private final PrimaryPinCookie primaryPinCookie;
+
+    public ReadYourWritesFilter(PrimaryPinCookie primaryPinCookie) {
+        this.primaryPinCookie = primaryPinCookie;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (primaryPinCookie.isPinned(request)) {
+            DataSourceRoutingContext.pinPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourceRoutingContext.clear();
+        }
+    }
+
+    /**
+     * runs before the Spring Security filter chain, which loads users and credentials
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
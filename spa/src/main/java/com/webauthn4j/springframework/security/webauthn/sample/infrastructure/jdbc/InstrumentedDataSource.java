@@ -0,0 +1,71 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@link DataSource} which records statement executions to {@link JdbcInstrumentation}.
+ * Connections and statements are wrapped with delegating classes, which only intercept the statement creation and
+ * the {@code execute*} methods.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements Closeable {
+
+    private final JdbcInstrumentation jdbcInstrumentation;
+
+    public InstrumentedDataSource(DataSource targetDataSource, JdbcInstrumentation jdbcInstrumentation) {
+        super(targetDataSource);
+        this.jdbcInstrumentation = jdbcInstrumentation;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    /**
+     * close the target data source, which is registered as a bean in place of this instance
+     */
+    @Override
+    public void close() throws IOException {
+        DataSource targetDataSource = getTargetDataSource();
+        try {
+            if (targetDataSource instanceof AutoCloseable) {
+                ((AutoCloseable) targetDataSource).close();
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return new InstrumentedConnection(connection, jdbcInstrumentation);
+    }
+}
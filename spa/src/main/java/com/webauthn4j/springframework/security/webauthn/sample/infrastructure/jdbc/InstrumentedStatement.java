@@ -0,0 +1,462 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.jdbc;
+
+import java.sql.*;
+
+/**
+ * {@link Statement} which records the executions to {@link JdbcInstrumentation}. Other calls are delegated as is.
+ *
+ * @param <S> type of the delegate
+ */
+class InstrumentedStatement<S extends Statement> implements Statement {
+
+    final S delegate;
+    private final Connection connection;
+    private final JdbcInstrumentation jdbcInstrumentation;
+    private String batchSql;
+
+    InstrumentedStatement(S delegate, Connection connection, JdbcInstrumentation jdbcInstrumentation) {
+        this.delegate = delegate;
+        this.connection = connection;
+        this.jdbcInstrumentation = jdbcInstrumentation;
+    }
+
+    /**
+     * record an execution which started at {@code start}
+     */
+    void recordExecution(String sql, JdbcInstrumentation.StatementKind kind, long start, long rows) {
+        jdbcInstrumentation.recordExecution(sql, kind, System.nanoTime() - start, rows);
+    }
+
+    /**
+     * return the SQL of the batch, which is the first SQL added to a plain statement
+     */
+    String getBatchSql() {
+        return batchSql;
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return delegate.executeQuery(sql);
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.QUERY, start, -1);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        long start = System.nanoTime();
+        int rows = -1;
+        try {
+            rows = delegate.executeUpdate(sql);
+            return rows;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.UPDATE, start, rows);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = System.nanoTime();
+        int rows = -1;
+        try {
+            rows = delegate.executeUpdate(sql, autoGeneratedKeys);
+            return rows;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.UPDATE, start, rows);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        long start = System.nanoTime();
+        int rows = -1;
+        try {
+            rows = delegate.executeUpdate(sql, columnIndexes);
+            return rows;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.UPDATE, start, rows);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        long start = System.nanoTime();
+        int rows = -1;
+        try {
+            rows = delegate.executeUpdate(sql, columnNames);
+            return rows;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.UPDATE, start, rows);
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            rows = delegate.executeLargeUpdate(sql);
+            return rows;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.UPDATE, start, rows);
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            rows = delegate.executeLargeUpdate(sql, autoGeneratedKeys);
+            return rows;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.UPDATE, start, rows);
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            rows = delegate.executeLargeUpdate(sql, columnIndexes);
+            return rows;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.UPDATE, start, rows);
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            rows = delegate.executeLargeUpdate(sql, columnNames);
+            return rows;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.UPDATE, start, rows);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return delegate.execute(sql);
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.EXECUTE, start, -1);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return delegate.execute(sql, autoGeneratedKeys);
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.EXECUTE, start, -1);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return delegate.execute(sql, columnIndexes);
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.EXECUTE, start, -1);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return delegate.execute(sql, columnNames);
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.EXECUTE, start, -1);
+        }
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        if (batchSql == null) {
+            batchSql = sql;
+        }
+        delegate.addBatch(sql);
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        String sql = getBatchSql();
+        batchSql = null;
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            int[] counts = delegate.executeBatch();
+            rows = sumBatchRows(counts);
+            return counts;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.BATCH, start, rows);
+        }
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        String sql = getBatchSql();
+        batchSql = null;
+        long start = System.nanoTime();
+        long rows = -1;
+        try {
+            long[] counts = delegate.executeLargeBatch();
+            rows = sumBatchRows(counts);
+            return counts;
+        } finally {
+            recordExecution(sql, JdbcInstrumentation.StatementKind.BATCH, start, rows);
+        }
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        delegate.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return delegate.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        delegate.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return delegate.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        delegate.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        delegate.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return delegate.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        delegate.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        delegate.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        delegate.setCursorName(name);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return delegate.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return delegate.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return delegate.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        delegate.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return delegate.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        delegate.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return delegate.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return delegate.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return delegate.getResultSetType();
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate.clearBatch();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return delegate.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return delegate.getGeneratedKeys();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return delegate.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        delegate.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return delegate.isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        delegate.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return delegate.isCloseOnCompletion();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return delegate.getLargeUpdateCount();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        delegate.setLargeMaxRows(max);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return delegate.getLargeMaxRows();
+    }
+
+    @Override
+    public String enquoteLiteral(String val) throws SQLException {
+        return delegate.enquoteLiteral(val);
+    }
+
+    @Override
+    public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+        return delegate.enquoteIdentifier(identifier, alwaysQuote);
+    }
+
+    @Override
+    public boolean isSimpleIdentifier(String identifier) throws SQLException {
+        return delegate.isSimpleIdentifier(identifier);
+    }
+
+    @Override
+    public String enquoteNCharLiteral(String val) throws SQLException {
+        return delegate.enquoteNCharLiteral(val);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(delegate)) {
+            return iface.cast(delegate);
+        }
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+
+    private static long sumBatchRows(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            if (count < 0) {
+                // Statement.SUCCESS_NO_INFO or EXECUTE_FAILED
+                return -1;
+            }
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static long sumBatchRows(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            if (count < 0) {
+                return -1;
+            }
+            sum += count;
+        }
+        return sum;
+    }
+}
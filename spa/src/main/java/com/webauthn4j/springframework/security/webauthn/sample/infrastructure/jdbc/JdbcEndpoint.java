@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.jdbc;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint which exposes statement statistics and slow query samples recorded by {@link JdbcInstrumentation}
+ */
+@Endpoint(id = "jdbc")
+public class JdbcEndpoint {
+
+    private static final int TOP_STATEMENTS = 50;
+
+    private final JdbcInstrumentation jdbcInstrumentation;
+
+    public JdbcEndpoint(JdbcInstrumentation jdbcInstrumentation) {
+        this.jdbcInstrumentation = jdbcInstrumentation;
+    }
+
+    @ReadOperation
+    public Map<String, Object> jdbc() {
+        List<JdbcInstrumentation.StatementSnapshot> statements = jdbcInstrumentation.getStatementSnapshots();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statements", statements.subList(0, Math.min(TOP_STATEMENTS, statements.size())));
+        result.put("slowQueries", jdbcInstrumentation.getSlowQueries());
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        jdbcInstrumentation.reset();
+    }
+}
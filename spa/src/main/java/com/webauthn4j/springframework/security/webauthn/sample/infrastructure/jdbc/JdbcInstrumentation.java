@@ -0,0 +1,286 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records JDBC statement latency, row counts and slow query samples.
+ * The fast path only updates counters keyed by the SQL string handed to the driver, and never builds strings.
+ * Rows are counted for updates and batches only, as result sets are not wrapped.
+ */
+public class JdbcInstrumentation {
+
+    static final String OTHER_STATEMENTS = "(other)";
+
+    private final long slowThresholdNanos;
+    private final int slowQueryCapacity;
+    private final int maxStatements;
+
+    private final Map<String, StatementStats> statementStatsMap = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+
+    private final Map<StatementKind, Timer> timers = new EnumMap<>(StatementKind.class);
+    private final DistributionSummary rowSummary;
+    private final Counter slowQueryCounter;
+
+    /**
+     * constructor
+     *
+     * @param meterRegistry     meter registry
+     * @param slowThreshold     statements slower than the threshold are sampled as slow queries
+     * @param slowQueryCapacity number of the slow queries to retain
+     * @param maxStatements     number of distinct statements to track. Other statements are aggregated
+     */
+    public JdbcInstrumentation(MeterRegistry meterRegistry, Duration slowThreshold, int slowQueryCapacity, int maxStatements) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowQueryCapacity = slowQueryCapacity;
+        this.maxStatements = maxStatements;
+        for (StatementKind kind : StatementKind.values()) {
+            timers.put(kind, Timer.builder("jdbc.statement")
+                    .description("JDBC statement execution time")
+                    .tag("kind", kind.getValue())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.rowSummary = DistributionSummary.builder("jdbc.statement.rows")
+                .description("Rows affected by a JDBC statement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.slowQueryCounter = Counter.builder("jdbc.statement.slow")
+                .description("JDBC statements slower than the threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * record an execution
+     *
+     * @param sql     SQL
+     * @param kind    statement kind
+     * @param nanos   elapsed time in nanoseconds
+     * @param rows    affected rows. negative if unknown
+     */
+    void recordExecution(String sql, StatementKind kind, long nanos, long rows) {
+        timers.get(kind).record(nanos, TimeUnit.NANOSECONDS);
+        StatementStats stats = getStatementStats(sql);
+        stats.count.increment();
+        stats.totalNanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+        if (rows >= 0) {
+            recordRows(stats, rows);
+        }
+        if (nanos >= slowThresholdNanos) {
+            recordSlowQuery(sql, nanos);
+        }
+    }
+
+    /**
+     * return statistics of the tracked statements ordered by total time
+     *
+     * @return statistics
+     */
+    public List<StatementSnapshot> getStatementSnapshots() {
+        List<StatementSnapshot> snapshots = new ArrayList<>();
+        statementStatsMap.forEach((sql, stats) -> snapshots.add(stats.snapshot(sql)));
+        snapshots.sort(Comparator.comparingLong(StatementSnapshot::getTotalNanos).reversed());
+        return snapshots;
+    }
+
+    /**
+     * return retained slow query samples, newest first
+     *
+     * @return slow queries
+     */
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    /**
+     * discard the statement statistics and slow query samples. Micrometer meters are not reset.
+     */
+    public void reset() {
+        statementStatsMap.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    private StatementStats getStatementStats(String sql) {
+        String key = sql == null ? OTHER_STATEMENTS : sql;
+        StatementStats stats = statementStatsMap.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (statementStatsMap.size() >= maxStatements) {
+            key = OTHER_STATEMENTS;
+        }
+        return statementStatsMap.computeIfAbsent(key, k -> new StatementStats());
+    }
+
+    private void recordRows(StatementStats stats, long rows) {
+        stats.rows.add(rows);
+        stats.rowSamples.increment();
+        rowSummary.record(rows);
+    }
+
+    private void recordSlowQuery(String sql, long nanos) {
+        slowQueryCounter.increment();
+        SlowQuery slowQuery = new SlowQuery(sql, nanos, Instant.now(), Thread.currentThread().getName());
+        synchronized (slowQueries) {
+            slowQueries.addFirst(slowQuery);
+            while (slowQueries.size() > slowQueryCapacity) {
+                slowQueries.removeLast();
+            }
+        }
+    }
+
+    /**
+     * Kind of statement execution
+     */
+    enum StatementKind {
+        QUERY("query"),
+        UPDATE("update"),
+        BATCH("batch"),
+        EXECUTE("execute");
+
+        private final String value;
+
+        StatementKind(String value) {
+            this.value = value;
+        }
+
+        String getValue() {
+            return value;
+        }
+    }
+
+    private static class StatementStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder rowSamples = new LongAdder();
+
+        StatementSnapshot snapshot(String sql) {
+            return new StatementSnapshot(sql, count.sum(), totalNanos.sum(), maxNanos.get(), rows.sum(), rowSamples.sum());
+        }
+    }
+
+    /**
+     * Statistics of a statement
+     */
+    public static class StatementSnapshot {
+
+        private final String sql;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long rows;
+        private final long rowSamples;
+
+        StatementSnapshot(String sql, long count, long totalNanos, long maxNanos, long rows, long rowSamples) {
+            this.sql = sql;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.rows = rows;
+            this.rowSamples = rowSamples;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public long getMeanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        /**
+         * @return total rows affected by the updates and batches
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * @return number of the updates and batches whose rows are counted
+         */
+        public long getRowSamples() {
+            return rowSamples;
+        }
+    }
+
+    /**
+     * Sample of a slow query
+     */
+    public static class SlowQuery {
+
+        private final String sql;
+        private final long nanos;
+        private final Instant timestamp;
+        private final String threadName;
+
+        SlowQuery(String sql, long nanos, Instant timestamp, String threadName) {
+            this.sql = sql;
+            this.nanos = nanos;
+            this.timestamp = timestamp;
+            this.threadName = threadName;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+    }
+}
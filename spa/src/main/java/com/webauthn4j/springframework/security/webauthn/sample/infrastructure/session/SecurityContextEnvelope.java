@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.session;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Serialization form of an authenticated {@code SecurityContext}. It is written as a CBOR array, so that
+ * property names are not repeated in every session.
+ */
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"kind", "id", "username", "userHandle", "accountNonLocked", "authorities", "tokenAuthorities", "details", "remoteAddress", "sessionId"})
+class SecurityContextEnvelope {
+
+    static final int KIND_EMPTY = 0;
+    static final int KIND_PASSWORD = 1;
+    static final int KIND_WEBAUTHN = 2;
+
+    private final int kind;
+    private final int id;
+    private final String username;
+    private final byte[] userHandle;
+    private final boolean accountNonLocked;
+    private final List<String> authorities;
+    private final List<String> tokenAuthorities;
+    private final boolean details;
+    private final String remoteAddress;
+    private final String sessionId;
+
+    @JsonCreator
+    SecurityContextEnvelope(@JsonProperty("kind") int kind,
+                            @JsonProperty("id") int id,
+                            @JsonProperty("username") String username,
+                            @JsonProperty("userHandle") byte[] userHandle,
+                            @JsonProperty("accountNonLocked") boolean accountNonLocked,
+                            @JsonProperty("authorities") List<String> authorities,
+                            @JsonProperty("tokenAuthorities") List<String> tokenAuthorities,
+                            @JsonProperty("details") boolean details,
+                            @JsonProperty("remoteAddress") String remoteAddress,
+                            @JsonProperty("sessionId") String sessionId) {
+        this.kind = kind;
+        this.id = id;
+        this.username = username;
+        this.userHandle = userHandle;
+        this.accountNonLocked = accountNonLocked;
+        this.authorities = authorities;
+        this.tokenAuthorities = tokenAuthorities;
+        this.details = details;
+        this.remoteAddress = remoteAddress;
+        this.sessionId = sessionId;
+    }
+
+    static SecurityContextEnvelope empty() {
+        return new SecurityContextEnvelope(KIND_EMPTY, 0, null, null, false, null, null, false, null, null);
+    }
+
+    @JsonProperty("kind")
+    int getKind() {
+        return kind;
+    }
+
+    @JsonProperty("id")
+    int getId() {
+        return id;
+    }
+
+    @JsonProperty("username")
+    String getUsername() {
+        return username;
+    }
+
+    @JsonProperty("userHandle")
+    byte[] getUserHandle() {
+        return userHandle;
+    }
+
+    @JsonProperty("accountNonLocked")
+    boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @JsonProperty("authorities")
+    List<String> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * authorities of the token, or null if they are the same as the ones of the principal
+     */
+    @JsonProperty("tokenAuthorities")
+    List<String> getTokenAuthorities() {
+        return tokenAuthorities;
+    }
+
+    @JsonProperty("details")
+    boolean hasDetails() {
+        return details;
+    }
+
+    @JsonProperty("remoteAddress")
+    String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @JsonProperty("sessionId")
+    String getSessionId() {
+        return sessionId;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.session;
+
+import com.webauthn4j.converter.util.CborConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.springframework.security.WebAuthnAuthenticationToken;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.LoginUser;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.AuthorityEntity;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codec of session attributes for sessions stored outside the JVM.
+ * <p>
+ * Authenticated {@link SecurityContext}s holding a {@link LoginUser} and challenges are written in a compact
+ * CBOR form; any other attribute falls back to JDK serialization. Every encoded value starts with a format version
+ * and a type tag, so that the format can evolve without breaking stored sessions.
+ * Decoded authority sets are interned, so that sessions granted the same authorities share one set.
+ */
+public class SessionAttributeCodec {
+
+    static final byte VERSION = 1;
+
+    static final byte TYPE_SERIALIZED = 0;
+    static final byte TYPE_SECURITY_CONTEXT = 1;
+    static final byte TYPE_CHALLENGE = 2;
+
+    private static final int MAX_INTERNED_AUTHORITY_SETS = 1024;
+
+    private final CborConverter cborConverter;
+    private final Map<List<String>, Set<GrantedAuthority>> authoritySets = new ConcurrentHashMap<>();
+
+    public SessionAttributeCodec(ObjectConverter objectConverter) {
+        this.cborConverter = objectConverter.getCborConverter();
+    }
+
+    public byte[] encode(Object attribute) {
+        if (attribute instanceof SecurityContext) {
+            SecurityContextEnvelope envelope = toEnvelope((SecurityContext) attribute);
+            if (envelope != null) {
+                return frame(TYPE_SECURITY_CONTEXT, cborConverter.writeValueAsBytes(envelope));
+            }
+        }
+        else if (attribute != null && attribute.getClass() == DefaultChallenge.class) {
+            return frame(TYPE_CHALLENGE, ((DefaultChallenge) attribute).getValue());
+        }
+        return frame(TYPE_SERIALIZED, serialize(attribute));
+    }
+
+    public Object decode(byte[] bytes) {
+        if (bytes.length < 2 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported session attribute format");
+        }
+        byte[] payload = Arrays.copyOfRange(bytes, 2, bytes.length);
+        switch (bytes[1]) {
+            case TYPE_SECURITY_CONTEXT:
+                return fromEnvelope(cborConverter.readValue(payload, SecurityContextEnvelope.class));
+            case TYPE_CHALLENGE:
+                return new DefaultChallenge(payload);
+            case TYPE_SERIALIZED:
+                return deserialize(payload);
+            default:
+                throw new IllegalArgumentException("Unknown session attribute type: " + bytes[1]);
+        }
+    }
+
+    /**
+     * return a {@link ConversionService} converting session attributes from and to byte arrays with this codec,
+     * in the form Spring Session expects as {@code springSessionConversionService}
+     *
+     * @return conversion service
+     */
+    public ConversionService createConversionService() {
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, this::encode);
+        conversionService.addConverter(byte[].class, Object.class, this::decode);
+        return conversionService;
+    }
+
+    private SecurityContextEnvelope toEnvelope(SecurityContext securityContext) {
+        if (securityContext.getClass() != SecurityContextImpl.class) {
+            return null;
+        }
+        Authentication authentication = securityContext.getAuthentication();
+        if (authentication == null) {
+            return SecurityContextEnvelope.empty();
+        }
+        int kind;
+        if (authentication.getClass() == UsernamePasswordAuthenticationToken.class && authentication.getCredentials() == null) {
+            kind = SecurityContextEnvelope.KIND_PASSWORD;
+        }
+        else if (authentication.getClass() == WebAuthnAuthenticationToken.class) {
+            // the assertion is of no use once the user is authenticated, so it is not written
+            kind = SecurityContextEnvelope.KIND_WEBAUTHN;
+        }
+        else {
+            return null;
+        }
+        if (!authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof LoginUser)) {
+            return null;
+        }
+        Object details = authentication.getDetails();
+        if (details != null && details.getClass() != WebAuthenticationDetails.class) {
+            return null;
+        }
+        LoginUser loginUser = (LoginUser) authentication.getPrincipal();
+        List<String> authorities = toNames(loginUser.getAuthorities());
+        List<String> tokenAuthorities = toNames(authentication.getAuthorities());
+        if (authorities == null || tokenAuthorities == null) {
+            return null;
+        }
+        WebAuthenticationDetails webAuthenticationDetails = (WebAuthenticationDetails) details;
+        return new SecurityContextEnvelope(
+                kind,
+                loginUser.getId(),
+                loginUser.getUsername(),
+                loginUser.getUserHandle(),
+                loginUser.isAccountNonLocked(),
+                authorities,
+                tokenAuthorities.equals(authorities) ? null : tokenAuthorities,
+                webAuthenticationDetails != null,
+                webAuthenticationDetails == null ? null : webAuthenticationDetails.getRemoteAddress(),
+                webAuthenticationDetails == null ? null : webAuthenticationDetails.getSessionId());
+    }
+
+    private SecurityContext fromEnvelope(SecurityContextEnvelope envelope) {
+        SecurityContextImpl securityContext = new SecurityContextImpl();
+        if (envelope.getKind() == SecurityContextEnvelope.KIND_EMPTY) {
+            return securityContext;
+        }
+        Set<GrantedAuthority> authorities = intern(envelope.getAuthorities());
+        Set<GrantedAuthority> tokenAuthorities = envelope.getTokenAuthorities() == null ? authorities : intern(envelope.getTokenAuthorities());
+        LoginUser loginUser = new LoginUser(envelope.getId(), envelope.getUsername(), envelope.getUserHandle(), authorities, envelope.isAccountNonLocked(), null);
+        AbstractAuthenticationToken authentication;
+        switch (envelope.getKind()) {
+            case SecurityContextEnvelope.KIND_PASSWORD:
+                authentication = UsernamePasswordAuthenticationToken.authenticated(loginUser, null, tokenAuthorities);
+                break;
+            case SecurityContextEnvelope.KIND_WEBAUTHN:
+                authentication = new WebAuthnAuthenticationToken(loginUser, null, tokenAuthorities);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown authentication kind: " + envelope.getKind());
+        }
+        if (envelope.hasDetails()) {
+            authentication.setDetails(new WebAuthenticationDetails(envelope.getRemoteAddress(), envelope.getSessionId()));
+        }
+        securityContext.setAuthentication(authentication);
+        return securityContext;
+    }
+
+    /**
+     * return the authority names, or null if an authority carries more than its name
+     */
+    private static List<String> toNames(Collection<? extends GrantedAuthority> authorities) {
+        List<String> names = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getClass() != SimpleGrantedAuthority.class && authority.getClass() != AuthorityEntity.class) {
+                return null;
+            }
+            names.add(authority.getAuthority());
+        }
+        return names;
+    }
+
+    private Set<GrantedAuthority> intern(List<String> names) {
+        Set<GrantedAuthority> authorities = authoritySets.get(names);
+        if (authorities != null) {
+            return authorities;
+        }
+        Set<GrantedAuthority> set = new LinkedHashSet<>();
+        for (String name : names) {
+            set.add(new SimpleGrantedAuthority(name));
+        }
+        authorities = Collections.unmodifiableSet(set);
+        if (authoritySets.size() < MAX_INTERNED_AUTHORITY_SETS) {
+            Set<GrantedAuthority> existing = authoritySets.putIfAbsent(names, authorities);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return authorities;
+    }
+
+    private static byte[] frame(byte type, byte[] payload) {
+        byte[] bytes = new byte[payload.length + 2];
+        bytes[0] = VERSION;
+        bytes[1] = type;
+        System.arraycopy(payload, 0, bytes, 2, payload.length);
+        return bytes;
+    }
+
+    private static byte[] serialize(Object attribute) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(attribute);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectInputStream.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -16,10 +16,11 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter;
 
-import com.webauthn4j.converter.util.CborConverter;
-import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.attestation.statement.AttestationStatement;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
 import com.webauthn4j.util.Base64UrlUtil;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
 
 import jakarta.persistence.AttributeConverter;
 
@@ -28,22 +29,25 @@ import jakarta.persistence.AttributeConverter;
  */
 public class AttestationStatementConverter implements AttributeConverter<AttestationStatement, String> {
 
-    private final CborConverter cborConverter;
+    private final ObjectReader reader;
 
-    public AttestationStatementConverter(ObjectConverter objectConverter) {
-        this.cborConverter = objectConverter.getCborConverter();
+    private final ObjectWriter writer;
+
+    public AttestationStatementConverter(ObjectCodecRegistry objectCodecRegistry) {
+        this.reader = objectCodecRegistry.cborReader(AttestationStatementSerializationContainer.class);
+        this.writer = objectCodecRegistry.cborWriter(AttestationStatementSerializationContainer.class);
     }
 
     @Override
     public String convertToDatabaseColumn(AttestationStatement attribute) {
         AttestationStatementSerializationContainer container = new AttestationStatementSerializationContainer(attribute);
-        return Base64UrlUtil.encodeToString(cborConverter.writeValueAsBytes(container));
+        return Base64UrlUtil.encodeToString(writer.writeValueAsBytes(container));
     }
 
     @Override
     public AttestationStatement convertToEntityAttribute(String dbData) {
         byte[] data = Base64UrlUtil.decode(dbData);
-        AttestationStatementSerializationContainer container = cborConverter.readValue(data, AttestationStatementSerializationContainer.class);
+        AttestationStatementSerializationContainer container = reader.readValue(data);
         return container.getAttestationStatement();
     }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter;
+
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import com.webauthn4j.data.extension.authenticator.RegistrationExtensionAuthenticatorOutput;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+
+import jakarta.persistence.AttributeConverter;
+import java.util.Map;
+
+/**
+ * AuthenticatorExtensionsConverter for binary column, which stores CBOR bytes without base64url encoding
+ */
+public class AuthenticatorExtensionsBinaryConverter implements AttributeConverter<Map<String, RegistrationExtensionAuthenticatorOutput>, byte[]> {
+
+    private static final TypeReference<Map<String, RegistrationExtensionAuthenticatorOutput>> TYPE_REFERENCE = new TypeReference<Map<String, RegistrationExtensionAuthenticatorOutput>>() {
+    };
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    public AuthenticatorExtensionsBinaryConverter(ObjectCodecRegistry objectCodecRegistry) {
+        this.reader = objectCodecRegistry.cborReader(TYPE_REFERENCE);
+        this.writer = objectCodecRegistry.cborWriter(TYPE_REFERENCE);
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(Map<String, RegistrationExtensionAuthenticatorOutput> attribute) {
+        return writer.writeValueAsBytes(attribute);
+    }
+
+    @Override
+    public Map<String, RegistrationExtensionAuthenticatorOutput> convertToEntityAttribute(byte[] dbData) {
+        return reader.readValue(dbData);
+    }
+}
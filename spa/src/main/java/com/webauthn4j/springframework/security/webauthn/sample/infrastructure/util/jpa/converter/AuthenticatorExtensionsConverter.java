@@ -17,9 +17,10 @@
 package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter;
 
 import tools.jackson.core.type.TypeReference;
-import com.webauthn4j.converter.util.CborConverter;
-import com.webauthn4j.converter.util.ObjectConverter;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
 import com.webauthn4j.data.extension.authenticator.RegistrationExtensionAuthenticatorOutput;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
 import com.webauthn4j.util.Base64UrlUtil;
 
 import jakarta.persistence.AttributeConverter;
@@ -27,20 +28,25 @@ import java.util.Map;
 
 public class AuthenticatorExtensionsConverter implements AttributeConverter<Map<String, RegistrationExtensionAuthenticatorOutput>, String> {
 
-    private final CborConverter cborConverter;
+    private static final TypeReference<Map<String, RegistrationExtensionAuthenticatorOutput>> TYPE_REFERENCE = new TypeReference<Map<String, RegistrationExtensionAuthenticatorOutput>>() {
+    };
 
-    public AuthenticatorExtensionsConverter(ObjectConverter objectConverter) {
-        this.cborConverter = objectConverter.getCborConverter();
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    public AuthenticatorExtensionsConverter(ObjectCodecRegistry objectCodecRegistry) {
+        this.reader = objectCodecRegistry.cborReader(TYPE_REFERENCE);
+        this.writer = objectCodecRegistry.cborWriter(TYPE_REFERENCE);
     }
 
     @Override
     public String convertToDatabaseColumn(Map<String, RegistrationExtensionAuthenticatorOutput> attribute) {
-        return Base64UrlUtil.encodeToString(cborConverter.writeValueAsBytes(attribute));
+        return Base64UrlUtil.encodeToString(writer.writeValueAsBytes(attribute));
     }
 
     @Override
     public Map<String, RegistrationExtensionAuthenticatorOutput> convertToEntityAttribute(String dbData) {
-        return cborConverter.readValue(Base64UrlUtil.decode(dbData), new TypeReference<Map<String, RegistrationExtensionAuthenticatorOutput>>() {
-        });
+        return reader.readValue(Base64UrlUtil.decode(dbData));
     }
 }
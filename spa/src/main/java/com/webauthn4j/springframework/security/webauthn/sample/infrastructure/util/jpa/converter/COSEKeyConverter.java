@@ -16,9 +16,10 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter;
 
-import com.webauthn4j.converter.util.CborConverter;
-import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.attestation.authenticator.COSEKey;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
 
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
@@ -26,19 +27,22 @@ import jakarta.persistence.Converter;
 @Converter
 public class COSEKeyConverter implements AttributeConverter<COSEKey, byte[]> {
 
-    private final CborConverter cborConverter;
+    private final ObjectReader reader;
 
-    public COSEKeyConverter(ObjectConverter objectConverter) {
-        this.cborConverter = objectConverter.getCborConverter();
+    private final ObjectWriter writer;
+
+    public COSEKeyConverter(ObjectCodecRegistry objectCodecRegistry) {
+        this.reader = objectCodecRegistry.cborReader(COSEKey.class);
+        this.writer = objectCodecRegistry.cborWriter(COSEKey.class);
     }
 
     @Override
     public byte[] convertToDatabaseColumn(COSEKey attribute) {
-        return cborConverter.writeValueAsBytes(attribute);
+        return writer.writeValueAsBytes(attribute);
     }
 
     @Override
     public COSEKey convertToEntityAttribute(byte[] dbData) {
-        return cborConverter.readValue(dbData, COSEKey.class);
+        return reader.readValue(dbData);
     }
 }
@@ -17,29 +17,35 @@
 package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter;
 
 import tools.jackson.core.type.TypeReference;
-import com.webauthn4j.converter.util.JsonConverter;
-import com.webauthn4j.converter.util.ObjectConverter;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
 import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
 
 import jakarta.persistence.AttributeConverter;
 import java.util.Map;
 
 public class ClientExtensionsConverter implements AttributeConverter<Map<String, RegistrationExtensionClientOutput>, String> {
 
-    private final JsonConverter jsonConverter;
+    private static final TypeReference<Map<String, RegistrationExtensionClientOutput>> TYPE_REFERENCE = new TypeReference<Map<String, RegistrationExtensionClientOutput>>() {
+    };
 
-    public ClientExtensionsConverter(ObjectConverter objectConverter) {
-        this.jsonConverter = objectConverter.getJsonConverter();
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    public ClientExtensionsConverter(ObjectCodecRegistry objectCodecRegistry) {
+        this.reader = objectCodecRegistry.jsonReader(TYPE_REFERENCE);
+        this.writer = objectCodecRegistry.jsonWriter(TYPE_REFERENCE);
     }
 
     @Override
     public String convertToDatabaseColumn(Map<String, RegistrationExtensionClientOutput> attribute) {
-        return jsonConverter.writeValueAsString(attribute);
+        return writer.writeValueAsString(attribute);
     }
 
     @Override
     public Map<String, RegistrationExtensionClientOutput> convertToEntityAttribute(String dbData) {
-        return jsonConverter.readValue(dbData, new TypeReference<Map<String, RegistrationExtensionClientOutput>>() {
-        });
+        return reader.readValue(dbData);
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter;
+
+import com.webauthn4j.data.client.CollectedClientData;
+import com.webauthn4j.springframework.security.webauthn.sample.converter.ObjectCodecRegistry;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * CollectedClientDataConverter for binary column, which stores clientDataJSON bytes without base64url encoding
+ */
+public class CollectedClientDataBinaryConverter implements AttributeConverter<CollectedClientData, byte[]> {
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    public CollectedClientDataBinaryConverter(ObjectCodecRegistry objectCodecRegistry) {
+        this.reader = objectCodecRegistry.jsonReader(CollectedClientData.class);
+        this.writer = objectCodecRegistry.jsonWriter(CollectedClientData.class);
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(CollectedClientData attribute) {
+        if (attribute == null) return null;
+        return writer.writeValueAsBytes(attribute);
+    }
+
+    @Override
+    public CollectedClientData convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null) return null;
+        return reader.readValue(dbData);
+    }
+}
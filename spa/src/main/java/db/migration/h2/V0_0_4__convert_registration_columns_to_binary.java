@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package db.migration.h2;
+
+import com.webauthn4j.util.Base64UrlUtil;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.*;
+
+/**
+ * Converts base64url encoded CLOB columns of m_credential_record_registration to binary columns.
+ * Rows are converted in chunks to bound the memory footprint and the size of each update batch.
+ */
+@SuppressWarnings("squid:S00101")
+public class V0_0_4__convert_registration_columns_to_binary extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String[] COLUMNS = {"attestation_statement", "client_data", "authenticator_extensions"};
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            for (String column : COLUMNS) {
+                statement.execute("ALTER TABLE m_credential_record_registration ADD COLUMN " + column + "_bin BLOB");
+            }
+        }
+
+        int lastId = 0;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, attestation_statement, client_data, authenticator_extensions FROM m_credential_record_registration WHERE id > ? ORDER BY id LIMIT " + CHUNK_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE m_credential_record_registration SET attestation_statement_bin = ?, client_data_bin = ?, authenticator_extensions_bin = ? WHERE id = ?")) {
+            while (true) {
+                select.setInt(1, lastId);
+                int count = 0;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getInt("id");
+                        for (int i = 0; i < COLUMNS.length; i++) {
+                            update.setBytes(i + 1, Base64UrlUtil.decode(resultSet.getString(COLUMNS[i])));
+                        }
+                        update.setInt(COLUMNS.length + 1, lastId);
+                        update.addBatch();
+                        count++;
+                    }
+                }
+                if (count == 0) {
+                    break;
+                }
+                update.executeBatch();
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String column : COLUMNS) {
+                statement.execute("ALTER TABLE m_credential_record_registration DROP COLUMN " + column);
+                statement.execute("ALTER TABLE m_credential_record_registration ALTER COLUMN " + column + "_bin RENAME TO " + column);
+                statement.execute("ALTER TABLE m_credential_record_registration ALTER COLUMN " + column + " SET NOT NULL");
+            }
+        }
+    }
+}
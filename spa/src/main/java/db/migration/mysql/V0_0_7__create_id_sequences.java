@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package db.migration.mysql;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.*;
+
+/**
+ * Creates the id sequences used by the pooled optimizer. MySQL has no sequences, so each one is the single row
+ * table Hibernate emulates them with. Each sequence starts at the current max id plus the allocation size, because
+ * the pooled optimizer treats a sequence value as the upper bound of an id block.
+ */
+@SuppressWarnings("squid:S00101")
+public class V0_0_7__create_id_sequences extends BaseJavaMigration {
+
+    /**
+     * must be kept in sync with allocationSize of the @SequenceGenerator of each entity
+     */
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String[] TABLES = {"m_user", "m_group", "m_authority", "m_credential_record", "m_credential_record_registration"};
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                long maxId;
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                    resultSet.next();
+                    maxId = resultSet.getLong(1);
+                }
+                statement.execute("CREATE TABLE " + table + "_seq (next_val BIGINT)");
+                statement.execute("INSERT INTO " + table + "_seq VALUES (" + (maxId + ALLOCATION_SIZE) + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Credential ID digest column, which is used as a fixed-width lookup key --
+ALTER TABLE m_credential_record ADD COLUMN credential_id_digest BINARY(32);
+
+UPDATE m_credential_record SET credential_id_digest = HASH('SHA-256', credential_id);
+
+ALTER TABLE m_credential_record ALTER COLUMN credential_id_digest SET NOT NULL;
+
+CREATE UNIQUE INDEX ux_credential_record_credential_id_digest ON m_credential_record(credential_id_digest);
@@ -0,0 +1,29 @@
+-- Registration artifacts of the authenticator, which are not needed for authentication --
+CREATE TABLE m_credential_record_registration(
+  id                        INTEGER       NOT NULL AUTO_INCREMENT,
+  credential_record_id      INTEGER,
+  attestation_statement     CLOB          NOT NULL,
+  client_data               CLOB          NOT NULL,
+  client_extensions         CLOB          NOT NULL,
+  authenticator_extensions  CLOB          NOT NULL,
+  primary key(id)
+);
+
+INSERT INTO m_credential_record_registration (credential_record_id, attestation_statement, client_data, client_extensions, authenticator_extensions)
+  SELECT id, attestation_statement, client_data, client_extensions, authenticator_extensions FROM m_credential_record;
+
+ALTER TABLE m_credential_record ADD COLUMN registration_id INTEGER;
+
+UPDATE m_credential_record SET registration_id =
+  (SELECT registration.id FROM m_credential_record_registration registration WHERE registration.credential_record_id = m_credential_record.id);
+
+ALTER TABLE m_credential_record ALTER COLUMN registration_id SET NOT NULL;
+ALTER TABLE m_credential_record ADD CONSTRAINT fk_credential_record_registration FOREIGN KEY (registration_id) REFERENCES m_credential_record_registration(id);
+CREATE UNIQUE INDEX ux_credential_record_registration_id ON m_credential_record(registration_id);
+
+ALTER TABLE m_credential_record_registration DROP COLUMN credential_record_id;
+
+ALTER TABLE m_credential_record DROP COLUMN attestation_statement;
+ALTER TABLE m_credential_record DROP COLUMN client_data;
+ALTER TABLE m_credential_record DROP COLUMN client_extensions;
+ALTER TABLE m_credential_record DROP COLUMN authenticator_extensions;
@@ -0,0 +1,17 @@
+-- User search token table: trigrams of first name, last name and email address --
+CREATE TABLE m_user_search_token (
+  user_id           INTEGER        NOT NULL,
+  token             VARCHAR(3)     NOT NULL,
+  primary key(user_id, token),
+  FOREIGN KEY (user_id) REFERENCES m_user(id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_user_search_token_token ON m_user_search_token(token, user_id);
+
+-- Backfill tokens of existing users --
+INSERT INTO m_user_search_token (user_id, token)
+SELECT u.id, SUBSTRING(LOWER(u.first_name), r.X, 3) FROM m_user u JOIN SYSTEM_RANGE(1, 64) r ON r.X <= CHAR_LENGTH(u.first_name) - 2
+UNION
+SELECT u.id, SUBSTRING(LOWER(u.last_name), r.X, 3) FROM m_user u JOIN SYSTEM_RANGE(1, 64) r ON r.X <= CHAR_LENGTH(u.last_name) - 2
+UNION
+SELECT u.id, SUBSTRING(LOWER(u.email_address), r.X, 3) FROM m_user u JOIN SYSTEM_RANGE(1, 64) r ON r.X <= CHAR_LENGTH(u.email_address) - 2;
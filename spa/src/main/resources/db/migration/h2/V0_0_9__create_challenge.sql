@@ -0,0 +1,9 @@
+-- Issued WebAuthn challenges shared by all nodes. Rows are deleted when consumed or expired --
+CREATE TABLE t_challenge (
+  challenge_key     VARCHAR(32)     NOT NULL,
+  challenge_value   VARBINARY(1024) NOT NULL,
+  expiry            BIGINT          NOT NULL,
+  primary key(challenge_key)
+);
+
+CREATE INDEX ix_challenge_expiry ON t_challenge(expiry);
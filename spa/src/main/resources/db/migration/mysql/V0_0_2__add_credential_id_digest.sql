@@ -0,0 +1,8 @@
+-- Credential ID digest column, which is used as a fixed-width lookup key --
+ALTER TABLE m_credential_record ADD COLUMN credential_id_digest BINARY(32);
+
+UPDATE m_credential_record SET credential_id_digest = UNHEX(SHA2(credential_id, 256));
+
+ALTER TABLE m_credential_record MODIFY COLUMN credential_id_digest BINARY(32) NOT NULL;
+
+CREATE UNIQUE INDEX ux_credential_record_credential_id_digest ON m_credential_record(credential_id_digest);
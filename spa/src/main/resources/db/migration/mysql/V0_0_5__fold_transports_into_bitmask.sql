@@ -0,0 +1,22 @@
+-- Transports are stored as a bitmask of known transports (usb: 1, nfc: 2, ble: 4, internal: 8, hybrid: 16, smart-card: 32) --
+-- and a comma separated overflow column for unknown transports --
+ALTER TABLE m_credential_record ADD COLUMN transports INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE m_credential_record ADD COLUMN transports_overflow VARCHAR(255);
+
+UPDATE m_credential_record SET transports = COALESCE(
+  (SELECT SUM(DISTINCT CASE transport.transport
+      WHEN 'usb' THEN 1
+      WHEN 'nfc' THEN 2
+      WHEN 'ble' THEN 4
+      WHEN 'internal' THEN 8
+      WHEN 'hybrid' THEN 16
+      WHEN 'smart-card' THEN 32
+      ELSE 0 END)
+   FROM m_transport transport WHERE transport.credential_record_id = m_credential_record.id), 0);
+
+UPDATE m_credential_record SET transports_overflow =
+  (SELECT GROUP_CONCAT(DISTINCT transport.transport SEPARATOR ',') FROM m_transport transport
+   WHERE transport.credential_record_id = m_credential_record.id
+     AND transport.transport NOT IN ('usb', 'nfc', 'ble', 'internal', 'hybrid', 'smart-card'));
+
+DROP TABLE m_transport;
@@ -0,0 +1,19 @@
+-- User search token table: trigrams of first name, last name and email address --
+-- Tokens are compared by code point, as they are already normalized by the application --
+CREATE TABLE m_user_search_token (
+  user_id           INTEGER        NOT NULL,
+  token             VARCHAR(3)     COLLATE utf8mb4_bin NOT NULL,
+  primary key(user_id, token),
+  FOREIGN KEY (user_id) REFERENCES m_user(id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_user_search_token_token ON m_user_search_token(token, user_id);
+
+-- Backfill tokens of existing users --
+INSERT INTO m_user_search_token (user_id, token)
+WITH RECURSIVE r (x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM r WHERE x < 64)
+SELECT u.id, SUBSTRING(LOWER(u.first_name), r.x, 3) FROM m_user u JOIN r ON r.x <= CHAR_LENGTH(u.first_name) - 2
+UNION
+SELECT u.id, SUBSTRING(LOWER(u.last_name), r.x, 3) FROM m_user u JOIN r ON r.x <= CHAR_LENGTH(u.last_name) - 2
+UNION
+SELECT u.id, SUBSTRING(LOWER(u.email_address), r.x, 3) FROM m_user u JOIN r ON r.x <= CHAR_LENGTH(u.email_address) - 2;
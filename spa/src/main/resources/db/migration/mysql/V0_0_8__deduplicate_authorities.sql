@@ -0,0 +1,23 @@
+-- Repoint user and group relations to the canonical (lowest id) authority row --
+INSERT INTO r_user_authority (user_id, authority_id)
+SELECT DISTINCT ua.user_id, canonical.id
+FROM r_user_authority ua
+JOIN m_authority a ON a.id = ua.authority_id
+JOIN (SELECT authority, MIN(id) AS id FROM m_authority GROUP BY authority) canonical ON canonical.authority = a.authority
+WHERE a.id <> canonical.id
+  AND NOT EXISTS (SELECT 1 FROM r_user_authority x WHERE x.user_id = ua.user_id AND x.authority_id = canonical.id);
+
+INSERT INTO r_group_authority (group_id, authority_id)
+SELECT DISTINCT ga.group_id, canonical.id
+FROM r_group_authority ga
+JOIN m_authority a ON a.id = ga.authority_id
+JOIN (SELECT authority, MIN(id) AS id FROM m_authority GROUP BY authority) canonical ON canonical.authority = a.authority
+WHERE a.id <> canonical.id
+  AND NOT EXISTS (SELECT 1 FROM r_group_authority x WHERE x.group_id = ga.group_id AND x.authority_id = canonical.id);
+
+-- Remove duplicated authority rows. Relations to them are removed by ON DELETE CASCADE --
+DELETE a FROM m_authority a
+JOIN (SELECT authority, MIN(id) AS id FROM m_authority GROUP BY authority) canonical ON canonical.authority = a.authority
+WHERE a.id <> canonical.id;
+
+ALTER TABLE m_authority ADD CONSTRAINT ux_authority_authority UNIQUE (authority);
@@ -91,7 +91,7 @@ public class ProfileControllerTest {
         userEntity.setLastName("Doe");
         userEntity.setEmailAddress("john.doe@example.com");
         userEntity.setCredentialRecords(Collections.emptyList());
-        userEntity.setAuthorities(Collections.singletonList(new AuthorityEntity(0, "SINGLE_FACTOR_AUTHN_ALLOWED")));
+        userEntity.setAuthorityEntities(Collections.singletonList(new AuthorityEntity(0, "SINGLE_FACTOR_AUTHN_ALLOWED")));
 
         when(profileAppService.findOne(userId)).thenReturn(userEntity);
 
@@ -129,7 +129,7 @@ public class ProfileControllerTest {
         userEntity.setLastName("Doe");
         userEntity.setEmailAddress("john.doe@example.com");
         userEntity.setCredentialRecords(Collections.emptyList());
-        userEntity.setAuthorities(Collections.singletonList(new AuthorityEntity(0, "SINGLE_FACTOR_AUTHN_ALLOWED")));
+        userEntity.setAuthorityEntities(Collections.singletonList(new AuthorityEntity(0, "SINGLE_FACTOR_AUTHN_ALLOWED")));
 
         when(profileAppService.create(any())).thenReturn(userEntity);
 
@@ -176,7 +176,7 @@ public class ProfileControllerTest {
         userEntity.setLastName("Smith");
         userEntity.setEmailAddress("john.smith@example.com");
         userEntity.setCredentialRecords(Collections.emptyList());
-        userEntity.setAuthorities(Collections.singletonList(new AuthorityEntity(0, "SINGLE_FACTOR_AUTHN_ALLOWED")));
+        userEntity.setAuthorityEntities(Collections.singletonList(new AuthorityEntity(0, "SINGLE_FACTOR_AUTHN_ALLOWED")));
 
         when(profileAppService.update(anyInt(), any())).thenReturn(userEntity);
 
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.app.api;
+
+import com.webauthn4j.WebAuthnManager;
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.RegistrationData;
+import com.webauthn4j.data.RegistrationParameters;
+import com.webauthn4j.data.attestation.AttestationObject;
+import com.webauthn4j.data.client.CollectedClientData;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RegistrationContextTest {
+
+    @Test
+    public void of_reuses_decoded_artifacts_test() {
+        AuthenticatorForm form = createAuthenticatorForm();
+
+        RegistrationContext registrationContext = RegistrationContext.of(form, null);
+        WebAuthnManager webAuthnManager = mock(WebAuthnManager.class);
+        registrationContext.verify(webAuthnManager, mock(RegistrationParameters.class));
+
+        RegistrationData registrationData = registrationContext.getVerifiedRegistrationData();
+        assertThat(registrationData.getAttestationObject()).isSameAs(form.getAttestationObject().getAttestationObject());
+        assertThat(registrationData.getAttestationObjectBytes()).isSameAs(form.getAttestationObject().getAttestationObjectBytes());
+        assertThat(registrationData.getCollectedClientData()).isSameAs(form.getClientData().getCollectedClientData());
+        assertThat(registrationData.getCollectedClientDataBytes()).isSameAs(form.getClientData().getClientDataBytes());
+        assertThat(registrationData.getTransports()).containsExactly(AuthenticatorTransport.USB, AuthenticatorTransport.INTERNAL);
+        verify(webAuthnManager, times(1)).verify(same(registrationData), any(RegistrationParameters.class));
+    }
+
+    @Test
+    public void getVerifiedRegistrationData_before_verify_test() {
+        RegistrationContext registrationContext = RegistrationContext.of(createAuthenticatorForm(), null);
+
+        assertThat(registrationContext.isVerified()).isFalse();
+        assertThatThrownBy(registrationContext::getVerifiedRegistrationData).isInstanceOf(IllegalStateException.class);
+    }
+
+    private AuthenticatorForm createAuthenticatorForm() {
+        AttestationObjectForm attestationObjectForm = new AttestationObjectForm();
+        attestationObjectForm.setAttestationObject(mock(AttestationObject.class));
+        attestationObjectForm.setAttestationObjectBytes(new byte[]{0x01, 0x02});
+        CollectedClientDataForm collectedClientDataForm = new CollectedClientDataForm();
+        collectedClientDataForm.setCollectedClientData(mock(CollectedClientData.class));
+        collectedClientDataForm.setClientDataBytes(new byte[]{0x03, 0x04});
+
+        AuthenticatorForm form = new AuthenticatorForm();
+        form.setAttestationObject(attestationObjectForm);
+        form.setClientData(collectedClientDataForm);
+        form.setTransports(new LinkedHashSet<>(Arrays.asList("usb", "internal")));
+        return form;
+    }
+}
@@ -16,5 +16,110 @@
 
 package com.webauthn4j.springframework.security.webauthn.sample.app.api.admin;
 
+import com.webauthn4j.springframework.security.webauthn.sample.app.config.AppConfig;
+import com.webauthn4j.springframework.security.webauthn.sample.app.service.UserAppService;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.AuthorityEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.test.WithMockWebAuthnUser;
+import com.webauthn4j.springframework.security.webauthn.sample.test.app.config.TestSecurityConfig;
+import com.webauthn4j.springframework.security.webauthn.sample.test.infrastructure.config.InfrastructureMockConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Import(value = {TestSecurityConfig.class, AppConfig.class, InfrastructureMockConfig.class})
 public class UserControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mvc;
+
+    @MockitoBean
+    UserAppService userAppService;
+
+    @Before
+    public void setup() {
+        mvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+    }
+
+    @Test
+    @WithMockWebAuthnUser(id = 1, firstName = "Admin", lastName = "User", emailAddress = "admin@example.com", authorities = {"ROLE_ADMIN"}, authenticators = {})
+    public void list_test() throws Exception {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(3);
+        userEntity.setFirstName("John");
+        userEntity.setLastName("Doe");
+        userEntity.setEmailAddress("john.doe@example.com");
+        userEntity.setAuthorityEntities(Collections.singletonList(new AuthorityEntity(0, "SINGLE_FACTOR_AUTHN_ALLOWED")));
+
+        when(userAppService.findAllByKeyword("doe", 2, 1)).thenReturn(new SliceImpl<>(Collections.singletonList(userEntity), PageRequest.of(0, 1), true));
+
+        //When
+        mvc.perform(get("/api/admin/user").param("keyword", "doe").param("afterId", "2").param("size", "1"))
+                //Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].id", is(3)))
+                .andExpect(jsonPath("$.users[0].emailAddress", is("john.doe@example.com")))
+                .andExpect(jsonPath("$.users[0].authorities", contains("SINGLE_FACTOR_AUTHN_ALLOWED")))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextAfterId", is(3)))
+        ;
+    }
+
+    @Test
+    @WithMockWebAuthnUser(id = 1, firstName = "Admin", lastName = "User", emailAddress = "admin@example.com", authorities = {"ROLE_ADMIN"}, authenticators = {})
+    public void list_page_size_is_bounded_test() throws Exception {
+        when(userAppService.findAllByKeyword(null, null, UserController.MAX_PAGE_SIZE)).thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        //When
+        mvc.perform(get("/api/admin/user").param("size", "100000"))
+                //Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(0)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+        ;
+        verify(userAppService).findAllByKeyword(null, null, UserController.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    @WithMockWebAuthnUser(id = 1, firstName = "John", lastName = "Doe", emailAddress = "john.doe@example.com", authorities = {"ROLE_USER"}, authenticators = {})
+    public void list_without_admin_role_test() throws Exception {
+        //When
+        mvc.perform(get("/api/admin/user"))
+                //Then
+                .andExpect(status().isForbidden());
+        verify(userAppService, never()).findAllByKeyword(any(), any(), anyInt());
+    }
 }
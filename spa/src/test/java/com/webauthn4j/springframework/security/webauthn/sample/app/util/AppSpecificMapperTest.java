@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.app.util;
+
+import com.webauthn4j.springframework.security.webauthn.sample.app.api.AuthenticatorForm;
+import com.webauthn4j.springframework.security.webauthn.sample.app.api.ProfileCreateForm;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.exception.WebAuthnSampleBusinessException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AppSpecificMapperTest {
+
+    private final AppSpecificMapper target = new AppSpecificMapper();
+
+    @Before
+    public void setup() {
+        target.passwordEncoder = new BCryptPasswordEncoder(4);
+    }
+
+    @Test
+    public void mapForCreate_without_registration_context_test() {
+        AuthenticatorForm authenticatorForm = new AuthenticatorForm();
+        authenticatorForm.setName("key");
+
+        ProfileCreateForm profileCreateForm = new ProfileCreateForm();
+        profileCreateForm.setUserHandle("ABEiMw");
+        profileCreateForm.setFirstName("John");
+        profileCreateForm.setLastName("Doe");
+        profileCreateForm.setEmailAddress("john.doe@example.com");
+        profileCreateForm.setPassword("password");
+        profileCreateForm.setSingleFactorAuthenticationAllowed(false);
+        profileCreateForm.setAuthenticators(Collections.singletonList(authenticatorForm));
+
+        assertThatThrownBy(() -> target.mapForCreate(profileCreateForm))
+                .isInstanceOf(WebAuthnSampleBusinessException.class);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.AuthorityEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.exception.WebAuthnSampleEntityNotFoundException;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.AuthorityEntityRepository;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.UserEntityRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AuthorityRegistryTest {
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    @Autowired
+    private AuthorityEntityRepository authorityEntityRepository;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AuthorityEntity createdBehindRegistry;
+
+    private UserEntity user;
+
+    @After
+    public void tearDown() {
+        if (user != null) {
+            userEntityRepository.deleteById(user.getId());
+            authorityRegistry.evictUser(user.getId());
+        }
+        if (createdBehindRegistry != null) {
+            authorityEntityRepository.deleteById(createdBehindRegistry.getId());
+        }
+        authorityRegistry.reload();
+    }
+
+    @Test
+    public void built_in_authorities_are_created_at_startup_test() {
+        for (String authority : AuthorityRegistry.BUILT_IN_AUTHORITIES) {
+            assertThat(authorityEntityRepository.findAll()).filteredOn(entity -> authority.equals(entity.getAuthority())).hasSize(1);
+            assertThat(authorityRegistry.getAuthority(authority).getAuthority()).isEqualTo(authority);
+        }
+    }
+
+    @Test
+    public void getAuthority_returns_authority_created_behind_registry_test() {
+        // load the registry before the authority is created behind its back
+        authorityRegistry.getAuthority("SINGLE_FACTOR_AUTHN_ALLOWED");
+        String authority = "ROLE_" + UUID.randomUUID();
+        createdBehindRegistry = authorityEntityRepository.saveAndFlush(new AuthorityEntity(null, authority));
+
+        // the registry is reloaded in the caller's transaction
+        AuthorityEntity resolved = new TransactionTemplate(transactionManager).execute(status -> {
+            AuthorityEntity authorityEntity = authorityRegistry.getAuthority(authority);
+            assertThat(status.isRollbackOnly()).isFalse();
+            return authorityEntity;
+        });
+
+        assertThat(resolved.getId()).isEqualTo(createdBehindRegistry.getId());
+    }
+
+    @Test
+    public void getAuthority_does_not_create_missing_authority_test() {
+        String authority = "ROLE_" + UUID.randomUUID();
+
+        assertThatThrownBy(() -> authorityRegistry.getAuthority(authority)).isInstanceOf(WebAuthnSampleEntityNotFoundException.class);
+        assertThat(authorityEntityRepository.findAll()).noneMatch(entity -> authority.equals(entity.getAuthority()));
+    }
+
+    @Test
+    public void resolveAuthorities_caches_authority_ids_per_user_test() {
+        user = createUser();
+        AuthorityEntity admin = authorityRegistry.getAuthority("ROLE_ADMIN");
+        assertThat(authorityRegistry.resolveAuthorities(user.getId())).isEmpty();
+
+        jdbcTemplate.update("INSERT INTO r_user_authority (user_id, authority_id) VALUES (?, ?)", user.getId(), admin.getId());
+
+        assertThat(authorityRegistry.resolveAuthorities(user.getId())).isEmpty();
+        authorityRegistry.evictUser(user.getId());
+        assertThat(authorityRegistry.resolveAuthorities(user.getId())).containsExactly(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    }
+
+    private UserEntity createUser() {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUserHandle(new byte[]{0x01, 0x02, 0x03, 0x04});
+        userEntity.setFirstName("John");
+        userEntity.setLastName("Doe");
+        userEntity.setEmailAddress(UUID.randomUUID() + "@example.com");
+        userEntity.setPassword("password");
+        userEntity.setGroups(new ArrayList<>());
+        userEntity.setAuthorityEntities(new ArrayList<>());
+        userEntity.setCredentialRecords(new ArrayList<>());
+        return userEntityRepository.save(userEntity);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.authenticator.EC2COSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecordService;
+import com.webauthn4j.springframework.security.exception.CredentialIdNotFoundException;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.UserEntityRepository;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.service.UserService;
+import com.webauthn4j.util.ECUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that credentials removed through the user use cases are not served from {@link CredentialRecordCache}
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CachingCredentialRecordManagerTest {
+
+    @Autowired
+    private WebAuthnCredentialRecordService credentialRecordService;
+
+    @Autowired
+    private UserManager userManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    private Integer userId;
+
+    private byte[] credentialId;
+
+    @Before
+    public void setup() {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUserHandle(new byte[]{0x01, 0x02, 0x03, 0x04});
+        userEntity.setFirstName("John");
+        userEntity.setLastName("Doe");
+        userEntity.setEmailAddress(UUID.randomUUID() + "@example.com");
+        userEntity.setPassword("password");
+        userEntity.setGroups(new ArrayList<>());
+        userEntity.setAuthorityEntities(new ArrayList<>());
+        List<CredentialRecordEntity> credentialRecords = new ArrayList<>();
+        credentialRecords.add(createCredentialRecord(userEntity));
+        userEntity.setCredentialRecords(credentialRecords);
+        userId = userManager.createUser(userEntity).getId();
+        credentialId = credentialRecords.get(0).getAttestedCredentialData().getCredentialId();
+
+        // populate the cache
+        assertThat(credentialRecordService.loadCredentialRecordByCredentialId(credentialId)).isNotNull();
+    }
+
+    @After
+    public void tearDown() {
+        if (userId != null && userEntityRepository.existsById(userId)) {
+            userEntityRepository.deleteById(userId);
+        }
+    }
+
+    @Test
+    public void deleted_user_credential_is_not_served_test() {
+        userManager.deleteUser(userId);
+
+        assertThatThrownBy(() -> credentialRecordService.loadCredentialRecordByCredentialId(credentialId))
+                .isInstanceOf(CredentialIdNotFoundException.class);
+    }
+
+    @Test
+    public void removed_credential_is_not_served_test() {
+        userService.update(userId, user -> user.getCredentialRecords().clear());
+
+        assertThatThrownBy(() -> credentialRecordService.loadCredentialRecordByCredentialId(credentialId))
+                .isInstanceOf(CredentialIdNotFoundException.class);
+    }
+
+    private CredentialRecordEntity createCredentialRecord(UserEntity user) {
+        byte[] id = UUID.randomUUID().toString().getBytes();
+        EC2COSEKey coseKey = EC2COSEKey.create((ECPublicKey) ECUtil.createKeyPair().getPublic(), COSEAlgorithmIdentifier.ES256);
+        CredentialRecordEntity credentialRecordEntity = new CredentialRecordEntity();
+        credentialRecordEntity.setName("key");
+        credentialRecordEntity.setUser(user);
+        credentialRecordEntity.setAttestedCredentialData(new AttestedCredentialData(AAGUID.ZERO, id, coseKey));
+        credentialRecordEntity.setAttestationStatement(new NoneAttestationStatement());
+        credentialRecordEntity.setTransports(Collections.singleton(AuthenticatorTransport.create("usb")));
+        return credentialRecordEntity;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.util.ByteArrayKey;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CounterWriteBehindBufferTest {
+
+    private final List<Map<ByteArrayKey, Long>> flushed = new ArrayList<>();
+
+    private final CounterWriteBehindBuffer target = new CounterWriteBehindBuffer(
+            (counters, batchSize) -> flushed.add(new HashMap<>(counters)), Duration.ofMinutes(1), 100);
+
+    @Test
+    public void offer_keeps_monotonic_max_test() {
+        byte[] credentialId = new byte[]{0x01, 0x02};
+
+        assertThat(target.offer(credentialId, 5)).isTrue();
+        assertThat(target.offer(credentialId.clone(), 3)).isFalse();
+        assertThat(target.offer(credentialId, 5)).isFalse();
+        assertThat(target.offer(credentialId, 7)).isTrue();
+
+        assertThat(target.getPendingCounter(credentialId)).isEqualTo(7);
+        assertThat(target.getPendingCounter(new byte[]{0x03})).isEqualTo(-1);
+    }
+
+    @Test
+    public void flush_coalesces_updates_test() {
+        byte[] credentialIdA = new byte[]{0x01};
+        byte[] credentialIdB = new byte[]{0x02};
+        target.offer(credentialIdA, 1);
+        target.offer(credentialIdA, 2);
+        target.offer(credentialIdB, 10);
+
+        target.flush();
+
+        assertThat(flushed).hasSize(1);
+        assertThat(flushed.get(0)).containsEntry(new ByteArrayKey(credentialIdA), 2L).containsEntry(new ByteArrayKey(credentialIdB), 10L);
+        assertThat(target.getPendingCount()).isZero();
+
+        target.flush();
+        assertThat(flushed).hasSize(1);
+    }
+
+    @Test
+    public void stop_flushes_pending_counters_test() {
+        target.start();
+        target.offer(new byte[]{0x01}, 1);
+
+        target.stop();
+
+        assertThat(target.isRunning()).isFalse();
+        assertThat(flushed).hasSize(1);
+    }
+}
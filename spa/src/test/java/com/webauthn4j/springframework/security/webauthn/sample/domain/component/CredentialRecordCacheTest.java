@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CredentialRecordCacheTest {
+
+    private final CredentialRecordCache target = new CredentialRecordCache(100, Duration.ofMinutes(10));
+
+    @Test
+    public void get_test() {
+        AtomicInteger loadCount = new AtomicInteger();
+        byte[] credentialId = new byte[]{0x01, 0x02};
+
+        target.get(credentialId, key -> {
+            loadCount.incrementAndGet();
+            return createSnapshot(1, 1);
+        });
+        CredentialRecordSnapshot snapshot = target.get(credentialId.clone(), key -> {
+            loadCount.incrementAndGet();
+            return createSnapshot(1, 1);
+        });
+
+        assertThat(snapshot.getCounter()).isEqualTo(1);
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(target.stats().hitCount()).isEqualTo(1);
+        assertThat(target.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateCounter_does_not_decrease_counter_test() {
+        byte[] credentialId = new byte[]{0x01, 0x02};
+        target.get(credentialId, key -> createSnapshot(1, 10));
+
+        target.updateCounter(credentialId, 5);
+        assertThat(target.get(credentialId, key -> createSnapshot(1, 0)).getCounter()).isEqualTo(10);
+
+        target.updateCounter(credentialId, 11);
+        assertThat(target.get(credentialId, key -> createSnapshot(1, 0)).getCounter()).isEqualTo(11);
+    }
+
+    @Test
+    public void evictByUserId_test() {
+        byte[] credentialIdOfUser1 = new byte[]{0x01};
+        byte[] credentialIdOfUser2 = new byte[]{0x02};
+        target.get(credentialIdOfUser1, key -> createSnapshot(1, 1));
+        target.get(credentialIdOfUser2, key -> createSnapshot(2, 1));
+
+        target.evictByUserId(1);
+
+        assertThat(target.get(credentialIdOfUser1, key -> createSnapshot(1, 100)).getCounter()).isEqualTo(100);
+        assertThat(target.get(credentialIdOfUser2, key -> createSnapshot(2, 100)).getCounter()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_returns_copy_test() {
+        byte[] credentialId = new byte[]{0x01, 0x02};
+        CredentialRecordSnapshot loaded = target.get(credentialId, key -> createSnapshot(1, 1));
+
+        // webauthn4j updates the verification state of the record it verified
+        loaded.setCounter(2);
+        loaded.setBackedUp(true);
+
+        CredentialRecordSnapshot cached = target.get(credentialId, key -> createSnapshot(1, 0));
+        assertThat(cached.getCounter()).isEqualTo(1);
+        assertThat(cached.isBackedUp()).isFalse();
+    }
+
+    @Test
+    public void bindTo_test() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        target.bindTo(meterRegistry);
+
+        target.get(new byte[]{0x01}, key -> createSnapshot(1, 1));
+
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "credentialRecords").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    private CredentialRecordSnapshot createSnapshot(int userId, long counter) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(userId);
+        CredentialRecordEntity credentialRecordEntity = new CredentialRecordEntity();
+        credentialRecordEntity.setUser(userEntity);
+        credentialRecordEntity.setCounter(counter);
+        return CredentialRecordSnapshot.of(credentialRecordEntity);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import org.junit.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CredentialRecordDescriptorTest {
+
+    @Test
+    public void getUserPrincipal_test() {
+        LoginUser loginUser = new LoginUser(1, "john.doe@example.com", new byte[]{0x01}, Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")), true, null);
+        CredentialRecordDescriptor target = new CredentialRecordDescriptor("john.doe@example.com", loginUser, null, Collections.emptySet(), 0, false, false, false);
+
+        assertThat(target.getUserPrincipal()).isSameAs(loginUser);
+        assertThat(target.getUsername()).isEqualTo("john.doe@example.com");
+    }
+
+    @Test
+    public void getUserPrincipal_without_principal_test() {
+        CredentialRecordDescriptor target = new CredentialRecordDescriptor("john.doe@example.com", null, null, Collections.emptySet(), 0, false, false, false);
+
+        assertThat(target.getUsername()).isEqualTo("john.doe@example.com");
+        assertThatThrownBy(target::getUserPrincipal)
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("john.doe@example.com");
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.authenticator.COSEKey;
+import com.webauthn4j.data.attestation.authenticator.EC2COSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import com.webauthn4j.util.ECUtil;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CredentialRecordSnapshotTest {
+
+    @Test
+    public void public_key_is_built_once_test() {
+        KeyPair keyPair = ECUtil.createKeyPair();
+        EC2COSEKey coseKey = EC2COSEKey.create((ECPublicKey) keyPair.getPublic(), COSEAlgorithmIdentifier.ES256);
+        CredentialRecordEntity credentialRecordEntity = new CredentialRecordEntity();
+        credentialRecordEntity.setAttestedCredentialData(new AttestedCredentialData(AAGUID.ZERO, new byte[]{0x01, 0x02}, coseKey));
+
+        CredentialRecordSnapshot snapshot = CredentialRecordSnapshot.of(credentialRecordEntity);
+        COSEKey cachedKey = snapshot.getAttestedCredentialData().getCOSEKey();
+        PublicKey publicKey = cachedKey.getPublicKey();
+
+        assertThat(publicKey).isEqualTo(keyPair.getPublic());
+        assertThat(cachedKey.getPublicKey()).isSameAs(publicKey);
+        assertThat(snapshot.copy().getAttestedCredentialData().getCOSEKey().getPublicKey()).isSameAs(publicKey);
+        assertThat(cachedKey.getAlgorithm()).isEqualTo(COSEAlgorithmIdentifier.ES256);
+        assertThat(snapshot.getAttestedCredentialData()).isEqualTo(credentialRecordEntity.getAttestedCredentialData());
+    }
+
+    @Test
+    public void snapshot_without_attested_credential_data_test() {
+        CredentialRecordSnapshot snapshot = CredentialRecordSnapshot.of(new CredentialRecordEntity());
+
+        assertThat(snapshot.getAttestedCredentialData()).isNull();
+    }
+}
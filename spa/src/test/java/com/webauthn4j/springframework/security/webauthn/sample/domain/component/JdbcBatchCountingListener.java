@@ -0,0 +1,42 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts JDBC batches executed by Hibernate. Registered through hibernate.session.events.auto in the test configuration.
+ */
+public class JdbcBatchCountingListener implements SessionEventListener {
+
+    private static final AtomicInteger batchCount = new AtomicInteger();
+
+    public static void reset() {
+        batchCount.set(0);
+    }
+
+    public static int getBatchCount() {
+        return batchCount.get();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchCount.incrementAndGet();
+    }
+}
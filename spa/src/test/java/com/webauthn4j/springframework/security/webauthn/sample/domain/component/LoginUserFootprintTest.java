@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.authenticator.EC2COSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.data.client.ClientDataType;
+import com.webauthn4j.data.client.CollectedClientData;
+import com.webauthn4j.data.client.Origin;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.AuthorityEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.GroupEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import com.webauthn4j.util.ECUtil;
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the heap retained by the SecurityContext of one login session, including the whole principal and its
+ * authorities as resolved by {@link AuthorityRegistry}.
+ */
+public class LoginUserFootprintTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginUserFootprintTest.class);
+
+    private final List<AuthorityEntity> canonicalAuthorities = Arrays.asList(
+            new AuthorityEntity(1, "SINGLE_FACTOR_AUTHN_ALLOWED"),
+            new AuthorityEntity(2, "ROLE_USER"),
+            new AuthorityEntity(3, "ROLE_ADMIN"),
+            new AuthorityEntity(4, "ROLE_ACTUATOR"));
+
+    @Test
+    public void login_user_retains_less_heap_than_user_entity_test() {
+        UserEntity userEntity = createUserEntity();
+        // resolved the way AuthorityRegistry does: one SimpleGrantedAuthority per name instead of the entities
+        Set<GrantedAuthority> resolvedAuthorities = new LinkedHashSet<>();
+        for (AuthorityEntity authorityEntity : canonicalAuthorities) {
+            resolvedAuthorities.add(new SimpleGrantedAuthority(authorityEntity.getAuthority()));
+        }
+        resolvedAuthorities = Collections.unmodifiableSet(resolvedAuthorities);
+        userEntity.setGrantedAuthorities(resolvedAuthorities);
+
+        long userEntitySize = sessionSize(userEntity);
+        LoginUser loginUser = LoginUser.of(userEntity, resolvedAuthorities);
+        long loginUserSize = sessionSize(loginUser);
+        logger.info("Per-session SecurityContext size: UserEntity={} bytes, LoginUser={} bytes", userEntitySize, loginUserSize);
+
+        assertThat(GraphLayout.parseInstance(loginUser).toPrintable()).doesNotContain(AuthorityEntity.class.getName());
+        assertThat(loginUserSize).isLessThan(userEntitySize / 2);
+    }
+
+    private long sessionSize(UserDetails principal) {
+        SecurityContext securityContext = new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+        return GraphLayout.parseInstance(securityContext).totalSize();
+    }
+
+    private UserEntity createUserEntity() {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(1);
+        userEntity.setUserHandle(new byte[]{0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d, 0x0e, 0x0f, 0x10});
+        userEntity.setFirstName("John");
+        userEntity.setLastName("Doe");
+        userEntity.setEmailAddress("john.doe@example.com");
+        userEntity.setPassword("$2a$10$rnmM9nRZ.8nPYBvBz3V.quEvYCnAYvMAcDgXHiYhH1Wnv8tRPZhSG");
+        GroupEntity users = new GroupEntity("users");
+        users.setAuthorities(new ArrayList<>(canonicalAuthorities.subList(1, 2)));
+        GroupEntity admins = new GroupEntity("admins");
+        admins.setAuthorities(new ArrayList<>(canonicalAuthorities.subList(2, 4)));
+        userEntity.setGroups(new ArrayList<>(Arrays.asList(users, admins)));
+        userEntity.setAuthorityEntities(new ArrayList<>(canonicalAuthorities.subList(0, 1)));
+        List<CredentialRecordEntity> credentialRecords = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            credentialRecords.add(createCredentialRecord(userEntity, "key" + i));
+        }
+        userEntity.setCredentialRecords(credentialRecords);
+        return userEntity;
+    }
+
+    private CredentialRecordEntity createCredentialRecord(UserEntity user, String name) {
+        byte[] id = UUID.randomUUID().toString().getBytes();
+        EC2COSEKey coseKey = EC2COSEKey.create((ECPublicKey) ECUtil.createKeyPair().getPublic(), COSEAlgorithmIdentifier.ES256);
+        CredentialRecordEntity credentialRecordEntity = new CredentialRecordEntity();
+        credentialRecordEntity.setName(name);
+        credentialRecordEntity.setUser(user);
+        credentialRecordEntity.setAttestedCredentialData(new AttestedCredentialData(AAGUID.ZERO, id, coseKey));
+        credentialRecordEntity.setAttestationStatement(new NoneAttestationStatement());
+        credentialRecordEntity.setClientData(new CollectedClientData(ClientDataType.WEBAUTHN_CREATE, new DefaultChallenge(), new Origin("https://example.com"), null));
+        credentialRecordEntity.setTransports(Collections.singleton(AuthenticatorTransport.create("usb")));
+        return credentialRecordEntity;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.component;
+
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.authenticator.EC2COSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.repository.UserEntityRepository;
+import com.webauthn4j.util.ECUtil;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that a signup is written with a number of JDBC batches independent of the number of authenticators
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class SignupJdbcBatchTest {
+
+    @Autowired
+    private UserManager userManager;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    private final List<Integer> createdUserIds = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        createdUserIds.forEach(userEntityRepository::deleteById);
+    }
+
+    @Test
+    public void createUser_batches_inserts_test() {
+        // warm up the id pools so that the measured signups do not depend on sequence round trips
+        signup(1);
+
+        JdbcBatchCountingListener.reset();
+        signup(1);
+        int singleAuthenticatorBatches = JdbcBatchCountingListener.getBatchCount();
+
+        JdbcBatchCountingListener.reset();
+        signup(3);
+        int multiAuthenticatorBatches = JdbcBatchCountingListener.getBatchCount();
+
+        // user, search tokens, credential record registrations and credential records
+        assertThat(multiAuthenticatorBatches).isLessThanOrEqualTo(4);
+        assertThat(multiAuthenticatorBatches).isEqualTo(singleAuthenticatorBatches);
+    }
+
+    private void signup(int authenticatorCount) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUserHandle(new byte[]{0x01, 0x02, 0x03, 0x04});
+        userEntity.setFirstName("John");
+        userEntity.setLastName("Doe");
+        userEntity.setEmailAddress(UUID.randomUUID() + "@example.com");
+        userEntity.setPassword("password");
+        userEntity.setGroups(new ArrayList<>());
+        userEntity.setAuthorityEntities(new ArrayList<>());
+        List<CredentialRecordEntity> credentialRecords = new ArrayList<>();
+        for (int i = 0; i < authenticatorCount; i++) {
+            credentialRecords.add(createCredentialRecord(userEntity, "key" + i));
+        }
+        userEntity.setCredentialRecords(credentialRecords);
+        createdUserIds.add(userManager.createUser(userEntity).getId());
+    }
+
+    private CredentialRecordEntity createCredentialRecord(UserEntity user, String name) {
+        byte[] id = UUID.randomUUID().toString().getBytes();
+        EC2COSEKey coseKey = EC2COSEKey.create((ECPublicKey) ECUtil.createKeyPair().getPublic(), COSEAlgorithmIdentifier.ES256);
+        CredentialRecordEntity credentialRecordEntity = new CredentialRecordEntity();
+        credentialRecordEntity.setName(name);
+        credentialRecordEntity.setUser(user);
+        credentialRecordEntity.setAttestedCredentialData(new AttestedCredentialData(AAGUID.ZERO, id, coseKey));
+        credentialRecordEntity.setAttestationStatement(new NoneAttestationStatement());
+        credentialRecordEntity.setTransports(Collections.singleton(AuthenticatorTransport.create("usb")));
+        return credentialRecordEntity;
+    }
+}
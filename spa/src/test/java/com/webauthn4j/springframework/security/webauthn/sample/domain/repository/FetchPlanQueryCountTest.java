@@ -0,0 +1,253 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.repository;
+
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.authenticator.EC2COSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.springframework.security.credential.WebAuthnCredentialRecord;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.AuthorityRegistry;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.CredentialRecordManagerImpl;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.LoginUser;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.UserManager;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.service.UserService;
+import com.webauthn4j.util.Base64UrlUtil;
+import com.webauthn4j.util.ECUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.forwardedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements issued per use case, so that the fetch plan fan-out is visible.
+ * Use cases are driven through the real endpoints where they exist.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class FetchPlanQueryCountTest {
+
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Autowired
+    private UserManager userManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CredentialRecordManagerImpl credentialRecordManager;
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    private MockMvc mvc;
+
+    private Statistics statistics;
+
+    private UserEntity userEntity;
+
+    private byte[] credentialId;
+
+    @Before
+    public void setup() {
+        mvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userEntity = new UserEntity();
+        userEntity.setUserHandle(new byte[]{0x01, 0x02, 0x03, 0x04});
+        userEntity.setFirstName("John");
+        userEntity.setLastName("Doe");
+        userEntity.setEmailAddress(UUID.randomUUID() + "@example.com");
+        userEntity.setPassword(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        userEntity.setGroups(new ArrayList<>());
+        userEntity.setAuthorityEntities(new ArrayList<>(Collections.singletonList(authorityRegistry.getAuthority("SINGLE_FACTOR_AUTHN_ALLOWED"))));
+        List<CredentialRecordEntity> credentialRecords = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            credentialRecords.add(createCredentialRecord(userEntity, "key" + i));
+        }
+        userEntity.setCredentialRecords(credentialRecords);
+        userEntity = userEntityRepository.save(userEntity);
+        credentialId = credentialRecords.get(0).getAttestedCredentialData().getCredentialId();
+    }
+
+    @After
+    public void tearDown() {
+        userEntityRepository.deleteById(userEntity.getId());
+        authorityRegistry.evictUser(userEntity.getId());
+    }
+
+    @Test
+    public void password_login_test() throws Exception {
+        statistics.clear();
+
+        mvc.perform(post("/login")
+                        .param("username", userEntity.getEmailAddress())
+                        .param("password", PASSWORD)
+                        .with(csrf()))
+                .andExpect(forwardedUrl("/api/status/200"));
+
+        // user, and authority ids resolved through the authority registry
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void repeated_password_login_test() throws Exception {
+        mvc.perform(post("/login")
+                        .param("username", userEntity.getEmailAddress())
+                        .param("password", PASSWORD)
+                        .with(csrf()))
+                .andExpect(forwardedUrl("/api/status/200"));
+        statistics.clear();
+
+        mvc.perform(post("/login")
+                        .param("username", userEntity.getEmailAddress())
+                        .param("password", PASSWORD)
+                        .with(csrf()))
+                .andExpect(forwardedUrl("/api/status/200"));
+
+        // user only, as the authority ids of the user are cached by the authority registry
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * Driven below the login endpoint, as a request would need an assertion signed by an authenticator
+     */
+    @Test
+    public void webAuthn_login_test() {
+        statistics.clear();
+
+        WebAuthnCredentialRecord loaded = credentialRecordManager.loadCredentialRecordByCredentialId(credentialId);
+        assertThat(loaded.getUserPrincipal().getAuthorities()).hasSize(1);
+
+        // credential record with user, and authority ids resolved through the authority registry
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void options_test() throws Exception {
+        RequestPostProcessor loginUser = loginUser();
+        statistics.clear();
+
+        mvc.perform(get("/webauthn/assertion/options").with(loginUser))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.allowCredentials", hasSize(2)))
+                .andExpect(jsonPath("$.allowCredentials[*].id", hasItem(Base64UrlUtil.encodeToString(credentialId))));
+
+        // credential descriptors of the user
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void profile_view_test() throws Exception {
+        RequestPostProcessor loginUser = loginUser();
+        statistics.clear();
+
+        mvc.perform(get("/api/profile").with(loginUser))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authenticators", hasSize(2)));
+
+        // user with credential records, and authorities
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * The user listing has no endpoint in this sample, so it is driven through {@link UserService}
+     */
+    @Test
+    public void user_list_test() {
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Slice<UserEntity> slice = userService.findAllByKeyword(null, userEntity.getId() - 1, 1);
+            assertThat(slice.getContent()).hasSize(1);
+            assertThat(slice.getContent().get(0).getAuthorityEntities()).hasSize(1);
+        });
+
+        // ids of the page, and users of the page with authorities
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private RequestPostProcessor loginUser() {
+        LoginUser loginUser = userManager.loadUserByUsername(userEntity.getEmailAddress());
+        return authentication(new UsernamePasswordAuthenticationToken(loginUser, null, loginUser.getAuthorities()));
+    }
+
+    private CredentialRecordEntity createCredentialRecord(UserEntity user, String name) {
+        byte[] id = UUID.randomUUID().toString().getBytes();
+        EC2COSEKey coseKey = EC2COSEKey.create((ECPublicKey) ECUtil.createKeyPair().getPublic(), COSEAlgorithmIdentifier.ES256);
+        CredentialRecordEntity credentialRecordEntity = new CredentialRecordEntity();
+        credentialRecordEntity.setName(name);
+        credentialRecordEntity.setUser(user);
+        credentialRecordEntity.setAttestedCredentialData(new AttestedCredentialData(AAGUID.ZERO, id, coseKey));
+        credentialRecordEntity.setAttestationStatement(new NoneAttestationStatement());
+        credentialRecordEntity.setTransports(Collections.singleton(AuthenticatorTransport.create("usb")));
+        return credentialRecordEntity;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.repository;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.UserEntity;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.service.UserService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Covers the trigram and LIKE queries of {@link UserEntityRepository} behind keyword search with keyset pagination
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class UserEntityRepositoryTest {
+
+    private static final int USER_COUNT = 5;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * mixed-case keyword contained only in the last names of the users of this test
+     */
+    private String marker;
+
+    private List<Integer> userIds;
+
+    @Before
+    public void setup() {
+        marker = "Kw" + UUID.randomUUID().toString().substring(0, 6);
+        userIds = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            userIds.add(createUser("User~q" + i, "Doe" + marker).getId());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        userEntityRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    public void page_boundary_test() {
+        Slice<UserEntity> first = userService.findAllByKeyword(marker, null, 2);
+        Slice<UserEntity> second = userService.findAllByKeyword(marker, lastId(first), 2);
+        Slice<UserEntity> third = userService.findAllByKeyword(marker, lastId(second), 2);
+
+        assertThat(ids(first)).containsExactlyElementsOf(userIds.subList(0, 2));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(ids(second)).containsExactlyElementsOf(userIds.subList(2, 4));
+        assertThat(second.hasNext()).isTrue();
+        assertThat(ids(third)).containsExactly(userIds.get(4));
+        assertThat(third.hasNext()).isFalse();
+    }
+
+    @Test
+    public void page_size_equal_to_match_count_test() {
+        Slice<UserEntity> slice = userService.findAllByKeyword(marker, null, USER_COUNT);
+
+        assertThat(ids(slice)).containsExactlyElementsOf(userIds);
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    public void cursor_after_last_row_test() {
+        Slice<UserEntity> slice = userService.findAllByKeyword(marker, userIds.get(USER_COUNT - 1), 2);
+
+        assertThat(slice.getContent()).isEmpty();
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    public void case_insensitive_test() {
+        assertThat(ids(userService.findAllByKeyword(marker.toUpperCase(Locale.ROOT), null, USER_COUNT))).containsExactlyElementsOf(userIds);
+        assertThat(ids(userService.findAllByKeyword(marker.toLowerCase(Locale.ROOT), null, USER_COUNT))).containsExactlyElementsOf(userIds);
+    }
+
+    @Test
+    public void keyword_shorter_than_trigram_test() {
+        // no trigram can be made of the keyword, so the LIKE query is used alone
+        List<UserEntity> users = userService.findAllByKeyword("~Q", null, 100).getContent();
+
+        assertThat(ids(users)).containsAll(userIds);
+        assertThat(users).allMatch(user -> user.getFirstName().toLowerCase(Locale.ROOT).contains("~q")
+                || user.getLastName().toLowerCase(Locale.ROOT).contains("~q")
+                || user.getEmailAddress().toLowerCase(Locale.ROOT).contains("~q"));
+    }
+
+    @Test
+    public void keyword_with_unmatched_trigram_test() {
+        assertThat(userService.findAllByKeyword(marker + "zzz", null, USER_COUNT).getContent()).isEmpty();
+    }
+
+    private UserEntity createUser(String firstName, String lastName) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUserHandle(new byte[]{0x01, 0x02, 0x03, 0x04});
+        userEntity.setFirstName(firstName);
+        userEntity.setLastName(lastName);
+        userEntity.setEmailAddress(UUID.randomUUID() + "@example.com");
+        userEntity.setPassword("password");
+        userEntity.setGroups(new ArrayList<>());
+        userEntity.setAuthorityEntities(new ArrayList<>());
+        userEntity.setCredentialRecords(new ArrayList<>());
+        return userEntityRepository.save(userEntity);
+    }
+
+    private static Integer lastId(Slice<UserEntity> slice) {
+        List<UserEntity> content = slice.getContent();
+        return content.get(content.size() - 1).getId();
+    }
+
+    private static List<Integer> ids(Slice<UserEntity> slice) {
+        return ids(slice.getContent());
+    }
+
+    private static List<Integer> ids(List<UserEntity> users) {
+        return users.stream().map(UserEntity::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.domain.util;
+
+import com.webauthn4j.data.AuthenticatorTransport;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuthenticatorTransportBitmaskTest {
+
+    @Test
+    public void known_transports_test() {
+        Set<AuthenticatorTransport> transports = new HashSet<>();
+        transports.add(AuthenticatorTransport.create("usb"));
+        transports.add(AuthenticatorTransport.create("internal"));
+
+        int bitmask = AuthenticatorTransportBitmask.toBitmask(transports);
+        String overflow = AuthenticatorTransportBitmask.toOverflow(transports);
+
+        assertThat(bitmask).isEqualTo(0b1001);
+        assertThat(overflow).isNull();
+        assertThat(AuthenticatorTransportBitmask.decode(bitmask, overflow)).isEqualTo(transports);
+        assertThat(AuthenticatorTransportBitmask.decode(bitmask, overflow)).isSameAs(AuthenticatorTransportBitmask.decode(bitmask, null));
+    }
+
+    @Test
+    public void unknown_transports_test() {
+        Set<AuthenticatorTransport> transports = new HashSet<>();
+        transports.add(AuthenticatorTransport.create("nfc"));
+        transports.add(AuthenticatorTransport.create("unknown"));
+
+        int bitmask = AuthenticatorTransportBitmask.toBitmask(transports);
+        String overflow = AuthenticatorTransportBitmask.toOverflow(transports);
+
+        assertThat(bitmask).isEqualTo(0b10);
+        assertThat(overflow).isEqualTo("unknown");
+        assertThat(AuthenticatorTransportBitmask.decode(bitmask, overflow)).isEqualTo(transports);
+    }
+
+    @Test
+    public void empty_transports_test() {
+        assertThat(AuthenticatorTransportBitmask.toBitmask(null)).isZero();
+        assertThat(AuthenticatorTransportBitmask.toOverflow(Collections.emptySet())).isNull();
+        assertThat(AuthenticatorTransportBitmask.decode(0, null)).isEmpty();
+    }
+
+    @Test
+    public void transport_containing_delimiter_is_dropped_test() {
+        Set<AuthenticatorTransport> transports = new HashSet<>();
+        transports.add(AuthenticatorTransport.create("usb"));
+        transports.add(AuthenticatorTransport.create("a,b"));
+        transports.add(AuthenticatorTransport.create("unknown"));
+
+        String overflow = AuthenticatorTransportBitmask.toOverflow(transports);
+
+        assertThat(overflow).isEqualTo("unknown");
+        assertThat(AuthenticatorTransportBitmask.decode(AuthenticatorTransportBitmask.toBitmask(transports), overflow))
+                .containsExactlyInAnyOrder(AuthenticatorTransport.create("usb"), AuthenticatorTransport.create("unknown"));
+    }
+
+    @Test
+    public void overflow_is_bounded_test() {
+        Set<AuthenticatorTransport> transports = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            transports.add(AuthenticatorTransport.create(String.format("transport-%02d-%s", i, "x".repeat(AuthenticatorTransportBitmask.MAX_TRANSPORT_LENGTH - 13))));
+        }
+        transports.add(AuthenticatorTransport.create("y".repeat(AuthenticatorTransportBitmask.MAX_TRANSPORT_LENGTH + 1)));
+
+        String overflow = AuthenticatorTransportBitmask.toOverflow(transports);
+        Set<AuthenticatorTransport> decoded = AuthenticatorTransportBitmask.decode(0, overflow);
+
+        assertThat(overflow.length()).isLessThanOrEqualTo(AuthenticatorTransportBitmask.MAX_OVERFLOW_LENGTH);
+        assertThat(decoded).isNotEmpty().hasSizeLessThanOrEqualTo(AuthenticatorTransportBitmask.MAX_OVERFLOW_TRANSPORTS);
+        assertThat(transports).containsAll(decoded);
+        assertThat(AuthenticatorTransportBitmask.toOverflow(transports)).isEqualTo(overflow);
+    }
+}
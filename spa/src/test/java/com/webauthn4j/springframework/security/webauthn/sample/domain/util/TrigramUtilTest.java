@@ -14,20 +14,21 @@
  * limitations under the License.
  */
 
-package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.util.jpa.converter;
+package com.webauthn4j.springframework.security.webauthn.sample.domain.util;
 
-import com.webauthn4j.data.AuthenticatorTransport;
+import org.junit.Test;
 
-import jakarta.persistence.AttributeConverter;
+import static org.assertj.core.api.Assertions.assertThat;
 
-public class AuthenticatorTransportConverter implements AttributeConverter<AuthenticatorTransport, String> {
-    @Override
-    public String convertToDatabaseColumn(AuthenticatorTransport attribute) {
-        return attribute.getValue();
+public class TrigramUtilTest {
+
+    @Test
+    public void trigrams_test() {
+        assertThat(TrigramUtil.trigrams("Taro", null, "ab")).containsExactlyInAnyOrder("tar", "aro");
     }
 
-    @Override
-    public AuthenticatorTransport convertToEntityAttribute(String dbData) {
-        return AuthenticatorTransport.create(dbData);
+    @Test
+    public void toContainsPattern_escapes_wildcards_test() {
+        assertThat(TrigramUtil.toContainsPattern("A_b%\\")).isEqualTo("%a\\_b\\%\\\\%");
     }
 }
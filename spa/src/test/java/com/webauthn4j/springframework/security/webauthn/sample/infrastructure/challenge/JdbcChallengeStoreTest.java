@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.challenge;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two stores sharing one local H2 instance stand in for two nodes
+ */
+public class JdbcChallengeStoreTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcChallengeStore node1;
+    private JdbcChallengeStore node2;
+
+    @Before
+    public void setup() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:challenge_store;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS t_challenge");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V0_0_9__create_challenge.sql")).execute(dataSource);
+        node1 = new JdbcChallengeStore(jdbcTemplate, 2);
+        node2 = new JdbcChallengeStore(jdbcTemplate, 2);
+    }
+
+    @Test
+    public void challenge_saved_on_one_node_is_consumed_once_on_another_test() {
+        node1.save("key", new byte[]{1, 2, 3}, NOW + 5_000, NOW);
+
+        assertThat(node2.consume("key", NOW + 1_000)).containsExactly(1, 2, 3);
+        assertThat(node1.consume("key", NOW + 1_000)).isNull();
+        assertThat(node2.consume("key", NOW + 1_000)).isNull();
+    }
+
+    @Test
+    public void expired_challenge_is_not_consumed_test() {
+        node1.save("key", new byte[]{1}, NOW + 5_000, NOW);
+
+        assertThat(node2.consume("key", NOW + 5_000)).isNull();
+    }
+
+    @Test
+    public void expired_rows_are_purged_test() {
+        node1.save("old", new byte[]{1}, NOW + 1_000, NOW);
+        node1.save("new", new byte[]{2}, NOW + 7_000, NOW + 2_000);
+
+        assertThat(jdbcTemplate.queryForList("SELECT challenge_key FROM t_challenge", String.class)).containsExactly("new");
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.datasource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two local H2 instances, each of which holds its own name in t_instance
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private static final byte[] PIN_SECRET = new byte[32];
+
+    private PrimaryPinCookie primaryPinCookie;
+    private ReadYourWritesFilter readYourWritesFilter;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @Before
+    public void setup() {
+        DataSource primary = createInstance("primary");
+        DataSource replica = createInstance("replica");
+        primaryPinCookie = new PrimaryPinCookie(PIN_SECRET, Duration.ofSeconds(5));
+        readYourWritesFilter = new ReadYourWritesFilter(primaryPinCookie);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, primaryPinCookie));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @After
+    public void tearDown() {
+        DataSourceRoutingContext.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void read_only_transaction_is_routed_to_replica_test() {
+        assertThat(readOnlyTransaction.execute(status -> currentInstance())).isEqualTo("replica");
+    }
+
+    @Test
+    public void read_write_transaction_is_routed_to_primary_test() {
+        assertThat(readWriteTransaction.execute(status -> currentInstance())).isEqualTo("primary");
+    }
+
+    @Test
+    public void reads_after_write_are_routed_to_primary_test() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = bindRequest(new MockHttpServletRequest(), response);
+
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE t_instance SET name = name"));
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE t_instance SET name = name"));
+
+        assertThat(readOnlyTransaction.execute(status -> currentInstance())).isEqualTo("primary");
+        assertThat(request.getSession(false)).isNull();
+        assertThat(response.getCookies()).extracting(Cookie::getName).containsExactly(PrimaryPinCookie.COOKIE_NAME);
+        assertThat(response.getCookie(PrimaryPinCookie.COOKIE_NAME).getMaxAge()).isEqualTo(5);
+
+        DataSourceRoutingContext.clear();
+        assertThat(readOnlyTransaction.execute(status -> currentInstance())).isEqualTo("replica");
+    }
+
+    /**
+     * Registration followed by login: neither request has a session, and the login may be served by another node
+     */
+    @Test
+    public void next_request_without_session_reads_own_writes_test() throws Exception {
+        MockHttpServletRequest signup = new MockHttpServletRequest();
+        MockHttpServletResponse signupResponse = new MockHttpServletResponse();
+        readYourWritesFilter.doFilter(bindRequest(signup, signupResponse), signupResponse,
+                (request, response) -> readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE t_instance SET name = name")));
+        Cookie pinCookie = signupResponse.getCookie(PrimaryPinCookie.COOKIE_NAME);
+        assertThat(pinCookie).isNotNull();
+        assertThat(signup.getSession(false)).isNull();
+
+        MockHttpServletRequest login = new MockHttpServletRequest();
+        login.setCookies(pinCookie);
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        ReadYourWritesFilter otherNode = new ReadYourWritesFilter(new PrimaryPinCookie(PIN_SECRET, Duration.ofSeconds(5)));
+
+        assertThat(readInFilter(otherNode, bindRequest(login, loginResponse), loginResponse)).isEqualTo("primary");
+        assertThat(login.getSession(false)).isNull();
+        assertThat(DataSourceRoutingContext.isPrimaryPinned()).isFalse();
+    }
+
+    @Test
+    public void forged_or_expired_cookie_is_ignored_test() throws Exception {
+        PrimaryPinCookie forger = new PrimaryPinCookie(Duration.ofSeconds(5));
+        MockHttpServletRequest forged = new MockHttpServletRequest();
+        forged.setCookies(new Cookie(PrimaryPinCookie.COOKIE_NAME, forger.issue(System.currentTimeMillis() + 5_000)));
+        assertThat(readInFilter(readYourWritesFilter, forged, new MockHttpServletResponse())).isEqualTo("replica");
+
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.setCookies(new Cookie(PrimaryPinCookie.COOKIE_NAME, primaryPinCookie.issue(System.currentTimeMillis() + 5_000)));
+        primaryPinCookie.setClock(Clock.fixed(Instant.now().plusSeconds(6), ZoneOffset.UTC));
+        assertThat(readInFilter(readYourWritesFilter, expired, new MockHttpServletResponse())).isEqualTo("replica");
+    }
+
+    @Test
+    public void write_outside_request_does_not_pin_thread_test() {
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE t_instance SET name = name"));
+
+        assertThat(DataSourceRoutingContext.isPrimaryPinned()).isFalse();
+        assertThat(readOnlyTransaction.execute(status -> currentInstance())).isEqualTo("replica");
+    }
+
+    private MockHttpServletRequest bindRequest(MockHttpServletRequest request, MockHttpServletResponse response) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return request;
+    }
+
+    private String readInFilter(ReadYourWritesFilter filter, MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> instance = new AtomicReference<>();
+        FilterChain chain = (filteredRequest, filteredResponse) -> instance.set(readOnlyTransaction.execute(status -> currentInstance()));
+        filter.doFilter(request, response, chain);
+        return instance.get();
+    }
+
+    private String currentInstance() {
+        return jdbcTemplate.queryForObject("SELECT name FROM t_instance", String.class);
+    }
+
+    private DataSource createInstance(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("DROP TABLE IF EXISTS t_instance");
+        template.execute("CREATE TABLE t_instance (name VARCHAR(16))");
+        template.update("INSERT INTO t_instance VALUES (?)", name);
+        return dataSource;
+    }
+}
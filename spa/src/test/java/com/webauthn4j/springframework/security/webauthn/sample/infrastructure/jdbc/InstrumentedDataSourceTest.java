@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstrumentedDataSourceTest {
+
+    private static final String SELECT_SQL = "SELECT id FROM t_item WHERE id > ?";
+    private static final String INSERT_SQL = "INSERT INTO t_item (id) VALUES (?)";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcInstrumentation jdbcInstrumentation;
+    private InstrumentedDataSource dataSource;
+
+    @Before
+    public void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        jdbcInstrumentation = new JdbcInstrumentation(meterRegistry, Duration.ZERO, 10, 100);
+        dataSource = new InstrumentedDataSource(new DriverManagerDataSource("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1"), jdbcInstrumentation);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS t_item");
+            statement.execute("CREATE TABLE t_item (id INTEGER PRIMARY KEY)");
+        }
+        jdbcInstrumentation.reset();
+    }
+
+    @Test
+    public void records_latency_and_affected_rows_test() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                for (int i = 1; i <= 3; i++) {
+                    insert.setInt(1, i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement select = connection.prepareStatement(SELECT_SQL)) {
+                select.setInt(1, 1);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        // consume rows
+                    }
+                }
+            }
+        }
+
+        List<JdbcInstrumentation.StatementSnapshot> snapshots = jdbcInstrumentation.getStatementSnapshots();
+        assertThat(snapshots).extracting(JdbcInstrumentation.StatementSnapshot::getSql).containsExactlyInAnyOrder(INSERT_SQL, SELECT_SQL);
+        JdbcInstrumentation.StatementSnapshot insert = find(snapshots, INSERT_SQL);
+        assertThat(insert.getCount()).isEqualTo(1);
+        assertThat(insert.getRows()).isEqualTo(3);
+        JdbcInstrumentation.StatementSnapshot select = find(snapshots, SELECT_SQL);
+        assertThat(select.getCount()).isEqualTo(1);
+        // result sets are not wrapped
+        assertThat(select.getRowSamples()).isZero();
+
+        assertThat(meterRegistry.get("jdbc.statement").tag("kind", "query").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jdbc.statement").tag("kind", "batch").timer().count()).isEqualTo(1);
+        // every statement exceeds the zero threshold
+        assertThat(jdbcInstrumentation.getSlowQueries()).hasSize(2);
+    }
+
+    @Test
+    public void statements_over_the_limit_are_aggregated_test() throws Exception {
+        jdbcInstrumentation = new JdbcInstrumentation(meterRegistry, Duration.ofHours(1), 10, 1);
+        dataSource = new InstrumentedDataSource(new DriverManagerDataSource("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1"), jdbcInstrumentation);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1").close();
+            statement.executeQuery("SELECT 2").close();
+        }
+
+        assertThat(jdbcInstrumentation.getStatementSnapshots()).extracting(JdbcInstrumentation.StatementSnapshot::getSql)
+                .containsExactlyInAnyOrder("SELECT 1", JdbcInstrumentation.OTHER_STATEMENTS);
+        assertThat(jdbcInstrumentation.getSlowQueries()).isEmpty();
+    }
+
+    @Test
+    public void batch_of_plain_statement_is_recorded_under_first_sql_test() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.addBatch("INSERT INTO t_item (id) VALUES (1)");
+            statement.addBatch("INSERT INTO t_item (id) VALUES (2)");
+            statement.executeBatch();
+        }
+
+        JdbcInstrumentation.StatementSnapshot batch = find(jdbcInstrumentation.getStatementSnapshots(), "INSERT INTO t_item (id) VALUES (1)");
+        assertThat(batch.getCount()).isEqualTo(1);
+        assertThat(batch.getRows()).isEqualTo(2);
+    }
+
+    @Test
+    public void wrappers_expose_connection_and_delegate_test() throws Exception {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(SELECT_SQL)) {
+            assertThat(statement.getConnection()).isSameAs(connection);
+            assertThat(connection.unwrap(Connection.class)).isNotSameAs(connection);
+            assertThat(statement.unwrap(PreparedStatement.class)).isNotSameAs(statement);
+        }
+    }
+
+    private JdbcInstrumentation.StatementSnapshot find(List<JdbcInstrumentation.StatementSnapshot> snapshots, String sql) {
+        return snapshots.stream().filter(snapshot -> sql.equals(snapshot.getSql())).findFirst().orElseThrow(AssertionError::new);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.migration;
+
+import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.GroupEntity;
+import com.webauthn4j.util.Base64UrlUtil;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates an H2 database from V0_0_1 with rows seeded in the old layout, then starts the application on it with
+ * ddl-auto: validate, so that the SQL and Java migrations are checked against the entities
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + FlywayMigrationTest.URL,
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+public class FlywayMigrationTest {
+
+    static final String URL = "jdbc:h2:mem:flyway_migration;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=TRUE;MODE=MySQL";
+
+    private static final String LOCATION = "classpath:db/migration/h2";
+
+    private static final byte[] CREDENTIAL_ID = {1, 2, 3, 4};
+    private static final byte[] ATTESTATION_STATEMENT = "attestation-statement".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeClass
+    public static void migrate() {
+        DataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        Flyway.configure().dataSource(dataSource).locations(LOCATION).target("0.0.1").load().migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO m_user VALUES (1, X'5F0595F889784ABB8220C6736727E8BE', 'Ichiro', 'Tanaka', 'i.tanaka@example.com', 'password', false)");
+        jdbcTemplate.update("INSERT INTO m_authority VALUES (4, 'ROLE_ADMIN')");
+        jdbcTemplate.update("INSERT INTO r_user_authority VALUES (1, 4)");
+        jdbcTemplate.update("INSERT INTO m_credential_record (id, name, user_id, counter, uv_initialized, backup_eligible, backed_up, aaguid, credential_id, cose_key, "
+                        + "attestation_statement, client_data, client_extensions, authenticator_extensions) VALUES (1, 'key', 1, 0, false, false, false, ?, ?, ?, ?, ?, ?, ?)",
+                new byte[16], CREDENTIAL_ID, new byte[]{5},
+                Base64UrlUtil.encodeToString(ATTESTATION_STATEMENT), Base64UrlUtil.encodeToString(new byte[]{6}), "{}", Base64UrlUtil.encodeToString(new byte[]{7}));
+        jdbcTemplate.update("INSERT INTO m_transport VALUES (1, 'usb')");
+        jdbcTemplate.update("INSERT INTO m_transport VALUES (1, 'hybrid')");
+        jdbcTemplate.update("INSERT INTO m_transport VALUES (1, 'future-transport')");
+
+        Flyway.configure().dataSource(dataSource).locations(LOCATION).load().migrate();
+    }
+
+    @Test
+    public void all_migrations_are_applied_test() {
+        List<String> versions = jdbcTemplate.queryForList("SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" = TRUE ORDER BY \"installed_rank\"", String.class);
+
+        assertThat(versions).containsExactly("0.0.0", "0.0.1", "0.0.2", "0.0.3", "0.0.4", "0.0.5", "0.0.6", "0.0.7", "0.0.8", "0.0.9");
+    }
+
+    @Test
+    public void existing_credential_record_is_migrated_test() throws Exception {
+        byte[] digest = jdbcTemplate.queryForObject("SELECT credential_id_digest FROM m_credential_record WHERE id = 1", byte[].class);
+        Integer transports = jdbcTemplate.queryForObject("SELECT transports FROM m_credential_record WHERE id = 1", Integer.class);
+        String overflow = jdbcTemplate.queryForObject("SELECT transports_overflow FROM m_credential_record WHERE id = 1", String.class);
+        byte[] attestationStatement = jdbcTemplate.queryForObject(
+                "SELECT registration.attestation_statement FROM m_credential_record_registration registration JOIN m_credential_record record ON record.registration_id = registration.id WHERE record.id = 1",
+                byte[].class);
+
+        assertThat(digest).isEqualTo(MessageDigest.getInstance("SHA-256").digest(CREDENTIAL_ID));
+        assertThat(transports).isEqualTo(1 | 16);
+        assertThat(overflow).isEqualTo("future-transport");
+        assertThat(attestationStatement).isEqualTo(ATTESTATION_STATEMENT);
+    }
+
+    @Test
+    public void existing_user_is_migrated_test() {
+        List<Integer> authorityIds = jdbcTemplate.queryForList("SELECT authority_id FROM r_user_authority WHERE user_id = 1", Integer.class);
+        List<String> tokens = jdbcTemplate.queryForList("SELECT token FROM m_user_search_token WHERE user_id = 1", String.class);
+
+        assertThat(authorityIds).containsExactly(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM m_authority WHERE authority = 'ROLE_ADMIN'", Integer.class)).isEqualTo(1);
+        assertThat(tokens).contains("ich", "tan", "i.t");
+    }
+
+    /**
+     * V0_0_7 starts each sequence at max id plus the allocation size, so the first id block of the pooled optimizer
+     * begins right after the rows loaded by V0_0_1
+     */
+    @Test
+    public void sequence_continues_after_existing_rows_test() {
+        Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM m_group", Integer.class);
+
+        GroupEntity group = transactionTemplate.execute(status -> {
+            GroupEntity entity = new GroupEntity("Group D");
+            entityManager.persist(entity);
+            return entity;
+        });
+
+        assertThat(group.getId()).isEqualTo(maxId + 1);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.springframework.security.webauthn.sample.infrastructure.session;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.springframework.security.WebAuthnAuthenticationToken;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.LoginUser;
+import org.junit.Test;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SessionAttributeCodecTest {
+
+    private final SessionAttributeCodec target = new SessionAttributeCodec(new ObjectConverter());
+
+    @Test
+    public void webAuthn_security_context_test() {
+        SecurityContext securityContext = createWebAuthnSecurityContext();
+
+        byte[] encoded = target.encode(securityContext);
+        assertThat(encoded[1]).isEqualTo(SessionAttributeCodec.TYPE_SECURITY_CONTEXT);
+
+        SecurityContext decoded = (SecurityContext) target.decode(encoded);
+        Authentication authentication = decoded.getAuthentication();
+        assertThat(authentication).isInstanceOf(WebAuthnAuthenticationToken.class);
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getDetails()).isEqualTo(securityContext.getAuthentication().getDetails());
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER", "SINGLE_FACTOR_AUTHN_ALLOWED");
+        LoginUser loginUser = (LoginUser) authentication.getPrincipal();
+        assertThat(loginUser.getId()).isEqualTo(1);
+        assertThat(loginUser.getUsername()).isEqualTo("john.doe@example.com");
+        assertThat(loginUser.getUserHandle()).containsExactly(0x01, 0x02, 0x03, 0x04);
+    }
+
+    @Test
+    public void password_security_context_test() {
+        LoginUser loginUser = createLoginUser();
+        Set<GrantedAuthority> tokenAuthorities = new LinkedHashSet<>(loginUser.getAuthorities());
+        tokenAuthorities.add(new SimpleGrantedAuthority("ROLE_EXTRA"));
+        SecurityContext securityContext = new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(loginUser, null, tokenAuthorities));
+
+        SecurityContext decoded = (SecurityContext) target.decode(target.encode(securityContext));
+        Authentication authentication = decoded.getAuthentication();
+        assertThat(authentication).isInstanceOf(UsernamePasswordAuthenticationToken.class);
+        assertThat(authentication.getDetails()).isNull();
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER", "SINGLE_FACTOR_AUTHN_ALLOWED", "ROLE_EXTRA");
+        assertThat(((LoginUser) authentication.getPrincipal()).getAuthorities()).hasSize(2);
+    }
+
+    @Test
+    public void decoded_authority_sets_are_shared_test() {
+        SecurityContext decoded1 = (SecurityContext) target.decode(target.encode(createWebAuthnSecurityContext()));
+        SecurityContext decoded2 = (SecurityContext) target.decode(target.encode(createWebAuthnSecurityContext()));
+
+        assertThat(decoded1.getAuthentication().getAuthorities()).isSameAs(decoded2.getAuthentication().getAuthorities());
+    }
+
+    @Test
+    public void empty_security_context_test() {
+        SecurityContext decoded = (SecurityContext) target.decode(target.encode(new SecurityContextImpl()));
+
+        assertThat(decoded.getAuthentication()).isNull();
+    }
+
+    @Test
+    public void challenge_test() {
+        DefaultChallenge challenge = new DefaultChallenge();
+
+        byte[] encoded = target.encode(challenge);
+        assertThat(encoded).hasSize(challenge.getValue().length + 2);
+        assertThat(target.decode(encoded)).isEqualTo(challenge);
+    }
+
+    @Test
+    public void unknown_attribute_falls_back_to_serialization_test() {
+        ArrayList<String> attribute = new ArrayList<>(Arrays.asList("a", "b"));
+
+        byte[] encoded = target.encode(attribute);
+        assertThat(encoded[1]).isEqualTo(SessionAttributeCodec.TYPE_SERIALIZED);
+        assertThat(target.decode(encoded)).isEqualTo(attribute);
+    }
+
+    @Test
+    public void encoded_security_context_is_smaller_than_serialized_test() throws IOException {
+        SecurityContext securityContext = createWebAuthnSecurityContext();
+
+        assertThat(target.encode(securityContext).length).isLessThan(serialize(securityContext).length / 4);
+    }
+
+    @Test
+    public void encoded_challenge_is_smaller_than_serialized_test() throws IOException {
+        DefaultChallenge challenge = new DefaultChallenge();
+
+        assertThat(target.encode(challenge).length).isLessThan(serialize(challenge).length / 4);
+    }
+
+    @Test
+    public void conversion_service_test() {
+        ConversionService conversionService = target.createConversionService();
+        SecurityContext securityContext = createWebAuthnSecurityContext();
+
+        byte[] encoded = conversionService.convert(securityContext, byte[].class);
+        assertThat(encoded).isEqualTo(target.encode(securityContext));
+        SecurityContext decoded = (SecurityContext) conversionService.convert(encoded, Object.class);
+        assertThat(decoded.getAuthentication().getPrincipal()).isInstanceOf(LoginUser.class);
+    }
+
+    private static byte[] serialize(Object attribute) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(attribute);
+        }
+        return outputStream.toByteArray();
+    }
+
+    static SecurityContext createWebAuthnSecurityContext() {
+        LoginUser loginUser = createLoginUser();
+        WebAuthnAuthenticationToken authentication = new WebAuthnAuthenticationToken(loginUser, null, loginUser.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetails("127.0.0.1", "5F2A1C8E0B9D4F6A7C3E1B0D9F8A6C4E"));
+        return new SecurityContextImpl(authentication);
+    }
+
+    private static LoginUser createLoginUser() {
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        authorities.add(new SimpleGrantedAuthority("SINGLE_FACTOR_AUTHN_ALLOWED"));
+        return new LoginUser(1, "john.doe@example.com", new byte[]{0x01, 0x02, 0x03, 0x04}, Collections.unmodifiableSet(authorities), true, null);
+    }
+}
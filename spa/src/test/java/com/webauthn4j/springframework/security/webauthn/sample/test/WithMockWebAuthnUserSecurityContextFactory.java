@@ -18,6 +18,7 @@ package com.webauthn4j.springframework.security.webauthn.sample.test;
 
 import com.webauthn4j.springframework.security.WebAuthnAuthenticationRequest;
 import com.webauthn4j.springframework.security.WebAuthnAuthenticationToken;
+import com.webauthn4j.springframework.security.webauthn.sample.domain.component.LoginUser;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.CredentialRecordEntity;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.AuthorityEntity;
 import com.webauthn4j.springframework.security.webauthn.sample.domain.entity.GroupEntity;
@@ -61,16 +62,17 @@ public class WithMockWebAuthnUserSecurityContextFactory implements WithSecurityC
                         })
                         .collect(Collectors.toList());
 
-        UserEntity principal = new UserEntity();
-        principal.setId(user.id());
-        principal.setUserHandle(Base64UrlUtil.decode(user.userHandleBase64Url()));
-        principal.setFirstName(user.firstName());
-        principal.setLastName(user.lastName());
-        principal.setEmailAddress(user.emailAddress());
-        principal.setGroups(groups);
-        principal.setAuthorities(authorities);
-        principal.setCredentialRecords(authenticatorEntities);
-        principal.setLocked(user.locked());
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(user.id());
+        userEntity.setUserHandle(Base64UrlUtil.decode(user.userHandleBase64Url()));
+        userEntity.setFirstName(user.firstName());
+        userEntity.setLastName(user.lastName());
+        userEntity.setEmailAddress(user.emailAddress());
+        userEntity.setGroups(groups);
+        userEntity.setAuthorityEntities(authorities);
+        userEntity.setCredentialRecords(authenticatorEntities);
+        userEntity.setLocked(user.locked());
+        LoginUser principal = LoginUser.of(userEntity);
 
         WebAuthnAuthenticationRequest request = mock(WebAuthnAuthenticationRequest.class);
 